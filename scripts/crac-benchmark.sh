@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+#
+# Time to first /mcp/ai response: cold JVM start vs CRaC restore.
+#
+# Needs a CRaC-enabled JDK 17+ (e.g. Azul Zulu CRaC) as $JAVA, and the
+# jar from `mvn -DskipTests package`. The checkpoint is taken by the
+# app itself once warm-up is done (digit.crac.checkpoint-after-warmup).
+# The restored instance also reports the time from restore to its first
+# handled request as digit.crac.restore.first-response.
+#
+#   scripts/crac-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+JAVA=${JAVA:-java}
+PORT=${PORT:-18080}
+JAR=target/digit-ai-orchestrator-0.0.1-SNAPSHOT.jar
+CHECKPOINT=target/crac
+BASE="http://127.0.0.1:${PORT}"
+
+now_ms() { date +%s%3N; }
+
+first_response() {
+    until curl -fs -o /dev/null -X POST "$BASE/mcp/ai" \
+        -H "X-Session-Id: bench" -H "Content-Type: application/json" \
+        -d '{"message":"configure workflow"}' 2>/dev/null; do
+        sleep 0.005
+    done
+}
+
+measure() {
+    local label=$1; shift
+    local total=0
+    for ((i = 1; i <= RUNS; i++)); do
+        local start pid
+        start=$(now_ms)
+        "$@" >/dev/null 2>&1 &
+        pid=$!
+        first_response
+        total=$((total + $(now_ms) - start))
+        kill "$pid"; wait "$pid" 2>/dev/null || true
+    done
+    printf '%-8s first response after %6d ms   (mean of %d)\n' "$label" $((total / RUNS)) "$RUNS"
+}
+
+[[ -f $JAR ]] || { echo "build the jar first: mvn -DskipTests package" >&2; exit 1; }
+
+measure cold "$JAVA" -jar "$JAR" --server.port="$PORT"
+
+rm -rf "$CHECKPOINT"
+# Exits once the checkpoint image is written
+"$JAVA" -XX:CRaCCheckpointTo="$CHECKPOINT" -jar "$JAR" \
+    --server.port="$PORT" --digit.crac.checkpoint-after-warmup=true >/dev/null 2>&1 || true
+[[ -d $CHECKPOINT ]] || { echo "no checkpoint written; is $JAVA a CRaC JDK?" >&2; exit 1; }
+
+measure restore "$JAVA" -XX:CRaCRestoreFrom="$CHECKPOINT"
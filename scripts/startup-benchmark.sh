@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Compare cold start of the orchestrator as a plain JVM jar, with an
+# AppCDS archive, and as a GraalVM native image.
+#
+# For each variant: time from exec until /actuator/health/readiness is UP,
+# and resident set size (RSS) once ready.
+#
+#   mvn -DskipTests package                    # jar (and AppCDS training)
+#   mvn -Pnative -DskipTests native:compile    # native image (GraalVM JDK)
+#   scripts/startup-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAR=target/digit-ai-orchestrator-0.0.1-SNAPSHOT.jar
+NATIVE=target/digit-ai-orchestrator
+CDS=target/app.jsa
+READY_URL="http://127.0.0.1:${PORT}/actuator/health/readiness"
+
+# Warm-up and LLM preconnect are off so only the runtime itself is measured
+APP_ARGS=(--server.port="$PORT" --digit.warmup.enabled=false)
+
+now_ms() { date +%s%3N; }
+
+rss_kb() { awk '/VmRSS/ { print $2 }' "/proc/$1/status"; }
+
+measure() {
+    local label=$1; shift
+    local total_ms=0 total_rss=0
+    for ((i = 1; i <= RUNS; i++)); do
+        local start pid
+        start=$(now_ms)
+        "$@" "${APP_ARGS[@]}" >/dev/null 2>&1 &
+        pid=$!
+        until curl -fs "$READY_URL" 2>/dev/null | grep -q '"UP"'; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label: process exited before becoming ready" >&2
+                return 1
+            fi
+            sleep 0.01
+        done
+        local ready_ms=$(( $(now_ms) - start ))
+        local rss
+        rss=$(rss_kb "$pid")
+        kill "$pid"; wait "$pid" 2>/dev/null || true
+        total_ms=$((total_ms + ready_ms))
+        total_rss=$((total_rss + rss))
+    done
+    printf '%-8s ready in %6d ms   RSS %7d KB   (mean of %d)\n' \
+        "$label" $((total_ms / RUNS)) $((total_rss / RUNS)) "$RUNS"
+}
+
+if [[ -f $JAR ]]; then
+    measure jvm java -jar "$JAR"
+
+    if [[ ! -f $CDS ]]; then
+        # Training run: start the context, stop, and dump loaded classes
+        java -XX:ArchiveClassesAtExit="$CDS" -Dspring.context.exit=onRefresh \
+            -jar "$JAR" "${APP_ARGS[@]}" >/dev/null 2>&1 || true
+    fi
+    measure appcds java -XX:SharedArchiveFile="$CDS" -jar "$JAR"
+else
+    echo "skipping jvm/appcds: $JAR not built" >&2
+fi
+
+if [[ -x $NATIVE ]]; then
+    measure native "$NATIVE"
+else
+    echo "skipping native: $NATIVE not built (mvn -Pnative native:compile)" >&2
+fi
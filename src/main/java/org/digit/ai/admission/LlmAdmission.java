@@ -0,0 +1,130 @@
+package org.digit.ai.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for expensive (LLM-backed) requests.
+ *
+ * LLM work runs on its own bounded pool with a bounded queue, so it can
+ * never occupy the request threads that serve confirmations and
+ * allowed-tools reads. When the queue is full the request is shed at
+ * once; work that has already waited longer than {@code maxQueueWait}
+ * is shed when it reaches a worker rather than run for a caller that
+ * has likely given up.
+ */
+public class LlmAdmission implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration maxQueueWait;
+    private final Duration retryAfter;
+    private final LongSupplier nanoClock;
+
+    private final Counter admitted;
+    private final Counter shedQueueFull;
+    private final Counter shedQueueWait;
+
+    public LlmAdmission(
+            int concurrency,
+            int queueCapacity,
+            Duration maxQueueWait,
+            Duration retryAfter,
+            MeterRegistry registry
+    ) {
+        this(concurrency, queueCapacity, maxQueueWait, retryAfter, registry, System::nanoTime);
+    }
+
+    public LlmAdmission(
+            int concurrency,
+            int queueCapacity,
+            Duration maxQueueWait,
+            Duration retryAfter,
+            MeterRegistry registry,
+            LongSupplier nanoClock
+    ) {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            concurrency,
+            concurrency,
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread thread = new Thread(r, "llm-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.maxQueueWait = maxQueueWait;
+        this.retryAfter = retryAfter;
+        this.nanoClock = nanoClock;
+
+        this.admitted = Counter.builder("digit.admission.llm")
+            .tag("outcome", "admitted")
+            .register(registry);
+        this.shedQueueFull = Counter.builder("digit.admission.llm")
+            .tag("outcome", "shed")
+            .tag("reason", "queue-full")
+            .register(registry);
+        this.shedQueueWait = Counter.builder("digit.admission.llm")
+            .tag("outcome", "shed")
+            .tag("reason", "queue-wait")
+            .register(registry);
+        Gauge.builder("digit.admission.llm.queued", executor, e -> e.getQueue().size())
+            .register(registry);
+    }
+
+    /**
+     * Run LLM-backed work if there is room; otherwise the returned
+     * future fails with {@link OverloadedException}.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = nanoClock.getAsLong();
+
+        try {
+            executor.execute(() -> {
+                if (nanoClock.getAsLong() - enqueuedAt > maxQueueWait.toNanos()) {
+                    shedQueueWait.increment();
+                    result.completeExceptionally(overloaded());
+                    return;
+                }
+                try {
+                    result.complete(work.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shedQueueFull.increment();
+            return CompletableFuture.failedFuture(overloaded());
+        }
+
+        admitted.increment();
+        return result;
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private OverloadedException overloaded() {
+        return new OverloadedException("Assistant is busy, please retry shortly", retryAfter);
+    }
+}
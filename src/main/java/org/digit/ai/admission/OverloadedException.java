@@ -0,0 +1,20 @@
+package org.digit.ai.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed; answered with 503 and Retry-After.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
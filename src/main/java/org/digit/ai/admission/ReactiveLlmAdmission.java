@@ -0,0 +1,150 @@
+package org.digit.ai.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for LLM-backed requests on the reactive stack.
+ *
+ * Same contract as {@link LlmAdmission}, without a thread per call:
+ * work is queued into a bounded sink and drained by a
+ * {@code flatMap} that keeps at most {@code concurrency} calls in
+ * flight, requesting the next one only when a call finishes. Work that
+ * finds the queue full, or that waited longer than {@code maxQueueWait}
+ * before its turn, fails with {@link OverloadedException}.
+ */
+public class ReactiveLlmAdmission implements AutoCloseable {
+
+    private final ArrayBlockingQueue<Task<?>> queue;
+    private final Sinks.Many<Task<?>> sink;
+    private final Disposable drain;
+    private final Duration maxQueueWait;
+    private final Duration retryAfter;
+    private final LongSupplier nanoClock;
+
+    private final Counter admitted;
+    private final Counter shedQueueFull;
+    private final Counter shedQueueWait;
+
+    public ReactiveLlmAdmission(
+            int concurrency,
+            int queueCapacity,
+            Duration maxQueueWait,
+            Duration retryAfter,
+            MeterRegistry registry
+    ) {
+        this(concurrency, queueCapacity, maxQueueWait, retryAfter, registry, System::nanoTime);
+    }
+
+    public ReactiveLlmAdmission(
+            int concurrency,
+            int queueCapacity,
+            Duration maxQueueWait,
+            Duration retryAfter,
+            MeterRegistry registry,
+            LongSupplier nanoClock
+    ) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+        this.drain = sink.asFlux()
+            .flatMap(Task::run, concurrency, 1)
+            .subscribe();
+        this.maxQueueWait = maxQueueWait;
+        this.retryAfter = retryAfter;
+        this.nanoClock = nanoClock;
+
+        this.admitted = Counter.builder("digit.admission.llm")
+            .tag("outcome", "admitted")
+            .register(registry);
+        this.shedQueueFull = Counter.builder("digit.admission.llm")
+            .tag("outcome", "shed")
+            .tag("reason", "queue-full")
+            .register(registry);
+        this.shedQueueWait = Counter.builder("digit.admission.llm")
+            .tag("outcome", "shed")
+            .tag("reason", "queue-wait")
+            .register(registry);
+        Gauge.builder("digit.admission.llm.queued", queue, ArrayBlockingQueue::size)
+            .register(registry);
+    }
+
+    /**
+     * Run LLM-backed work if there is room; otherwise the returned Mono
+     * fails with {@link OverloadedException}. The work is subscribed
+     * once, when a slot frees up.
+     */
+    public <T> Mono<T> submit(Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            Task<T> task = new Task<>(work, nanoClock.getAsLong());
+
+            Sinks.EmitResult result;
+            while ((result = sink.tryEmitNext(task)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                // another producer is emitting; its offer takes a few nanoseconds
+                Thread.onSpinWait();
+            }
+            if (result.isFailure()) {
+                shedQueueFull.increment();
+                return Mono.error(overloaded());
+            }
+
+            admitted.increment();
+            return task.result.asMono();
+        });
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        drain.dispose();
+    }
+
+    private OverloadedException overloaded() {
+        return new OverloadedException("Assistant is busy, please retry shortly", retryAfter);
+    }
+
+    private final class Task<T> {
+
+        private final Supplier<Mono<T>> work;
+        private final long enqueuedAt;
+        private final Sinks.One<T> result = Sinks.one();
+
+        private Task(Supplier<Mono<T>> work, long enqueuedAt) {
+            this.work = work;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        /**
+         * Completes when the work does, freeing the slot; never errors,
+         * so one failed call does not end the drain.
+         */
+        private Mono<Void> run() {
+            if (nanoClock.getAsLong() - enqueuedAt > maxQueueWait.toNanos()) {
+                shedQueueWait.increment();
+                result.tryEmitError(overloaded());
+                return Mono.empty();
+            }
+            return Mono.defer(work)
+                .doOnNext(result::tryEmitValue)
+                .doOnError(result::tryEmitError)
+                .doOnSuccess(value -> {
+                    if (value == null) {
+                        result.tryEmitEmpty();
+                    }
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+        }
+    }
+}
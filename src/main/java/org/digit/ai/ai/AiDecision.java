@@ -1,10 +1,13 @@
 package org.digit.ai.ai;
 
+import java.util.Map;
+
 public record AiDecision(
         DecisionType type,
         String tool,
         String message,
-        String proposedAction
+        String proposedAction,
+        Map<String, Object> arguments
 ) {
     public enum DecisionType {
         EXECUTE,
@@ -12,14 +15,21 @@ public record AiDecision(
     }
 
     public static AiDecision execute(String tool) {
-        return new AiDecision(DecisionType.EXECUTE, tool, null, null);
+        return new AiDecision(DecisionType.EXECUTE, tool, null, null, Map.of());
     }
 
     public static AiDecision explain(String message) {
-        return new AiDecision(DecisionType.EXPLAIN, null, message, null);
+        return new AiDecision(DecisionType.EXPLAIN, null, message, null, Map.of());
     }
 
     public static AiDecision explain(String message, String proposedAction) {
-        return new AiDecision(DecisionType.EXPLAIN, null, message, proposedAction);
+        return new AiDecision(DecisionType.EXPLAIN, null, message, proposedAction, Map.of());
+    }
+
+    /**
+     * Same decision, carrying arguments for the executed or proposed tool.
+     */
+    public AiDecision withArguments(Map<String, Object> arguments) {
+        return new AiDecision(type, tool, message, proposedAction, Map.copyOf(arguments));
     }
 }
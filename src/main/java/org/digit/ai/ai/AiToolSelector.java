@@ -1,7 +1,50 @@
 package org.digit.ai.ai;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface AiToolSelector {
     AiDecision decide(String userMessage, List<String> allowedTools);
+
+    default AiDecision decide(String userMessage, List<String> allowedTools, InferenceContext context) {
+        return decide(userMessage, allowedTools);
+    }
+
+    /**
+     * Non-blocking decision for the reactive stack. The default runs the
+     * blocking {@link #decide} on the bounded-elastic scheduler.
+     */
+    default Mono<AiDecision> decideReactive(String userMessage, List<String> allowedTools, InferenceContext context) {
+        return Mono.fromCallable(() -> decide(userMessage, allowedTools, context))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Open connections to the model provider ahead of the first request.
+     */
+    default void preconnect() {
+    }
+
+    /**
+     * Close pooled connections, e.g. before a checkpoint.
+     */
+    default void evictConnections() {
+    }
+
+    /**
+     * Run the decision path for the given allowed-tool sets so caches
+     * are filled and the code is compiled before real traffic.
+     */
+    default void warmUp(Collection<List<String>> allowedToolSets, int iterations) {
+    }
+
+    /**
+     * Allowed-tool sets seen so far, to seed the next start's warm-up.
+     */
+    default Collection<List<String>> cachedToolSets() {
+        return List.of();
+    }
 }
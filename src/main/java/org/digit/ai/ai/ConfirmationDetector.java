@@ -0,0 +1,304 @@
+package org.digit.ai.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Local YES/NO detection for replies to a proposed action.
+ *
+ * Phrases of an affirmative, a negative and a filler lexicon are
+ * compiled into one Aho-Corasick automaton, stored as a dense
+ * transition table, so a message is scanned once whatever the size of
+ * the lexicon. Phrases only match whole words. A message is an answer
+ * only if every word belongs to a matched phrase and the phrases agree:
+ * "ok do it" or "haan ji" is affirmative, "no thanks" negative, while
+ * "yes, but set up workflows first" or "yes no" is not an answer and
+ * goes to intent inference as before. A phrase inside a longer matched
+ * phrase does not count, so "don't do it" is negative.
+ */
+public final class ConfirmationDetector {
+
+    public enum Answer {
+        AFFIRMATIVE,
+        NEGATIVE,
+        NONE
+    }
+
+    private static final List<String> AFFIRMATIVE = List.of(
+        "yes", "y", "yeah", "yea", "yep", "yup", "ya", "sure", "ok", "okay", "okey", "k", "kk",
+        "alright", "all right", "fine", "correct", "right", "absolutely", "of course", "definitely",
+        "go ahead", "go for it", "do it", "proceed", "confirm", "confirmed", "please do",
+        "sounds good", "let's do it", "lets do it", "yes please",
+        // Hindi / Hinglish
+        "haan", "han", "haa", "haanji", "ji haan", "theek hai", "thik hai", "thik h", "kar do",
+        "karo", "chalo", "bilkul", "हाँ", "हां", "जी हाँ", "जी हां", "ठीक है", "कर दो", "बिल्कुल",
+        // Marathi, Bengali, Gujarati, Tamil, Telugu, Kannada, Malayalam
+        "ho", "hoy", "hyan", "sari", "aam", "amam", "avunu", "sare", "houdu", "haudu", "athe"
+    );
+
+    private static final List<String> NEGATIVE = List.of(
+        "no", "n", "nope", "nah", "nay", "not now", "not yet", "don't", "dont", "do not",
+        "don't do it", "dont do it", "do not do it", "don't proceed", "do not proceed",
+        "stop", "cancel", "never mind", "nevermind", "skip", "skip it", "wait", "hold on",
+        "no thanks", "not really",
+        // Hindi / Hinglish
+        "nahi", "nahin", "nai", "na", "mat", "mat karo", "rehne do", "ruko", "नहीं", "नही", "ना",
+        "मत", "मत करो", "रहने दो",
+        // Marathi, Bengali, Gujarati, Tamil, Telugu, Kannada, Malayalam
+        "nako", "nahi nako", "na na", "vendam", "venda", "vaddu", "beda", "alla", "illa"
+    );
+
+    // Words that neither confirm nor refuse, e.g. "yes please", "haan ji"
+    private static final List<String> FILLER = List.of(
+        "please", "pls", "plz", "thanks", "thank you", "thankyou", "ji", "just", "then", "it",
+        "that", "now", "go", "sir", "bhai", "yaar", "jee", "जी"
+    );
+
+    private static final int FILLER_LABEL = 0;
+    private static final int AFFIRMATIVE_LABEL = 1;
+    private static final int NEGATIVE_LABEL = 2;
+
+    // Longer messages are never bare confirmations
+    private static final int MAX_LENGTH = 64;
+
+    private final char[] alphabet;
+    private final int[] asciiClass = new int[128];
+    private final int asciiClasses;
+    private final int classes;
+    private final int[] next;
+    private final int[] matchLength;
+    private final int[] matchLabel;
+
+    /**
+     * @param affirmative phrases that confirm the pending action
+     * @param negative phrases that decline it
+     * @param filler words allowed around either
+     */
+    public ConfirmationDetector(
+            Collection<String> affirmative,
+            Collection<String> negative,
+            Collection<String> filler
+    ) {
+        Map<String, Integer> phrases = new HashMap<>();
+        add(phrases, filler, FILLER_LABEL);
+        add(phrases, affirmative, AFFIRMATIVE_LABEL);
+        add(phrases, negative, NEGATIVE_LABEL);
+
+        // Each phrase is matched with the spaces around it, so only whole words match
+        TreeSet<Character> chars = new TreeSet<>();
+        List<String> patterns = new ArrayList<>();
+        for (String phrase : phrases.keySet()) {
+            String pattern = " " + phrase + " ";
+            patterns.add(pattern);
+            for (char c : pattern.toCharArray()) {
+                chars.add(c);
+            }
+        }
+        List<Character> nonAscii = chars.stream().filter(c -> c >= 128).toList();
+        this.alphabet = new char[nonAscii.size()];
+        for (int i = 0; i < alphabet.length; i++) {
+            alphabet[i] = nonAscii.get(i);
+        }
+        int classCount = 1;
+        for (char c : chars) {
+            if (c < 128) {
+                asciiClass[c] = classCount++;
+            }
+        }
+        this.asciiClasses = classCount;
+        this.classes = asciiClasses + alphabet.length;
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> outputs = new ArrayList<>();
+        trie.add(new int[classes]);
+        outputs.add(new int[] {0, -1});
+        for (String pattern : patterns) {
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = charClass(pattern.charAt(i));
+                if (trie.get(node)[c] == 0) {
+                    trie.get(node)[c] = trie.size();
+                    trie.add(new int[classes]);
+                    outputs.add(new int[] {0, -1});
+                }
+                node = trie.get(node)[c];
+            }
+            outputs.set(node, new int[] {pattern.length(), phrases.get(pattern.substring(1, pattern.length() - 1))});
+        }
+
+        // Failure links folded into a full transition table, breadth first
+        int nodes = trie.size();
+        this.next = new int[nodes * classes];
+        this.matchLength = new int[nodes];
+        this.matchLabel = new int[nodes];
+        int[] fail = new int[nodes];
+        Arrays.fill(matchLabel, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < classes; c++) {
+            int child = trie.get(0)[c];
+            next[c] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            int[] own = outputs.get(node);
+            // Longest phrase ending here, either the node's own or one inherited via its failure link
+            if (own[1] >= 0) {
+                matchLength[node] = own[0];
+                matchLabel[node] = own[1];
+            } else {
+                matchLength[node] = matchLength[fail[node]];
+                matchLabel[node] = matchLabel[fail[node]];
+            }
+            for (int c = 0; c < classes; c++) {
+                int child = trie.get(node)[c];
+                if (child != 0) {
+                    fail[child] = next[fail[node] * classes + c];
+                    next[node * classes + c] = child;
+                    queue.add(child);
+                } else {
+                    next[node * classes + c] = next[fail[node] * classes + c];
+                }
+            }
+        }
+    }
+
+    /**
+     * Built-in lexicon: English and common Indian-language replies.
+     */
+    public static ConfirmationDetector defaults() {
+        return withExtra(List.of(), List.of());
+    }
+
+    /**
+     * Built-in lexicon plus deployment-specific phrases.
+     */
+    public static ConfirmationDetector withExtra(Collection<String> affirmative, Collection<String> negative) {
+        List<String> yes = new ArrayList<>(AFFIRMATIVE);
+        yes.addAll(affirmative);
+        List<String> no = new ArrayList<>(NEGATIVE);
+        no.addAll(negative);
+        return new ConfirmationDetector(yes, no, FILLER);
+    }
+
+    /**
+     * Whether the message confirms or declines; NONE unless it is
+     * nothing but agreeing lexicon phrases.
+     */
+    public Answer detect(String message) {
+        char[] text = normalize(message);
+        if (text == null) {
+            return Answer.NONE;
+        }
+
+        // Longest phrase ending at each position, as a start offset and label
+        int[] start = new int[text.length + 1];
+        int[] label = new int[text.length + 1];
+        Arrays.fill(label, -1);
+        int state = 0;
+        for (int i = 0; i < text.length; i++) {
+            state = next[state * classes + charClass(text[i])];
+            if (matchLabel[state] >= 0) {
+                start[i + 1] = i + 1 - matchLength[state];
+                label[i + 1] = matchLabel[state];
+            }
+        }
+
+        // Walk back from the end; a phrase inside a longer, later-ending one is dropped
+        boolean affirmative = false;
+        boolean negative = false;
+        int coveredFrom = text.length;
+        int earliestStart = Integer.MAX_VALUE;
+        for (int end = text.length; end > 0; end--) {
+            if (label[end] < 0 || start[end] >= earliestStart) {
+                continue;
+            }
+            // Phrases share their boundary space, so they must overlap or touch
+            if (end < coveredFrom) {
+                return Answer.NONE;
+            }
+            earliestStart = start[end];
+            coveredFrom = start[end] + 1;
+            affirmative |= label[end] == AFFIRMATIVE_LABEL;
+            negative |= label[end] == NEGATIVE_LABEL;
+        }
+        if (coveredFrom > 1) {
+            return Answer.NONE;
+        }
+        if (affirmative == negative) {
+            return Answer.NONE;
+        }
+        return affirmative ? Answer.AFFIRMATIVE : Answer.NEGATIVE;
+    }
+
+    private int charClass(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int i = Arrays.binarySearch(alphabet, c);
+        return i < 0 ? 0 : asciiClasses + i;
+    }
+
+    /**
+     * Lower case words separated by single spaces, with a space at both
+     * ends; null if the message is too long to be a confirmation.
+     */
+    private static char[] normalize(String message) {
+        if (message == null || message.length() > MAX_LENGTH) {
+            return null;
+        }
+        char[] text = new char[message.length() + 2];
+        int length = 0;
+        text[length++] = ' ';
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '’') {
+                c = '\'';
+            }
+            if (isWordChar(c)) {
+                text[length++] = Character.toLowerCase(c);
+            } else if (text[length - 1] != ' ') {
+                text[length++] = ' ';
+            }
+        }
+        if (text[length - 1] != ' ') {
+            text[length++] = ' ';
+        }
+        return length > 1 ? Arrays.copyOf(text, length) : null;
+    }
+
+    /**
+     * Letters, digits, apostrophes and the vowel signs of Indic scripts.
+     */
+    private static boolean isWordChar(char c) {
+        if (Character.isLetterOrDigit(c) || c == '\'') {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static void add(Map<String, Integer> phrases, Collection<String> lexicon, int label) {
+        for (String phrase : lexicon) {
+            char[] normalized = normalize(phrase);
+            if (normalized == null) {
+                continue;
+            }
+            String key = new String(normalized, 1, normalized.length - 2);
+            Integer previous = phrases.put(key, label);
+            if (previous != null && previous != label && previous != FILLER_LABEL) {
+                throw new IllegalArgumentException("Phrase is both affirmative and negative: " + phrase);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.digit.ai.ai;
+
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.ToolSet;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Decisions for every intent and every allowed-tools set the tool graph
+ * can reach, computed once from the selector's decision rules.
+ *
+ * The rules depend only on the intent and on which tools are allowed,
+ * so each pair has exactly one answer, and equal answers share one
+ * immutable instance. A lookup is an array read by the set's bitmask
+ * and a hash lookup of the intent key; it never allocates.
+ */
+final class DecisionTable {
+
+    // Sets are indexed by their bitmask, so the table is only built for small graphs
+    private static final int MAX_TOOLS = 16;
+
+    private final CompiledToolGraph graph;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final AiDecision[][] byMask;
+    private int states;
+
+    DecisionTable(CompiledToolGraph graph, BiFunction<String, ToolSet, AiDecision> rules) {
+        this.graph = graph;
+        Intent[] intents = Intent.values();
+        for (Intent intent : intents) {
+            columns.put(intent.key(), intent.ordinal());
+        }
+
+        if (graph.toolCount() > MAX_TOOLS) {
+            this.byMask = new AiDecision[0][];
+            return;
+        }
+        this.byMask = new AiDecision[1 << graph.toolCount()][];
+
+        Map<AiDecision, AiDecision> shared = new HashMap<>();
+        Set<List<Long>> seen = new HashSet<>();
+        Deque<long[]> pending = new ArrayDeque<>();
+        pending.add(graph.newFactSet());
+
+        // Every fact set reachable by running allowed tools from the empty state
+        while (!pending.isEmpty()) {
+            long[] facts = pending.poll();
+            if (!seen.add(Arrays.stream(facts).boxed().toList())) {
+                continue;
+            }
+            long[] tools = graph.newToolSet();
+            graph.resolve(facts, tools);
+            ToolSet allowed = graph.toolSet(tools);
+
+            int mask = (int) tools[0];
+            if (byMask[mask] == null) {
+                AiDecision[] row = new AiDecision[intents.length];
+                for (Intent intent : intents) {
+                    AiDecision decision = rules.apply(intent.key(), allowed);
+                    row[intent.ordinal()] = shared.computeIfAbsent(decision, d -> d);
+                }
+                byMask[mask] = row;
+                states++;
+            }
+
+            for (int i = 0; i < allowed.size(); i++) {
+                long[] next = facts.clone();
+                graph.complete(allowed.id(i), next);
+                pending.add(next);
+            }
+        }
+    }
+
+    /**
+     * Precomputed decision, or null if the intent key is not known or the
+     * set is not one the graph reaches.
+     */
+    AiDecision lookup(String intent, ToolSet allowedTools) {
+        if (allowedTools.graph() != graph || byMask.length == 0) {
+            return null;
+        }
+        Integer column = columns.get(intent);
+        AiDecision[] row = byMask[(int) allowedTools.word(0)];
+        return column == null || row == null ? null : row[column];
+    }
+
+    /**
+     * Number of distinct allowed-tools sets in the table.
+     */
+    int states() {
+        return states;
+    }
+}
@@ -0,0 +1,25 @@
+package org.digit.ai.ai;
+
+import org.digit.ai.session.ConversationTurn;
+
+import java.util.List;
+
+/**
+ * Who a message comes from and what the selector may spend on it.
+ *
+ * @param llmAllowed false when the caller is over its LLM rate limit;
+ *                   the selector must then infer intent locally
+ * @param history    recent turns, oldest first, already cut to the
+ *                   history token budget
+ */
+public record InferenceContext(
+        String sessionId,
+        String tenantId,
+        boolean llmAllowed,
+        List<ConversationTurn> history
+) {
+
+    public static InferenceContext unrestricted() {
+        return new InferenceContext(null, null, true, List.of());
+    }
+}
@@ -0,0 +1,116 @@
+package org.digit.ai.ai;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Intents the classifier can return, each with a one-letter code.
+ *
+ * Every code is a single printable ASCII character and therefore a
+ * single token in the o200k_base vocabulary used by gpt-4o models; its
+ * token id is the character's byte-level rank, {@code code - 33}. The
+ * model is asked for exactly one token biased to these ids, and the
+ * answer is decoded with a direct character-indexed table.
+ */
+public enum Intent {
+
+    BOOTSTRAP('B', "bootstrap",
+        "Initial setup, getting started, first time setup, 'how do i start'"),
+    ACCOUNT_CONFIGURE('A', "account.configure",
+        "Setting up account details, authentication, account configuration AFTER account creation"),
+    IDGEN('I', "idgen",
+        "Unique ID generation, auto-incrementing codes, sequence numbers, identifiers"),
+    WORKFLOW('W', "workflow",
+        "Business process configuration, state machines, approval flows, transitions"),
+    BOUNDARY('G', "boundary",
+        "Geographic hierarchies, administrative boundaries, location setup"),
+    NOTIFICATION('N', "notification",
+        "Email/SMS alerts, notification templates, communication setup"),
+    REGISTRY('S', "registry",
+        "Data schemas, data models, entity definitions, adding/managing data structures"),
+    USER('U', "user",
+        "User account creation, user management, adding users (NOT account setup)"),
+    ROLE('R', "role",
+        "Role creation, permission groups, access control roles"),
+    ROLE_ASSIGN('P', "role.assign",
+        "Assigning roles to users, granting permissions"),
+    UNKNOWN('X', "unknown",
+        "If the intent is unclear");
+
+    private static final Intent[] BY_CODE = new Intent[128];
+    private static final Map<String, Integer> LOGIT_BIAS = new LinkedHashMap<>();
+
+    static {
+        for (Intent intent : values()) {
+            if (BY_CODE[intent.code] != null) {
+                throw new IllegalStateException("Duplicate intent code " + intent.code);
+            }
+            BY_CODE[intent.code] = intent;
+            LOGIT_BIAS.put(String.valueOf(intent.tokenId()), 100);
+        }
+    }
+
+    private final char code;
+    private final String key;
+    private final String description;
+
+    Intent(char code, String key, String description) {
+        this.code = code;
+        this.key = key;
+        this.description = description;
+    }
+
+    public char code() {
+        return code;
+    }
+
+    /**
+     * Name used by the rest of the selector, e.g. "role.assign".
+     */
+    public String key() {
+        return key;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /**
+     * o200k_base token id of the code character.
+     */
+    public int tokenId() {
+        return code - 33;
+    }
+
+    /**
+     * Decode a one-token completion; anything else is UNKNOWN.
+     */
+    public static Intent fromCode(String completion) {
+        if (completion == null || completion.length() != 1) {
+            return UNKNOWN;
+        }
+        char c = completion.charAt(0);
+        Intent intent = c < BY_CODE.length ? BY_CODE[c] : null;
+        return intent == null ? UNKNOWN : intent;
+    }
+
+    /**
+     * Intent with the given key, e.g. "role.assign"; UNKNOWN if none.
+     */
+    public static Intent fromKey(String key) {
+        for (Intent intent : values()) {
+            if (intent.key.equals(key)) {
+                return intent;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * logit_bias that restricts the completion to intent codes.
+     */
+    public static Map<String, Integer> logitBias() {
+        return Collections.unmodifiableMap(LOGIT_BIAS);
+    }
+}
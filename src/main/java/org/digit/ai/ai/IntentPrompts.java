@@ -0,0 +1,142 @@
+package org.digit.ai.ai;
+
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.DigitToolGraph;
+import org.digit.ai.gating.ToolSet;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Intent-classifier prompts pruned to the current state.
+ *
+ * For a given set of allowed tools, an intent is only worth offering
+ * to the model if the selector's decision for it differs from the
+ * decision for "unknown"; the others cannot change the answer. The
+ * prompt is assembled from per-intent fragments for those intents and
+ * cached by the allowed tools' {@link ToolSet} bits, so each reachable
+ * state builds its variant once.
+ */
+final class IntentPrompts {
+
+    private static final CompiledToolGraph GRAPH = DigitToolGraph.compiled();
+
+    static {
+        // variants are keyed by the first word of the allowed-tools bitset
+        if (GRAPH.toolCount() > 64) {
+            throw new IllegalStateException("Prompt variants support at most 64 tools, graph has " + GRAPH.toolCount());
+        }
+    }
+
+    private static final String HEADER =
+        "You are an intent classifier for a DIGIT platform setup assistant. " +
+        "Analyze the user's message and answer with EXACTLY ONE of these intent codes:\n\n";
+
+    private static final String FOOTER =
+        "Return ONLY the single-letter code, nothing else.";
+
+    // Disambiguation rules, each kept only if its intent is offered
+    private static final Map<Intent, String> DISTINCTIONS = new EnumMap<>(Map.of(
+        Intent.ACCOUNT_CONFIGURE, "- 'account details' or 'configure account' or 'setup account' → A\n",
+        Intent.USER, "- 'create user' or 'add user' → U (NOT A)\n",
+        Intent.REGISTRY, "- 'data' or 'schema' → S (data models)\n",
+        Intent.IDGEN, "- 'id' or 'code generation' → I (unique identifiers)\n",
+        Intent.WORKFLOW, "- 'process' or 'flow' → W (business processes)\n"
+    ));
+
+    private final BiFunction<String, ToolSet, AiDecision> decisions;
+    private final Map<Long, PromptVariant> variants = new ConcurrentHashMap<>();
+
+    /**
+     * One prompt, the logit bias for its codes, and the intents it offers.
+     */
+    record PromptVariant(String systemPrompt, Map<String, Integer> logitBias, Set<Intent> intents) {
+
+        /** False when every intent leads to the same decision as "unknown". */
+        boolean needsModel() {
+            return intents.size() > 1;
+        }
+    }
+
+    IntentPrompts(BiFunction<String, ToolSet, AiDecision> decisions) {
+        this.decisions = decisions;
+    }
+
+    PromptVariant forAllowedTools(List<String> allowedTools) {
+        return variants.computeIfAbsent(mask(allowedTools), this::build);
+    }
+
+    /**
+     * Unpruned prompt offering every intent.
+     */
+    static PromptVariant full() {
+        return assemble(EnumSet.allOf(Intent.class));
+    }
+
+    int cachedVariants() {
+        return variants.size();
+    }
+
+    /**
+     * Allowed-tool sets with a cached variant, e.g. for a warm-up snapshot.
+     */
+    List<List<String>> cachedToolSets() {
+        return variants.keySet().stream().sorted().<List<String>>map(IntentPrompts::toolsOf).toList();
+    }
+
+    static long mask(List<String> allowedTools) {
+        return ToolSet.of(GRAPH, allowedTools).word(0);
+    }
+
+    static ToolSet toolsOf(long mask) {
+        return GRAPH.toolSet(new long[] {mask});
+    }
+
+    private PromptVariant build(long mask) {
+        ToolSet allowed = toolsOf(mask);
+
+        AiDecision unknown = decisions.apply(Intent.UNKNOWN.key(), allowed);
+        EnumSet<Intent> offered = EnumSet.of(Intent.UNKNOWN);
+        for (Intent intent : Intent.values()) {
+            if (!decisions.apply(intent.key(), allowed).equals(unknown)) {
+                offered.add(intent);
+            }
+        }
+        return assemble(offered);
+    }
+
+    private static PromptVariant assemble(EnumSet<Intent> offered) {
+        StringBuilder prompt = new StringBuilder(HEADER);
+        Map<String, Integer> bias = new LinkedHashMap<>();
+        for (Intent intent : offered) {
+            prompt.append("- ").append(intent.code())
+                .append(" (").append(intent.key()).append("): ")
+                .append(intent.description()).append('\n');
+            bias.put(String.valueOf(intent.tokenId()), 100);
+        }
+
+        StringBuilder distinctions = new StringBuilder();
+        for (Map.Entry<Intent, String> rule : DISTINCTIONS.entrySet()) {
+            if (offered.contains(rule.getKey())) {
+                distinctions.append(rule.getValue());
+            }
+        }
+        if (!distinctions.isEmpty()) {
+            prompt.append("\nKey distinctions:\n").append(distinctions);
+        }
+        prompt.append('\n').append(FOOTER);
+
+        return new PromptVariant(
+            prompt.toString(),
+            Collections.unmodifiableMap(bias),
+            Collections.unmodifiableSet(offered)
+        );
+    }
+}
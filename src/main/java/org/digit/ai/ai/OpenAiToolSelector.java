@@ -1,8 +1,23 @@
 package org.digit.ai.ai;
 
 import okhttp3.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.DigitToolGraph;
+import org.digit.ai.gating.ToolId;
+import org.digit.ai.gating.ToolSet;
+import org.digit.ai.session.ConversationTurn;
+import org.digit.ai.tools.ToolSchema;
+import org.digit.ai.usage.LlmUsage;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -11,40 +26,253 @@ public class OpenAiToolSelector implements AiToolSelector {
     private static final String OPENAI_URL =
             "https://api.openai.com/v1/chat/completions";
 
+    private static final String CLASSIFY_FUNCTION = "classify_intent";
+
+    private static final String FUNCTIONS_PROMPT =
+            "You are a DIGIT platform setup assistant. " +
+            "Call the function for the setup step the user asks for, taking argument values " +
+            "only from the user's message and leaving out any you cannot find. " +
+            "If no function fits, call " + CLASSIFY_FUNCTION + ".";
+
+    // Function descriptions per tool
+    private static final Map<String, String> TOOL_DESCRIPTIONS = Map.of(
+            "account.create", "Create the DIGIT account",
+            "account.configure", "Authenticate and configure the DIGIT account",
+            "idgen.configure", "Configure unique ID generation",
+            "workflow.configure", "Configure workflows",
+            "notification.configure", "Configure notifications",
+            "boundary.configure", "Configure boundaries",
+            "registry.configure", "Configure registry schemas",
+            "user.create", "Create a user",
+            "role.create", "Create a role",
+            "role.assign", "Assign a role to a user"
+    );
+
+    // Tools the decision rules look at, interned once
+    private static final CompiledToolGraph TOOLS = DigitToolGraph.compiled();
+    private static final ToolId ACCOUNT_CREATE = TOOLS.toolId("account.create");
+    private static final ToolId ACCOUNT_CONFIGURE = TOOLS.toolId("account.configure");
+    private static final ToolId IDGEN_CONFIGURE = TOOLS.toolId("idgen.configure");
+    private static final ToolId WORKFLOW_CONFIGURE = TOOLS.toolId("workflow.configure");
+    private static final ToolId NOTIFICATION_CONFIGURE = TOOLS.toolId("notification.configure");
+    private static final ToolId BOUNDARY_CONFIGURE = TOOLS.toolId("boundary.configure");
+    private static final ToolId REGISTRY_CONFIGURE = TOOLS.toolId("registry.configure");
+    private static final ToolId USER_CREATE = TOOLS.toolId("user.create");
+    private static final ToolId ROLE_CREATE = TOOLS.toolId("role.create");
+    private static final ToolId ROLE_ASSIGN = TOOLS.toolId("role.assign");
+
+    private static final DecisionTable DECISIONS = new DecisionTable(TOOLS, OpenAiToolSelector::decideByRules);
+
+    /**
+     * How intents are obtained from the model.
+     * CLASSIFY asks for a single intent code; FUNCTIONS uses function
+     * calling to get the intent, the tool and its arguments in one call.
+     */
+    public enum Mode {
+        CLASSIFY,
+        FUNCTIONS
+    }
+
     private final String apiKey;
     private final OkHttpClient client = new OkHttpClient();
+    private final WebClient webClient = WebClient.create();
     private final ObjectMapper mapper = new ObjectMapper();
+    private final LlmUsageTracker usageTracker;
+    private final IntentPrompts prompts = new IntentPrompts(this::decideForIntent);
+    private final Mode mode;
+    private final Map<String, Map<String, Object>> toolSchemas;
+    private final String url;
 
     public OpenAiToolSelector(String apiKey) {
+        this(apiKey, LlmUsageTracker.unlimited());
+    }
+
+    public OpenAiToolSelector(String apiKey, LlmUsageTracker usageTracker) {
+        this(apiKey, usageTracker, Mode.CLASSIFY, Map.of());
+    }
+
+    /**
+     * @param toolSchemas argument schema per tool, see ToolRegistry#parameterSchemas
+     */
+    public OpenAiToolSelector(
+            String apiKey,
+            LlmUsageTracker usageTracker,
+            Mode mode,
+            Map<String, Map<String, Object>> toolSchemas
+    ) {
+        this(apiKey, usageTracker, mode, toolSchemas, OPENAI_URL);
+    }
+
+    OpenAiToolSelector(
+            String apiKey,
+            LlmUsageTracker usageTracker,
+            Mode mode,
+            Map<String, Map<String, Object>> toolSchemas,
+            String url
+    ) {
         this.apiKey = apiKey;
+        this.usageTracker = usageTracker;
+        this.mode = mode;
+        this.toolSchemas = toolSchemas;
+        this.url = url;
     }
 
     @Override
     public AiDecision decide(String userMessage, List<String> allowedTools) {
+        return decide(userMessage, allowedTools, InferenceContext.unrestricted());
+    }
+
+    @Override
+    public AiDecision decide(String userMessage, List<String> allowedTools, InferenceContext context) {
 
         /* -------------------------------------------------
-         * Use AI to infer user intent from their message
+         * Use AI to infer user intent from their message;
+         * rate-limited callers get the local classifier
          * ------------------------------------------------- */
         String intent;
+        if (!context.llmAllowed()) {
+            intent = inferIntentSimple(userMessage);
+        } else {
+            try {
+                if (mode == Mode.FUNCTIONS) {
+                    return decideWithFunctions(userMessage, allowedTools, context);
+                }
+                intent = inferIntentWithAi(userMessage, allowedTools, context);
+            } catch (Exception e) {
+                // Fallback to simple keyword matching
+                intent = inferIntentSimple(userMessage);
+            }
+        }
+
+        return decideForIntent(intent, allowedTools);
+    }
+
+    /**
+     * Same decision as {@link #decide}, with the OpenAI call made through
+     * the non-blocking WebClient so no thread waits on the model.
+     */
+    @Override
+    public Mono<AiDecision> decideReactive(String userMessage, List<String> allowedTools, InferenceContext context) {
+        if (!context.llmAllowed()) {
+            return Mono.just(decideForIntent(inferIntentSimple(userMessage), allowedTools));
+        }
+
+        Mono<AiDecision> decision;
+        if (mode == Mode.FUNCTIONS) {
+            decision = postReactive(functionsBody(userMessage, allowedTools, context), context)
+                .flatMap(json -> Mono.fromCallable(() -> decisionFromFunctionCall(json, allowedTools)));
+        } else {
+            IntentPrompts.PromptVariant prompt = prompts.forAllowedTools(allowedTools);
+            if (!prompt.needsModel()) {
+                return Mono.just(decideForIntent(Intent.UNKNOWN.key(), allowedTools));
+            }
+            decision = postReactive(classifyBody(userMessage, prompt, context), context)
+                .map(json -> decideForIntent(intentFromClassification(json), allowedTools));
+        }
+
+        // Fallback to simple keyword matching
+        return decision.onErrorResume(e -> Mono.just(decideForIntent(inferIntentSimple(userMessage), allowedTools)));
+    }
+
+    /**
+     * Establish a pooled TLS connection to OpenAI so the first intent
+     * call does not pay for the handshake.
+     */
+    @Override
+    public void preconnect() {
+        if (apiKey == null || apiKey.isBlank()) {
+            return;
+        }
+        Request request = new Request.Builder()
+            .url(url.replace("/chat/completions", "/models"))
+            .addHeader("Authorization", "Bearer " + apiKey)
+            .get()
+            .build();
+        try (Response response = client.newCall(request).execute()) {
+            response.body().bytes();
+        } catch (Exception e) {
+            // best effort; the first real call connects instead
+        }
+    }
+
+    @Override
+    public void evictConnections() {
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * Build the prompt variant for every set, evaluate every intent
+     * against it and run request encoding and response decoding,
+     * without calling OpenAI.
+     */
+    @Override
+    public void warmUp(Collection<List<String>> allowedToolSets, int iterations) {
+        InferenceContext context = InferenceContext.unrestricted();
+        String response = "{\"choices\":[{\"message\":{\"content\":\"X\"}}],"
+            + "\"usage\":{\"prompt_tokens\":0,\"completion_tokens\":0,\"total_tokens\":0}}";
+
         try {
-            intent = inferIntentWithAi(userMessage);
+            for (int i = 0; i < iterations; i++) {
+                for (List<String> allowedTools : allowedToolSets) {
+                    IntentPrompts.PromptVariant prompt = prompts.forAllowedTools(allowedTools);
+                    for (Intent intent : Intent.values()) {
+                        decideForIntent(intent.key(), allowedTools);
+                    }
+                    byte[] body = mode == Mode.FUNCTIONS
+                        ? mapper.writeValueAsBytes(functionsBody("warm up", allowedTools, context))
+                        : mapper.writeValueAsBytes(classifyBody("warm up", prompt, context));
+                    Intent.fromCode(mapper.readTree(response).path("choices").get(0)
+                        .path("message").path("content").asText());
+                    if (body.length == 0) {
+                        throw new IllegalStateException("Empty request body");
+                    }
+                }
+            }
         } catch (Exception e) {
-            // Fallback to simple keyword matching
-            intent = inferIntentSimple(userMessage);
+            throw new IllegalStateException("Warm-up failed", e);
         }
+    }
+
+    @Override
+    public Collection<List<String>> cachedToolSets() {
+        return prompts.cachedToolSets();
+    }
+
+    /**
+     * Decision for an already inferred intent; pure, so prompt pruning
+     * can compare intents per allowed-tools set.
+     */
+    AiDecision decideForIntent(String intent, List<String> allowedTools) {
+        return decideForIntent(intent, ToolSet.of(TOOLS, allowedTools));
+    }
+
+    /**
+     * As {@link #decideForIntent(String, List)}: one table lookup for
+     * reachable states, the rules themselves for anything else.
+     */
+    AiDecision decideForIntent(String intent, ToolSet allowedTools) {
+        AiDecision decision = DECISIONS.lookup(intent, allowedTools);
+        return decision != null ? decision : decideByRules(intent, allowedTools);
+    }
+
+    /**
+     * The decision rules the table is computed from; every membership
+     * test is a bit test on the set.
+     */
+    static AiDecision decideByRules(String intent, ToolSet allowedTools) {
 
         /* -------------------------------------------------
          * BOOTSTRAP: Initial setup
          * ------------------------------------------------- */
         if ("bootstrap".equals(intent)) {
-            if (allowedTools.contains("account.create")) {
+            if (allowedTools.contains(ACCOUNT_CREATE)) {
                 return AiDecision.explain(
                     "To get started, I need to create your DIGIT account. " +
                     "Shall I proceed with account.create?",
                     "account.create"
                 );
             }
-            if (allowedTools.contains("account.configure")) {
+            if (allowedTools.contains(ACCOUNT_CONFIGURE)) {
                 return AiDecision.explain(
                     "To get started, I need to configure your DIGIT account. " +
                     "Shall I proceed with account.configure?",
@@ -60,14 +288,14 @@ public class OpenAiToolSelector implements AiToolSelector {
          * ACCOUNT CONFIGURATION
          * ------------------------------------------------- */
         if ("account.configure".equals(intent)) {
-            if (allowedTools.contains("account.configure")) {
+            if (allowedTools.contains(ACCOUNT_CONFIGURE)) {
                 return AiDecision.explain(
                     "I understand you want to configure your account details. " +
                     "Shall I proceed with account.configure?",
                     "account.configure"
                 );
             }
-            if (allowedTools.contains("account.create")) {
+            if (allowedTools.contains(ACCOUNT_CREATE)) {
                 return AiDecision.explain(
                     "Before configuring account details, I need to create the account first. " +
                     "Shall I proceed with account.create?",
@@ -84,16 +312,16 @@ public class OpenAiToolSelector implements AiToolSelector {
          * ------------------------------------------------- */
         if (isConfigureIntent(intent)) {
             boolean accountReady =
-                    !allowedTools.contains("account.create")
-                 && !allowedTools.contains("account.configure");
+                    !allowedTools.contains(ACCOUNT_CREATE)
+                 && !allowedTools.contains(ACCOUNT_CONFIGURE);
 
             if (!accountReady) {
                 // Determine which account action to propose
-                String proposedAction = allowedTools.contains("account.create") 
+                String proposedAction = allowedTools.contains(ACCOUNT_CREATE) 
                     ? "account.create" 
                     : "account.configure";
                 
-                String actionDescription = allowedTools.contains("account.create")
+                String actionDescription = allowedTools.contains(ACCOUNT_CREATE)
                     ? "create your account"
                     : "configure your account";
                 
@@ -110,9 +338,9 @@ public class OpenAiToolSelector implements AiToolSelector {
         /* -------------------------------------------------
          * USER & ROLE CREATION: Check prerequisites
          * ------------------------------------------------- */
-        if ("user".equals(intent) && !allowedTools.contains("user.create")) {
+        if ("user".equals(intent) && !allowedTools.contains(USER_CREATE)) {
             // Determine which account action to propose
-            String proposedAction = allowedTools.contains("account.create") 
+            String proposedAction = allowedTools.contains(ACCOUNT_CREATE) 
                 ? "account.create" 
                 : "account.configure";
             
@@ -123,9 +351,9 @@ public class OpenAiToolSelector implements AiToolSelector {
             );
         }
 
-        if ("role".equals(intent) && !allowedTools.contains("role.create")) {
+        if ("role".equals(intent) && !allowedTools.contains(ROLE_CREATE)) {
             // Determine which account action to propose
-            String proposedAction = allowedTools.contains("account.create") 
+            String proposedAction = allowedTools.contains(ACCOUNT_CREATE) 
                 ? "account.create" 
                 : "account.configure";
             
@@ -139,9 +367,9 @@ public class OpenAiToolSelector implements AiToolSelector {
         /* -------------------------------------------------
          * ROLE ASSIGNMENT: Check prerequisites
          * ------------------------------------------------- */
-        if ("role.assign".equals(intent) && !allowedTools.contains("role.assign")) {
+        if ("role.assign".equals(intent) && !allowedTools.contains(ROLE_ASSIGN)) {
             // Determine what's missing - user or role
-            String proposedAction = allowedTools.contains("user.create") 
+            String proposedAction = allowedTools.contains(USER_CREATE) 
                 ? "user.create" 
                 : "role.create";
             
@@ -155,14 +383,14 @@ public class OpenAiToolSelector implements AiToolSelector {
         /* -------------------------------------------------
          * Execute the appropriate tool based on intent
          * ------------------------------------------------- */
-        String toolToExecute = mapIntentToTool(intent, allowedTools);
-        
+        ToolId toolToExecute = mapIntentToTool(intent);
+
         if (toolToExecute != null && allowedTools.contains(toolToExecute)) {
             // Always ask before executing
             return AiDecision.explain(
                 "I understand you want to " + getIntentDescription(intent) + ". " +
-                "Shall I proceed with " + toolToExecute + "?",
-                toolToExecute
+                "Shall I proceed with " + toolToExecute.name() + "?",
+                toolToExecute.name()
             );
         }
 
@@ -177,7 +405,7 @@ public class OpenAiToolSelector implements AiToolSelector {
     // Helpers
     // -------------------------------------------------
 
-    private boolean isConfigureIntent(String intent) {
+    private static boolean isConfigureIntent(String intent) {
         return intent.equals("idgen")
             || intent.equals("workflow")
             || intent.equals("boundary")
@@ -186,46 +414,190 @@ public class OpenAiToolSelector implements AiToolSelector {
     }
 
     /**
-     * Use AI to infer the user's intent from their message
+     * Use AI to infer the user's intent from their message.
+     * The completion is limited to one token, biased to the intent codes,
+     * and the prompt only offers intents that matter in the current state.
      */
-    private String inferIntentWithAi(String message) throws Exception {
-        Map<String, Object> body = Map.of(
+    private String inferIntentWithAi(
+            String message,
+            List<String> allowedTools,
+            InferenceContext context
+    ) throws Exception {
+        IntentPrompts.PromptVariant prompt = prompts.forAllowedTools(allowedTools);
+        if (!prompt.needsModel()) {
+            return Intent.UNKNOWN.key();
+        }
+
+        return intentFromClassification(post(classifyBody(message, prompt, context), context));
+    }
+
+    private static String intentFromClassification(JsonNode json) {
+        return Intent.fromCode(
+            json.path("choices").get(0)
+                .path("message")
+                .path("content")
+                .asText()
+        ).key();
+    }
+
+    private static Map<String, Object> classifyBody(
+            String message,
+            IntentPrompts.PromptVariant prompt,
+            InferenceContext context
+    ) {
+        return Map.of(
             "model", "gpt-4o-mini",
             "temperature", 0,
-            "messages", List.of(
-                Map.of(
-                    "role", "system",
-                    "content",
-                    "You are an intent classifier for a DIGIT platform setup assistant. " +
-                    "Analyze the user's message and return EXACTLY ONE of these intents:\n\n" +
-                    "- bootstrap: Initial setup, getting started, first time setup, 'how do i start'\n" +
-                    "- account.configure: Setting up account details, authentication, account configuration AFTER account creation\n" +
-                    "- idgen: Unique ID generation, auto-incrementing codes, sequence numbers, identifiers\n" +
-                    "- workflow: Business process configuration, state machines, approval flows, transitions\n" +
-                    "- boundary: Geographic hierarchies, administrative boundaries, location setup\n" +
-                    "- notification: Email/SMS alerts, notification templates, communication setup\n" +
-                    "- registry: Data schemas, data models, entity definitions, adding/managing data structures\n" +
-                    "- user: User account creation, user management, adding users (NOT account setup)\n" +
-                    "- role: Role creation, permission groups, access control roles\n" +
-                    "- role.assign: Assigning roles to users, granting permissions\n" +
-                    "- unknown: If the intent is unclear\n\n" +
-                    "Key distinctions:\n" +
-                    "- 'account details' or 'configure account' or 'setup account' → account.configure\n" +
-                    "- 'create user' or 'add user' → user (NOT account.configure)\n" +
-                    "- 'data' or 'schema' → registry (data models)\n" +
-                    "- 'id' or 'code generation' → idgen (unique identifiers)\n" +
-                    "- 'process' or 'flow' → workflow (business processes)\n\n" +
-                    "Return ONLY the intent name, nothing else."
-                ),
-                Map.of(
-                    "role", "user",
-                    "content", message
+            "max_tokens", 1,
+            "logit_bias", prompt.logitBias(),
+            "messages", messages(prompt.systemPrompt(), message, context)
+        );
+    }
+
+    /**
+     * Function-calling mode: every allowed tool is offered as a function
+     * with its argument schema, plus {@value #CLASSIFY_FUNCTION} for
+     * messages no tool fits. One round trip yields the intent, the tool
+     * and its arguments; the usual decision rules still decide what to
+     * propose, and arguments are kept only if they validate against the
+     * schema of the proposed tool.
+     */
+    private AiDecision decideWithFunctions(
+            String message,
+            List<String> allowedTools,
+            InferenceContext context
+    ) throws Exception {
+        return decisionFromFunctionCall(post(functionsBody(message, allowedTools, context), context), allowedTools);
+    }
+
+    private AiDecision decisionFromFunctionCall(JsonNode json, List<String> allowedTools) throws Exception {
+        JsonNode call = json
+            .path("choices").get(0)
+            .path("message")
+            .path("tool_calls").get(0)
+            .path("function");
+        String name = call.path("name").asText();
+        Map<String, Object> arguments = mapper.readValue(
+            call.path("arguments").asText("{}"),
+            new TypeReference<Map<String, Object>>() {}
+        );
+
+        if (name.equals(CLASSIFY_FUNCTION)) {
+            Object intent = arguments.get("intent");
+            return decideForIntent(Intent.fromKey(String.valueOf(intent)).key(), allowedTools);
+        }
+
+        String tool = allowedTools.stream()
+            .filter(t -> functionName(t).equals(name))
+            .findFirst()
+            .orElse(null);
+        if (tool == null) {
+            return decideForIntent(Intent.UNKNOWN.key(), allowedTools);
+        }
+
+        AiDecision decision = decideForIntent(mapToolToIntent(tool), allowedTools);
+        boolean forThisTool = tool.equals(decision.proposedAction()) || tool.equals(decision.tool());
+        if (!forThisTool) {
+            return decision;
+        }
+        // Never propose or run the tool on arguments the schema rejects; ask for them instead
+        List<String> problems = ToolSchema.validate(toolSchemas.get(tool), arguments);
+        if (!problems.isEmpty()) {
+            return AiDecision.explain(
+                "To run " + tool + " I need valid details (" + String.join(", ", problems) + "). " +
+                "Please tell me the missing or corrected values."
+            );
+        }
+        return decision.withArguments(arguments);
+    }
+
+    private Map<String, Object> functionsBody(
+            String message,
+            List<String> allowedTools,
+            InferenceContext context
+    ) {
+        List<Map<String, Object>> functions = new ArrayList<>();
+        for (String tool : allowedTools) {
+            Map<String, Object> schema = toolSchemas.get(tool);
+            if (schema != null) {
+                functions.add(function(
+                    functionName(tool),
+                    TOOL_DESCRIPTIONS.getOrDefault(tool, tool),
+                    schema
+                ));
+            }
+        }
+        functions.add(function(CLASSIFY_FUNCTION, classifyDescription(), Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "intent", Map.of(
+                    "type", "string",
+                    "enum", Arrays.stream(Intent.values()).map(Intent::key).toList()
                 )
+            ),
+            "required", List.of("intent"),
+            "additionalProperties", false
+        )));
+
+        return Map.of(
+            "model", "gpt-4o-mini",
+            "temperature", 0,
+            "tools", functions,
+            "tool_choice", "required",
+            "parallel_tool_calls", false,
+            "messages", messages(FUNCTIONS_PROMPT, message, context)
+        );
+    }
+
+    private static Map<String, Object> function(String name, String description, Map<String, Object> parameters) {
+        return Map.of(
+            "type", "function",
+            "function", Map.of(
+                "name", name,
+                "description", description,
+                "parameters", parameters
             )
         );
+    }
+
+    // Function names may not contain dots
+    private static String functionName(String tool) {
+        return tool.replace('.', '_');
+    }
+
+    private static String classifyDescription() {
+        StringBuilder description = new StringBuilder("Classify a message that no other function fits:");
+        for (Intent intent : Intent.values()) {
+            description.append("\n- ").append(intent.key()).append(": ").append(intent.description());
+        }
+        return description.toString();
+    }
 
+    /**
+     * System prompt, then the recent turns, then the new message, so
+     * follow-ups like "do the same for notifications" can be resolved.
+     */
+    private static List<Map<String, Object>> messages(
+            String systemPrompt,
+            String message,
+            InferenceContext context
+    ) {
+        List<Map<String, Object>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", systemPrompt));
+        for (ConversationTurn turn : context.history()) {
+            messages.add(Map.of("role", "user", "content", turn.userMessage()));
+            messages.add(Map.of("role", "assistant", "content", turn.reply()));
+        }
+        messages.add(Map.of("role", "user", "content", message));
+        return messages;
+    }
+
+    /**
+     * Send a chat completion request and record its usage.
+     */
+    private JsonNode post(Map<String, Object> body, InferenceContext context) throws Exception {
         Request request = new Request.Builder()
-            .url(OPENAI_URL)
+            .url(url)
             .addHeader("Authorization", "Bearer " + apiKey)
             .addHeader("Content-Type", "application/json")
             .post(
@@ -236,17 +608,58 @@ public class OpenAiToolSelector implements AiToolSelector {
             )
             .build();
 
-        Response response = client.newCall(request).execute();
-        String responseBody = response.body().string();
+        long start = System.nanoTime();
+        JsonNode json;
+        try (Response response = client.newCall(request).execute()) {
+            json = mapper.readTree(response.body().string());
+        }
+        recordUsage(context, json.path("usage"), System.nanoTime() - start);
+        return json;
+    }
 
-        return mapper
-            .readTree(responseBody)
-            .path("choices").get(0)
-            .path("message")
-            .path("content")
-            .asText()
-            .trim()
-            .toLowerCase();
+    /**
+     * Non-blocking {@link #post}; errors, including non-2xx responses,
+     * are signalled on the returned Mono.
+     */
+    private Mono<JsonNode> postReactive(Map<String, Object> body, InferenceContext context) {
+        return Mono.defer(() -> {
+            byte[] bytes;
+            try {
+                bytes = mapper.writeValueAsBytes(body);
+            } catch (Exception e) {
+                return Mono.error(e);
+            }
+
+            long start = System.nanoTime();
+            return webClient.post()
+                .uri(url)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(bytes)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .<JsonNode>handle((response, sink) -> {
+                    try {
+                        sink.next(mapper.readTree(response));
+                    } catch (Exception e) {
+                        sink.error(e);
+                    }
+                })
+                .doOnNext(json -> recordUsage(context, json.path("usage"), System.nanoTime() - start));
+        });
+    }
+
+    private void recordUsage(InferenceContext context, JsonNode usage, long wallNanos) {
+        usageTracker.record(
+            context.sessionId(),
+            context.tenantId(),
+            new LlmUsage(
+                usage.path("prompt_tokens").asLong(),
+                usage.path("completion_tokens").asLong(),
+                usage.path("total_tokens").asLong(),
+                wallNanos
+            )
+        );
     }
 
     /**
@@ -275,19 +688,38 @@ public class OpenAiToolSelector implements AiToolSelector {
         return "unknown";
     }
 
+    /**
+     * Map a tool back to the intent that proposes it
+     */
+    private String mapToolToIntent(String tool) {
+        return switch (tool) {
+            case "account.create" -> "bootstrap";
+            case "account.configure" -> "account.configure";
+            case "idgen.configure" -> "idgen";
+            case "workflow.configure" -> "workflow";
+            case "boundary.configure" -> "boundary";
+            case "notification.configure" -> "notification";
+            case "registry.configure" -> "registry";
+            case "user.create" -> "user";
+            case "role.create" -> "role";
+            case "role.assign" -> "role.assign";
+            default -> "unknown";
+        };
+    }
+
     /**
      * Map an intent to the corresponding tool name
      */
-    private String mapIntentToTool(String intent, List<String> allowedTools) {
+    private static ToolId mapIntentToTool(String intent) {
         return switch (intent) {
-            case "idgen" -> "idgen.configure";
-            case "workflow" -> "workflow.configure";
-            case "boundary" -> "boundary.configure";
-            case "notification" -> "notification.configure";
-            case "registry" -> "registry.configure";
-            case "user" -> "user.create";
-            case "role" -> "role.create";
-            case "role.assign" -> "role.assign";
+            case "idgen" -> IDGEN_CONFIGURE;
+            case "workflow" -> WORKFLOW_CONFIGURE;
+            case "boundary" -> BOUNDARY_CONFIGURE;
+            case "notification" -> NOTIFICATION_CONFIGURE;
+            case "registry" -> REGISTRY_CONFIGURE;
+            case "user" -> USER_CREATE;
+            case "role" -> ROLE_CREATE;
+            case "role.assign" -> ROLE_ASSIGN;
             default -> null;
         };
     }
@@ -295,7 +727,7 @@ public class OpenAiToolSelector implements AiToolSelector {
     /**
      * Get a human-readable description of what the intent means
      */
-    private String getIntentDescription(String intent) {
+    private static String getIntentDescription(String intent) {
         return switch (intent) {
             case "idgen" -> "configure unique ID generation";
             case "workflow" -> "configure workflows";
@@ -308,77 +740,4 @@ public class OpenAiToolSelector implements AiToolSelector {
             default -> "proceed";
         };
     }
-
-    private String callOpenAi(String userMessage, List<String> allowedTools)
-            throws Exception {
-
-        String prompt = buildPrompt(userMessage, allowedTools);
-
-        Map<String, Object> body = Map.of(
-            "model", "gpt-4o-mini",
-            "temperature", 0,
-            "messages", List.of(
-                Map.of(
-                    "role", "system",
-                    "content",
-                    "You are a strict tool selector. " +
-                    "Return exactly ONE tool name from the allowed list. " +
-                    "No explanation. No extra text."
-                ),
-                Map.of(
-                    "role", "user",
-                    "content", prompt
-                )
-            )
-        );
-
-        Request request = new Request.Builder()
-            .url(OPENAI_URL)
-            .addHeader("Authorization", "Bearer " + apiKey)
-            .addHeader("Content-Type", "application/json")
-            .post(
-                RequestBody.create(
-                    mapper.writeValueAsBytes(body),
-                    MediaType.parse("application/json")
-                )
-            )
-            .build();
-
-        Response response = client.newCall(request).execute();
-        String responseBody = response.body().string();
-
-        return mapper
-            .readTree(responseBody)
-            .path("choices").get(0)
-            .path("message")
-            .path("content")
-            .asText()
-            .trim();
-    }
-
-    private String buildPrompt(String userMessage, List<String> allowedTools) {
-        return """
-User request:
-%s
-
-Allowed tools:
-%s
-
-Tool meanings:
-- account.create → create DIGIT account
-- account.configure → authenticate account
-- idgen.configure → configure unique ID generation
-- workflow.configure → configure workflows
-- notification.configure → configure notifications
-- boundary.configure → configure boundaries
-- registry.configure → configure registry schemas
-- user.create → create a user
-- role.create → create a role
-- role.assign → assign role to user
-
-Rules:
-- Choose the best matching tool
-- Return ONLY the tool name
-""".formatted(userMessage, allowedTools);
-    }
 }
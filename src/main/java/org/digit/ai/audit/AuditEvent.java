@@ -0,0 +1,28 @@
+package org.digit.ai.audit;
+
+/**
+ * One preallocated ring-buffer slot.
+ *
+ * Slots are reused: a producer fills the fields after claiming the
+ * slot and before publishing it, and the consumer copies them out
+ * before releasing it, so no event object is allocated per publish.
+ */
+final class AuditEvent {
+
+    long timestampMillis;
+    String type;
+    String sessionId;
+    String tenantId;
+    String tool;
+    String outcome;
+    String detail;
+
+    void clear() {
+        type = null;
+        sessionId = null;
+        tenantId = null;
+        tool = null;
+        outcome = null;
+        detail = null;
+    }
+}
@@ -0,0 +1,318 @@
+package org.digit.ai.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous audit trail of decisions and tool executions.
+ *
+ * Producers claim a sequence with one CAS on a shared cursor, fill the
+ * preallocated slot and publish it by storing the sequence into the
+ * slot's published marker; nothing is locked or allocated on the
+ * request path. A single consumer thread drains published slots in
+ * order, in batches, as JSON lines into a gzip file that is rotated
+ * once {@code maxFileBytes} of uncompressed data has been written.
+ * When the buffer is full the event is dropped and counted rather
+ * than making the request wait. A write that fails is logged and the
+ * file abandoned; events are dropped for {@link #RETRY_MILLIS}, then
+ * the next one opens a new file.
+ */
+public class AuditLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final long RETRY_MILLIS = 1_000;
+
+    private static final DateTimeFormatter FILE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final AuditEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int batchSize;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile CountDownLatch closeRequest;
+
+    // consumer-thread state
+    private final StringBuilder line = new StringBuilder(256);
+    private OutputStream out;
+    private long fileBytes;
+    private boolean dirty;
+    private int fileIndex;
+    private boolean failing;
+    private long retryAtMillis;
+
+    /**
+     * @param bufferSize slots in the ring, rounded up to a power of two
+     */
+    public AuditLog(Path directory, int bufferSize, long maxFileBytes, int batchSize) {
+        int size = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AuditEvent[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AuditEvent();
+        }
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.batchSize = batchSize;
+
+        this.consumer = new Thread(this::consume, "audit-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Record an event; returns false if it was dropped because the buffer is full.
+     */
+    public boolean publish(
+            String type,
+            String sessionId,
+            String tenantId,
+            String tool,
+            String outcome,
+            String detail
+    ) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            if (sequence - consumed > slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+
+        int index = (int) sequence & mask;
+        AuditEvent event = slots[index];
+        event.timestampMillis = System.currentTimeMillis();
+        event.type = type;
+        event.sessionId = sessionId;
+        event.tenantId = tenantId;
+        event.tool = tool;
+        event.outcome = outcome;
+        event.detail = detail;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * Close the current file once everything published so far is in it;
+     * the next event starts a new file. A checkpoint cannot capture open
+     * files, so this runs before one.
+     */
+    public void closeCurrentFile() {
+        if (!consumer.isAlive()) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        closeRequest = done;
+        LockSupport.unpark(consumer);
+        try {
+            done.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write everything published so far and close the current file.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        long next = consumed + 1;
+        try {
+            while (true) {
+                int batch = 0;
+                int batchWritten = 0;
+                while (batch < batchSize && published.get((int) next & mask) == next) {
+                    if (write(slots[(int) next & mask])) {
+                        batchWritten++;
+                    } else {
+                        dropped.increment();
+                    }
+                    slots[(int) next & mask].clear();
+                    consumed = next;
+                    next++;
+                    batch++;
+                }
+
+                if (batch > 0) {
+                    written.add(batchWritten);
+                    continue;
+                }
+                CountDownLatch request = closeRequest;
+                if (request != null) {
+                    closeRequest = null;
+                    closeFile();
+                    request.countDown();
+                    continue;
+                }
+                if (!running && claimed.get() < next) {
+                    break;
+                }
+                flush();
+                LockSupport.parkNanos(1_000_000);
+            }
+        } finally {
+            closeFile();
+        }
+    }
+
+    /**
+     * @return false if the event could not be written and is lost
+     */
+    private boolean write(AuditEvent event) {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(event.timestampMillis)).append('"');
+        field("type", event.type);
+        field("sessionId", event.sessionId);
+        field("tenantId", event.tenantId);
+        field("tool", event.tool);
+        field("outcome", event.outcome);
+        field("detail", event.detail);
+        line.append("}\n");
+
+        if (out == null && failing && System.currentTimeMillis() < retryAtMillis) {
+            return false;
+        }
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null || fileBytes + bytes.length > maxFileBytes) {
+                rotate();
+            }
+            out.write(bytes);
+        } catch (IOException e) {
+            failed(e);
+            return false;
+        }
+        fileBytes += bytes.length;
+        dirty = true;
+        if (failing) {
+            failing = false;
+            log.info("Audit log writing again in {}", directory);
+        }
+        return true;
+    }
+
+    private void field(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(
+            "audit-" + FILE_TIME.format(Instant.now()) + "-" + (fileIndex++) + ".jsonl.gz"
+        );
+        out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024, true));
+        fileBytes = 0;
+    }
+
+    /**
+     * Sync-flush when the consumer goes idle, so the file is readable up
+     * to the last event without waiting for rotation.
+     */
+    private void flush() {
+        if (out != null && dirty) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                failed(e);
+            }
+            dirty = false;
+        }
+    }
+
+    /**
+     * Abandon the current file; auditing resumes in a new one after
+     * {@link #RETRY_MILLIS}. Logged once until a write succeeds again.
+     */
+    private void failed(IOException e) {
+        if (!failing) {
+            log.error("Audit log write failed in {}; dropping events until a new file can be opened", directory, e);
+        }
+        failing = true;
+        retryAtMillis = System.currentTimeMillis() + RETRY_MILLIS;
+        closeFile();
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            // nothing more to do for this file
+        }
+        out = null;
+    }
+}
@@ -1,6 +1,23 @@
 package org.digit.ai.config;
 
+import org.digit.ai.admission.LlmAdmission;
+import org.digit.ai.admission.ReactiveLlmAdmission;
+import org.digit.ai.audit.AuditLog;
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitClientProperties;
 import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.DigitToolGraph;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.onboarding.BulkOnboardingService;
+import org.digit.ai.ratelimit.LlmRateLimiter;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.session.StateWatchers;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.digit.ai.warmup.CheckpointSupport;
+import org.digit.ai.warmup.StartupWarmup;
 import org.digit.ai.orchestrator.ConversationOrchestrator;
 import org.digit.ai.orchestrator.ToolRegistry;
 
@@ -20,55 +37,342 @@ import org.digit.ai.tools.notification.NotificationConfigureTool;
 import org.digit.ai.tools.boundary.BoundaryConfigureTool;
 import org.digit.ai.tools.registry.RegistryConfigureTool;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.ai.ConfirmationDetector;
 import org.digit.ai.ai.OpenAiToolSelector;
 
 
 
 @Configuration
+@EnableConfigurationProperties(DigitClientProperties.class)
+@ImportRuntimeHints(NativeHints.class)
 public class AppConfig {
 
+    /**
+     * Shared DIGIT client. Without it (digit.client.enabled=false)
+     * tools only simulate their effect.
+     */
     @Bean
-    public ToolRegistry toolRegistry() {
+    @ConditionalOnProperty(name = "digit.client.enabled", havingValue = "true")
+    public DigitClient digitClient(DigitClientProperties properties) {
+        return new DigitClient(properties);
+    }
+
+    /**
+     * Compiles the declarative tool graph once at startup; the resolver
+     * and the registry share its tool ids.
+     */
+    @Bean
+    public CompiledToolGraph toolGraph() {
+        return DigitToolGraph.compiled();
+    }
+
+    @Bean
+    public ToolRegistry toolRegistry(CompiledToolGraph toolGraph, ObjectProvider<DigitClient> digitClient) {
+        DigitClient client = digitClient.getIfAvailable();
+
         return new ToolRegistry(
+            toolGraph,
             List.of(
-                new AccountCreateTool(),
-                new AccountConfigureTool(),
-
-                new UserCreateTool(),
-                new RoleCreateTool(),
-                new RoleAssignTool(),
-
-                new IdGenConfigureTool(),
-                new WorkflowConfigureTool(),
-                new NotificationConfigureTool(),
-                new BoundaryConfigureTool(),
-                new RegistryConfigureTool()
+                new AccountCreateTool(client),
+                new AccountConfigureTool(client),
+
+                new UserCreateTool(client),
+                new RoleCreateTool(client),
+                new RoleAssignTool(client),
+
+                new IdGenConfigureTool(client),
+                new WorkflowConfigureTool(client),
+                new NotificationConfigureTool(client),
+                new BoundaryConfigureTool(client),
+                new RegistryConfigureTool(client)
             )
         );
     }
 
+    @Bean
+    public AllowedToolsResolver allowedToolsResolver(CompiledToolGraph toolGraph) {
+        return new AllowedToolsResolver(toolGraph);
+    }
+
+    /**
+     * Compliance trail of decisions and tool executions, written off
+     * the request path to rotating gzip files.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "digit.audit.enabled", havingValue = "true", matchIfMissing = true)
+    public AuditLog auditLog(
+            MeterRegistry meterRegistry,
+            @Value("${digit.audit.directory:logs/audit}") Path directory,
+            @Value("${digit.audit.buffer-size:65536}") int bufferSize,
+            @Value("${digit.audit.max-file-size:64MB}") DataSize maxFileSize,
+            @Value("${digit.audit.batch-size:512}") int batchSize
+    ) {
+        AuditLog auditLog = new AuditLog(directory, bufferSize, maxFileSize.toBytes(), batchSize);
+        Gauge.builder("digit.audit.dropped", auditLog, AuditLog::dropped).register(meterRegistry);
+        Gauge.builder("digit.audit.written", auditLog, AuditLog::written).register(meterRegistry);
+        return auditLog;
+    }
+
     @Bean
     public ConversationOrchestrator orchestrator(
-            ToolRegistry registry
+            AllowedToolsResolver resolver,
+            ToolRegistry registry,
+            @Value("${digit.tools.timeout:30s}") Duration toolTimeout,
+            ObjectProvider<AuditLog> auditLog,
+            StateWatchers stateWatchers
     ) {
         return new ConversationOrchestrator(
-            new AllowedToolsResolver(),
-            registry
+            resolver,
+            registry,
+            toolTimeout,
+            auditLog.getIfAvailable(),
+            stateWatchers
+        );
+    }
+
+    /**
+     * Long-poll watchers of /mcp/state/changes, woken by the orchestrator.
+     */
+    @Bean
+    public StateWatchers stateWatchers(MeterRegistry meterRegistry) {
+        StateWatchers watchers = new StateWatchers();
+        Gauge.builder("digit.watch.waiting", watchers, StateWatchers::watching).register(meterRegistry);
+        return watchers;
+    }
+
+    @Bean
+    public SessionStore sessionStore(
+            @Value("${digit.session.history.turns:8}") int historyTurns,
+            @Value("${digit.session.history.max-turn-chars:400}") int maxTurnChars
+    ) {
+        return new SessionStore(historyTurns, maxTurnChars);
+    }
+
+    @Bean
+    public BulkOnboardingService bulkOnboardingService(
+            ConversationOrchestrator orchestrator,
+            SessionStore sessionStore,
+            @Value("${digit.bulk.parallelism:16}") int tenantParallelism,
+            @Value("${digit.plan.parallelism:4}") int planParallelism
+    ) {
+        return new BulkOnboardingService(
+            orchestrator,
+            sessionStore,
+            tenantParallelism,
+            planParallelism
         );
     }
 
     @Bean
-public AiToolSelector aiToolSelector() {
+    public IdempotencyCache<ToolExecuteResponse> idempotencyCache(
+            @Value("${digit.idempotency.ttl:10m}") Duration ttl,
+            @Value("${digit.idempotency.max-entries:10000}") int maxEntries
+    ) {
+        return new IdempotencyCache<>(ttl, maxEntries);
+    }
+
+    /**
+     * Limits paid intent calls per session and per tenant / API key.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "digit.llm.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public LlmRateLimiter llmRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${digit.llm.rate-limit.session.requests-per-minute:20}") int sessionRate,
+            @Value("${digit.llm.rate-limit.session.burst:5}") int sessionBurst,
+            @Value("${digit.llm.rate-limit.tenant.requests-per-minute:300}") int tenantRate,
+            @Value("${digit.llm.rate-limit.tenant.burst:50}") int tenantBurst,
+            @Value("${digit.llm.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        return new LlmRateLimiter(
+            LlmRateLimiter.Limit.perMinute(sessionRate, sessionBurst),
+            LlmRateLimiter.Limit.perMinute(tenantRate, tenantBurst),
+            maxKeys,
+            meterRegistry
+        );
+    }
+
+    /**
+     * Separate bounded pool for LLM-backed requests so confirmations and
+     * reads keep their request threads under OpenAI saturation.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public LlmAdmission llmAdmission(
+            MeterRegistry meterRegistry,
+            @Value("${digit.admission.llm.concurrency:16}") int concurrency,
+            @Value("${digit.admission.llm.queue-capacity:64}") int queueCapacity,
+            @Value("${digit.admission.llm.max-queue-wait:2s}") Duration maxQueueWait,
+            @Value("${digit.admission.retry-after:2s}") Duration retryAfter
+    ) {
+        return new LlmAdmission(
+            concurrency,
+            queueCapacity,
+            maxQueueWait,
+            retryAfter,
+            meterRegistry
+        );
+    }
+
+    /**
+     * Same limits for the reactive stack, without a thread per LLM call.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveLlmAdmission reactiveLlmAdmission(
+            MeterRegistry meterRegistry,
+            @Value("${digit.admission.llm.concurrency:16}") int concurrency,
+            @Value("${digit.admission.llm.queue-capacity:64}") int queueCapacity,
+            @Value("${digit.admission.llm.max-queue-wait:2s}") Duration maxQueueWait,
+            @Value("${digit.admission.retry-after:2s}") Duration retryAfter
+    ) {
+        return new ReactiveLlmAdmission(
+            concurrency,
+            queueCapacity,
+            maxQueueWait,
+            retryAfter,
+            meterRegistry
+        );
+    }
+
+    /**
+     * Run the reactive stack on Netty; with Tomcat also on the classpath
+     * Spring Boot would otherwise serve it from Tomcat.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * /mcp/ai conversation logic shared by the servlet and reactive APIs.
+     */
+    @Bean
+    public ConversationService conversationService(
+            ConversationOrchestrator orchestrator,
+            AiToolSelector aiToolSelector,
+            SessionStore sessionStore,
+            IdempotencyCache<ToolExecuteResponse> idempotencyCache,
+            ObjectProvider<LlmRateLimiter> rateLimiter,
+            LlmUsageTracker usageTracker,
+            @Value("${digit.session.history.token-budget:300}") int historyTokenBudget,
+            ObjectProvider<AuditLog> auditLog,
+            ConfirmationDetector confirmationDetector
+    ) {
+        return new ConversationService(
+            orchestrator,
+            aiToolSelector,
+            sessionStore,
+            idempotencyCache,
+            rateLimiter.getIfAvailable(),
+            usageTracker,
+            historyTokenBudget,
+            auditLog.getIfAvailable(),
+            confirmationDetector
+        );
+    }
+
+    /**
+     * Built-in YES/NO lexicon plus deployment-specific phrases.
+     */
+    @Bean
+    public ConfirmationDetector confirmationDetector(
+            @Value("${digit.confirmation.affirmative:}") List<String> affirmative,
+            @Value("${digit.confirmation.negative:}") List<String> negative
+    ) {
+        return ConfirmationDetector.withExtra(affirmative, negative);
+    }
+
+    /**
+     * Per-session budgets; 0 disables a limit.
+     */
+    @Bean
+    public LlmUsageTracker llmUsageTracker(
+            @Value("${digit.llm.budget.session.max-calls:0}") long maxCalls,
+            @Value("${digit.llm.budget.session.max-tokens:0}") long maxTokens,
+            @Value("${digit.llm.budget.session.max-wall-time:0s}") Duration maxWallTime,
+            @Value("${digit.llm.usage.max-keys:100000}") int maxKeys
+    ) {
+        return new LlmUsageTracker(maxCalls, maxTokens, maxWallTime, maxKeys);
+    }
+
+    @Bean
+public AiToolSelector aiToolSelector(
+        LlmUsageTracker usageTracker,
+        ToolRegistry toolRegistry,
+        @Value("${digit.llm.mode:classify}") OpenAiToolSelector.Mode mode
+) {
     return new OpenAiToolSelector(
-        System.getenv("OPENAI_API_KEY")
+        System.getenv("OPENAI_API_KEY"),
+        usageTracker,
+        mode,
+        toolRegistry.parameterSchemas()
     );
 }
 
+    /**
+     * Runs before readiness is reported; see StartupWarmup.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "digit.warmup.enabled", havingValue = "true", matchIfMissing = true)
+    public StartupWarmup startupWarmup(
+            AiToolSelector aiToolSelector,
+            AllowedToolsResolver resolver,
+            ObjectProvider<DigitClient> digitClient,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${digit.warmup.snapshot:logs/warmup/tool-sets.txt}") Path snapshot,
+            @Value("${digit.warmup.iterations:50}") int iterations
+    ) {
+        return new StartupWarmup(
+            aiToolSelector,
+            resolver,
+            digitClient.getIfAvailable(),
+            objectMapper,
+            meterRegistry,
+            snapshot,
+            iterations
+        );
+    }
 
+    /**
+     * Releases connections and files around a CRaC checkpoint and can
+     * take one after warm-up; see CheckpointSupport.
+     */
+    @Bean
+    public CheckpointSupport checkpointSupport(
+            AiToolSelector aiToolSelector,
+            ObjectProvider<DigitClient> digitClient,
+            ObjectProvider<AuditLog> auditLog,
+            MeterRegistry meterRegistry,
+            @Value("${digit.crac.checkpoint-after-warmup:false}") boolean checkpointAfterWarmup
+    ) {
+        return new CheckpointSupport(
+            aiToolSelector,
+            digitClient.getIfAvailable(),
+            auditLog.getIfAvailable(),
+            meterRegistry,
+            checkpointAfterWarmup
+        );
+    }
 }
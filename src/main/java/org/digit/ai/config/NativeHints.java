@@ -0,0 +1,80 @@
+package org.digit.ai.config;
+
+import org.digit.ai.mcp.AiRequest;
+import org.digit.ai.mcp.AllowedToolsResponse;
+import org.digit.ai.mcp.BulkOnboardRequest;
+import org.digit.ai.mcp.ConversationEvent;
+import org.digit.ai.mcp.StateChangeResponse;
+import org.digit.ai.mcp.ToolExecuteRequest;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.onboarding.BulkOnboardingSummary;
+import org.digit.ai.onboarding.TenantProgress;
+import org.digit.ai.orchestrator.PlanReport;
+import org.digit.ai.state.AccountState;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.state.RoleState;
+import org.digit.ai.state.UserState;
+import org.digit.ai.usage.UsageSnapshot;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (-Pnative).
+ *
+ * Spring AOT discovers beans and controller signatures on its own, but
+ * not types that are only reached through Jackson or Lombok accessors
+ * at runtime, nor resources OkHttp loads from its own jar.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final MemberCategory[] BEAN_ACCESS = {
+        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+        MemberCategory.INVOKE_PUBLIC_METHODS,
+        MemberCategory.DECLARED_FIELDS
+    };
+
+    // Immutable Lombok @Value/@With state, serialized with the session and in plan reports
+    static final List<Class<?>> STATE_TYPES = List.of(
+        ConfigState.class,
+        AccountState.class,
+        UserState.class,
+        RoleState.class
+    );
+
+    // Records read or written as JSON by the controllers
+    static final List<Class<?>> JSON_TYPES = List.of(
+        AiRequest.class,
+        ToolExecuteRequest.class,
+        ToolExecuteResponse.class,
+        AllowedToolsResponse.class,
+        BulkOnboardRequest.class,
+        ConversationEvent.class,
+        StateChangeResponse.class,
+        PlanReport.class,
+        PlanReport.Node.class,
+        TenantProgress.class,
+        BulkOnboardingSummary.class,
+        UsageSnapshot.class
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : STATE_TYPES) {
+            hints.reflection().registerType(type, BEAN_ACCESS);
+        }
+        for (Class<?> type : JSON_TYPES) {
+            hints.reflection().registerType(type, BEAN_ACCESS);
+        }
+
+        // OkHttp looks up cookie domains in a bundled public suffix list
+        hints.resources().registerPattern("okhttp3/internal/publicsuffix/publicsuffixes.gz");
+        hints.reflection().registerType(
+            TypeReference.of("okhttp3.internal.publicsuffix.PublicSuffixDatabase"),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package org.digit.ai.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.digit.ai.admission.LlmAdmission;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.ConversationSocketHandler;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.session.StateWatchers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistration;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.time.Duration;
+
+/**
+ * Conversation channel at /mcp/ws (servlet stack).
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ConversationSocketHandler handler;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(
+            ConversationSocketHandler handler,
+            @Value("${digit.ws.allowed-origins:}") String[] allowedOrigins
+    ) {
+        this.handler = handler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    /**
+     * Same-origin handshakes only, unless origin patterns are configured.
+     */
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        WebSocketHandlerRegistration registration = registry.addHandler(handler, "/mcp/ws");
+        if (allowedOrigins.length > 0) {
+            registration.setAllowedOriginPatterns(allowedOrigins);
+        }
+    }
+
+    @Bean
+    public static ConversationSocketHandler conversationSocketHandler(
+            ConversationService conversationService,
+            SessionStore sessionStore,
+            StateWatchers stateWatchers,
+            AiToolSelector aiToolSelector,
+            LlmAdmission llmAdmission,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${digit.ws.send-time-limit:10s}") Duration sendTimeLimit,
+            @Value("${digit.ws.send-buffer-limit:64KB}") DataSize sendBufferLimit,
+            @Value("${digit.ws.max-message-size:8KB}") DataSize maxMessageSize,
+            @Value("${digit.ws.idle-timeout:30m}") Duration idleTimeout
+    ) {
+        ConversationSocketHandler handler = new ConversationSocketHandler(
+            conversationService,
+            sessionStore,
+            stateWatchers,
+            aiToolSelector,
+            llmAdmission,
+            objectMapper,
+            (int) sendTimeLimit.toMillis(),
+            (int) sendBufferLimit.toBytes(),
+            (int) maxMessageSize.toBytes(),
+            idleTimeout
+        );
+        Gauge.builder("digit.ws.connections", handler, ConversationSocketHandler::connections)
+            .register(meterRegistry);
+        return handler;
+    }
+}
@@ -0,0 +1,232 @@
+package org.digit.ai.digit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single client for all DIGIT platform services.
+ *
+ * All services share one connection pool and dispatcher; each gets its
+ * own base URL, call timeout and bulkhead (a cap on concurrent calls,
+ * rejected fast when full so one slow service cannot absorb every
+ * connection). Idempotent requests are retried on connection errors,
+ * 429 and 5xx with full-jitter exponential backoff. The account access
+ * token is injected as the DIGIT RequestInfo.authToken and as a bearer
+ * header.
+ */
+public class DigitClient {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final DigitClientProperties properties;
+    private final OkHttpClient shared;
+    private final Map<DigitService, OkHttpClient> clients = new EnumMap<>(DigitService.class);
+    private final Map<DigitService, Semaphore> bulkheads = new EnumMap<>(DigitService.class);
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public DigitClient(DigitClientProperties properties) {
+        this.properties = properties;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(256);
+        dispatcher.setMaxRequestsPerHost(128);
+
+        this.shared = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(
+                properties.maxIdleConnections(),
+                properties.keepAlive().toMillis(),
+                TimeUnit.MILLISECONDS
+            ))
+            .dispatcher(dispatcher)
+            .retryOnConnectionFailure(false)
+            .build();
+
+        for (DigitService service : DigitService.values()) {
+            // newBuilder() keeps the shared pool and dispatcher
+            clients.put(service, shared.newBuilder()
+                .callTimeout(properties.timeout(service))
+                .build());
+            bulkheads.put(service, new Semaphore(properties.maxConcurrentCalls(service)));
+        }
+    }
+
+    public CompletableFuture<DigitResponse> send(DigitRequest request, String accessToken) {
+        return send(request, accessToken, null);
+    }
+
+    /**
+     * Send a request on behalf of a tenant; the tenant id is added to
+     * the body so one client can serve many tenants.
+     */
+    public CompletableFuture<DigitResponse> send(DigitRequest request, String accessToken, String tenantId) {
+        Semaphore bulkhead = bulkheads.get(request.service());
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new DigitClientException(
+                "Too many concurrent calls to " + request.service().key(), 503
+            ));
+        }
+
+        CompletableFuture<DigitResponse> result = new CompletableFuture<>();
+        result.whenComplete((r, e) -> bulkhead.release());
+
+        try {
+            attempt(request, toHttpRequest(request, accessToken, tenantId), 0, result);
+        } catch (IOException e) {
+            result.completeExceptionally(new DigitClientException("Cannot encode request", e));
+        }
+        return result;
+    }
+
+    public OkHttpClient httpClient() {
+        return shared;
+    }
+
+    /**
+     * Open one pooled connection to each distinct DIGIT host, so the
+     * first tool call does not pay for connection setup.
+     */
+    public void preconnect() {
+        Set<String> baseUrls = new LinkedHashSet<>();
+        for (DigitService service : DigitService.values()) {
+            baseUrls.add(properties.baseUrl(service));
+        }
+        for (String baseUrl : baseUrls) {
+            Request request = new Request.Builder().url(baseUrl).head().build();
+            try (Response response = clients.get(DigitService.ACCOUNT).newCall(request).execute()) {
+                // any status will do; draining the body returns the connection to the pool
+                response.body().bytes();
+            } catch (IOException | IllegalArgumentException e) {
+                // best effort; the first real call connects instead
+            }
+        }
+    }
+
+    /**
+     * Close idle pooled connections, e.g. before a checkpoint or shutdown.
+     */
+    public void evictConnections() {
+        shared.connectionPool().evictAll();
+    }
+
+    private void attempt(
+            DigitRequest request,
+            Request httpRequest,
+            int attempt,
+            CompletableFuture<DigitResponse> result
+    ) {
+        Call call = clients.get(request.service()).newCall(httpRequest);
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (shouldRetry(request, attempt) && !call.isCanceled()) {
+                    retry(request, httpRequest, attempt, result);
+                } else {
+                    result.completeExceptionally(new DigitClientException(
+                        request.service().key() + " unavailable: " + e.getMessage(), e
+                    ));
+                }
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    int status = response.code();
+                    if (response.isSuccessful()) {
+                        String body = response.body() == null ? "" : response.body().string();
+                        result.complete(new DigitResponse(
+                            status,
+                            body.isEmpty() ? mapper.createObjectNode() : mapper.readTree(body)
+                        ));
+                    } else if ((status == 429 || status >= 500) && shouldRetry(request, attempt)) {
+                        retry(request, httpRequest, attempt, result);
+                    } else {
+                        result.completeExceptionally(new DigitClientException(
+                            request.service().key() + request.path() + " returned " + status, status
+                        ));
+                    }
+                } catch (IOException e) {
+                    result.completeExceptionally(new DigitClientException("Invalid response from DIGIT", e));
+                }
+            }
+        });
+    }
+
+    private boolean shouldRetry(DigitRequest request, int attempt) {
+        return request.idempotent() && attempt < properties.maxRetries();
+    }
+
+    private void retry(
+            DigitRequest request,
+            Request httpRequest,
+            int attempt,
+            CompletableFuture<DigitResponse> result
+    ) {
+        CompletableFuture
+            .delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS)
+            .execute(() -> {
+                if (!result.isDone()) {
+                    attempt(request, httpRequest, attempt + 1, result);
+                }
+            });
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(maxDelay, baseDelay * 2^attempt)].
+     */
+    private long backoffMillis(int attempt) {
+        long base = properties.retryBaseDelay().toMillis();
+        long cap = properties.retryMaxDelay().toMillis();
+        long ceiling = Math.min(cap, base << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Request toHttpRequest(DigitRequest request, String accessToken, String tenantId) throws IOException {
+        Map<String, Object> requestInfo = new LinkedHashMap<>();
+        requestInfo.put("apiId", "digit-ai-orchestrator");
+        if (accessToken != null) {
+            requestInfo.put("authToken", accessToken);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("RequestInfo", requestInfo);
+        if (tenantId != null) {
+            body.put("tenantId", tenantId);
+        }
+        if (request.body() != null) {
+            body.putAll(request.body());
+        }
+
+        Request.Builder builder = new Request.Builder()
+            .url(properties.baseUrl(request.service()) + request.path())
+            .post(RequestBody.create(mapper.writeValueAsBytes(body), JSON));
+        if (accessToken != null) {
+            builder.addHeader("Authorization", "Bearer " + accessToken);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,23 @@
+package org.digit.ai.digit;
+
+public class DigitClientException extends RuntimeException {
+
+    private final int status;
+
+    public DigitClientException(String message, int status) {
+        super(message);
+        this.status = status;
+    }
+
+    public DigitClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = -1;
+    }
+
+    /**
+     * HTTP status of the failed call, or -1 if no response was received.
+     */
+    public int status() {
+        return status;
+    }
+}
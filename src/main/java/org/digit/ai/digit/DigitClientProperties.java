@@ -0,0 +1,72 @@
+package org.digit.ai.digit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for the shared DIGIT client.
+ *
+ * Every service falls back to the top-level base URL, timeout and
+ * concurrency limit unless it is overridden under {@code services.<key>}.
+ */
+@ConfigurationProperties(prefix = "digit.client")
+public record DigitClientProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("http://localhost:8091") String baseUrl,
+        @DefaultValue("10s") Duration timeout,
+        @DefaultValue("32") int maxConcurrentCalls,
+        @DefaultValue("3") int maxRetries,
+        @DefaultValue("100ms") Duration retryBaseDelay,
+        @DefaultValue("2s") Duration retryMaxDelay,
+        @DefaultValue("64") int maxIdleConnections,
+        @DefaultValue("5m") Duration keepAlive,
+        Map<String, Service> services
+) {
+    public record Service(
+            String baseUrl,
+            Duration timeout,
+            Integer maxConcurrentCalls
+    ) {}
+
+    /**
+     * Defaults for every setting, pointing all services at one base URL.
+     */
+    public static DigitClientProperties defaults(String baseUrl) {
+        return new DigitClientProperties(
+            true,
+            baseUrl,
+            Duration.ofSeconds(10),
+            32,
+            3,
+            Duration.ofMillis(100),
+            Duration.ofSeconds(2),
+            64,
+            Duration.ofMinutes(5),
+            Map.of()
+        );
+    }
+
+    public String baseUrl(DigitService service) {
+        Service override = override(service);
+        return override != null && override.baseUrl() != null ? override.baseUrl() : baseUrl;
+    }
+
+    public Duration timeout(DigitService service) {
+        Service override = override(service);
+        return override != null && override.timeout() != null ? override.timeout() : timeout;
+    }
+
+    public int maxConcurrentCalls(DigitService service) {
+        Service override = override(service);
+        return override != null && override.maxConcurrentCalls() != null
+            ? override.maxConcurrentCalls()
+            : maxConcurrentCalls;
+    }
+
+    private Service override(DigitService service) {
+        return services == null ? null : services.get(service.key());
+    }
+}
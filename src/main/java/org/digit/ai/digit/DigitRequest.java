@@ -0,0 +1,24 @@
+package org.digit.ai.digit;
+
+import java.util.Map;
+
+/**
+ * A call to a DIGIT service.
+ *
+ * Only idempotent requests are retried; creates that would duplicate
+ * data on the platform must set {@code idempotent} to false.
+ */
+public record DigitRequest(
+        DigitService service,
+        String path,
+        Map<String, Object> body,
+        boolean idempotent
+) {
+    public static DigitRequest create(DigitService service, String path, Map<String, Object> body) {
+        return new DigitRequest(service, path, body, false);
+    }
+
+    public static DigitRequest upsert(DigitService service, String path, Map<String, Object> body) {
+        return new DigitRequest(service, path, body, true);
+    }
+}
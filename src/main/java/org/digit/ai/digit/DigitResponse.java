@@ -0,0 +1,8 @@
+package org.digit.ai.digit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record DigitResponse(
+        int status,
+        JsonNode body
+) {}
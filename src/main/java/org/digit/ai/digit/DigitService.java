@@ -0,0 +1,26 @@
+package org.digit.ai.digit;
+
+/**
+ * DIGIT platform services the tools talk to.
+ * The key is used for per-service settings under digit.client.services.
+ */
+public enum DigitService {
+    ACCOUNT("account"),
+    USER("user"),
+    ACCESS_CONTROL("access-control"),
+    IDGEN("idgen"),
+    WORKFLOW("workflow"),
+    NOTIFICATION("notification"),
+    BOUNDARY("boundary"),
+    REGISTRY("registry");
+
+    private final String key;
+
+    DigitService(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
@@ -2,65 +2,67 @@ package org.digit.ai.gating;
 
 import org.digit.ai.state.ConfigState;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class AllowedToolsResolver {
 
-    public List<String> resolve(ConfigState state) {
+    // graphs this small have few enough tool sets to keep one per mask
+    private static final int MAX_INTERNED_TOOLS = 16;
 
-        // HARD GATE 1: Account must exist
-        if (!state.getAccount().isCreated()) {
-            return List.of("account.create");
-        }
-
-        // HARD GATE 2: Account must be configured (auth token)
-        if (!state.getAccount().isConfigured()) {
-            return List.of("account.configure");
-        }
-
-        // From here on, platform is usable
-        List<String> tools = new ArrayList<>();
-
-        // Independent configuration domains
-        if (!state.isIdGenConfigured()) {
-            tools.add("idgen.configure");
-        }
-
-        if (!state.isWorkflowConfigured()) {
-            tools.add("workflow.configure");
-        }
+    private final CompiledToolGraph graph;
+    private final ThreadLocal<long[]> facts;
+    private final ThreadLocal<long[]> allowed;
 
-        if (!state.isNotificationConfigured()) {
-            tools.add("notification.configure");
-        }
+    // resolved sets by bitmask, or null for larger graphs
+    private final AtomicReferenceArray<ToolSet> interned;
 
-        if (!state.isBoundaryConfigured()) {
-            tools.add("boundary.configure");
-        }
+    public AllowedToolsResolver() {
+        this(DigitToolGraph.compiled());
+    }
 
-        if (!state.isRegistrySchemaConfigured()) {
-            tools.add("registry.configure");
-        }
+    public AllowedToolsResolver(CompiledToolGraph graph) {
+        this.graph = graph;
+        this.facts = ThreadLocal.withInitial(graph::newFactSet);
+        this.allowed = ThreadLocal.withInitial(graph::newToolSet);
+        this.interned = graph.toolCount() <= MAX_INTERNED_TOOLS
+            ? new AtomicReferenceArray<>(1 << graph.toolCount())
+            : null;
+    }
 
-        // User & Role creation (independent)
-        if (!state.getUser().isCreated()) {
-            tools.add("user.create");
+    /**
+     * Allowed tools of the state; names are only looked at when the set
+     * is serialized or compared with a name. For graphs of up to
+     * {@value #MAX_INTERNED_TOOLS} tools each distinct set is built once
+     * and then shared, so the per-message path does not allocate.
+     */
+    public ToolSet resolve(ConfigState state) {
+        long[] tools = allowed.get();
+        resolve(state, tools);
+        if (interned == null) {
+            return graph.toolSet(tools);
         }
 
-        if (!state.getRole().isCreated()) {
-            tools.add("role.create");
+        int mask = (int) tools[0];
+        ToolSet set = interned.get(mask);
+        if (set == null) {
+            // racing builders make equal sets; either may be kept
+            set = graph.toolSet(tools);
+            interned.set(mask, set);
         }
+        return set;
+    }
 
-        // Derived capability: role assignment
-        if (
-            state.getUser().isCreated() &&
-            state.getRole().isCreated() &&
-            !state.isRoleAssignmentDone()
-        ) {
-            tools.add("role.assign");
-        }
+    /**
+     * Allocation-free form of {@link #resolve(ConfigState)}: writes the
+     * allowed tools of the graph into {@code tools} as a bitset.
+     */
+    public void resolve(ConfigState state, long[] tools) {
+        long[] observed = facts.get();
+        graph.readFacts(state, observed);
+        graph.resolve(observed, tools);
+    }
 
-        return tools;
+    public CompiledToolGraph graph() {
+        return graph;
     }
 }
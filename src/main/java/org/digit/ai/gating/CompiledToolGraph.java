@@ -0,0 +1,256 @@
+package org.digit.ai.gating;
+
+import org.digit.ai.state.ConfigState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bitmask form of a {@link ToolGraph}.
+ *
+ * Facts and tools are numbered densely and packed 64 per word. For
+ * every fact the graph keeps the (sparse) words of tools it blocks:
+ * the tools that require it while it is missing, and the tool it
+ * retires once it holds. Resolution starts from "all tools" and clears
+ * those words, visiting only facts that actually block something, so
+ * its cost is the number of non-empty mask words plus one pass over
+ * the fact and tool words, and it never allocates.
+ */
+public final class CompiledToolGraph {
+
+    private final ToolId[] toolIds;
+    private final int[] completes;
+    private final Map<String, ToolId> toolsByName = new HashMap<>();
+    private final Predicate<ConfigState>[] factReaders;
+    private final int factCount;
+    private final int factWords;
+    private final int toolWords;
+    private final long[] allTools;
+
+    // Sparse per-fact masks, flattened: fact f owns entries [start[f], start[f + 1])
+    private final int[] missingStart;
+    private final int[] missingWord;
+    private final long[] missingBits;
+    private final int[] presentStart;
+    private final int[] presentWord;
+    private final long[] presentBits;
+
+    // Facts that block at least one tool when missing / when present
+    private final long[] blocking;
+    private final long[] retiring;
+
+    @SuppressWarnings("unchecked")
+    CompiledToolGraph(
+            List<String> factNames,
+            List<Predicate<ConfigState>> readers,
+            List<ToolGraph.ToolSpec> specs
+    ) {
+        this.factCount = factNames.size();
+        this.factWords = words(factCount);
+        this.toolWords = words(specs.size());
+        this.factReaders = (Predicate<ConfigState>[]) readers.toArray(new Predicate<?>[0]);
+        this.toolIds = new ToolId[specs.size()];
+        this.completes = new int[specs.size()];
+        this.allTools = new long[toolWords];
+
+        Map<String, Integer> factIndex = new HashMap<>();
+        for (int f = 0; f < factCount; f++) {
+            factIndex.put(factNames.get(f), f);
+        }
+
+        long[][] requiredBy = new long[factCount][toolWords];
+        long[][] completedBy = new long[factCount][toolWords];
+
+        for (int t = 0; t < specs.size(); t++) {
+            ToolGraph.ToolSpec spec = specs.get(t);
+            toolIds[t] = new ToolId(this, t, spec.name);
+            toolsByName.put(spec.name, toolIds[t]);
+            allTools[t >>> 6] |= 1L << t;
+
+            for (String fact : spec.requires) {
+                requiredBy[factIndex.get(fact)][t >>> 6] |= 1L << t;
+            }
+            completes[t] = factIndex.get(spec.completes);
+            completedBy[completes[t]][t >>> 6] |= 1L << t;
+        }
+
+        List<long[]> missing = sparse(requiredBy);
+        List<long[]> present = sparse(completedBy);
+
+        this.missingStart = starts(missing);
+        this.missingWord = wordIndexes(missing);
+        this.missingBits = wordBits(missing);
+        this.presentStart = starts(present);
+        this.presentWord = wordIndexes(present);
+        this.presentBits = wordBits(present);
+
+        this.blocking = new long[factWords];
+        this.retiring = new long[factWords];
+        for (int f = 0; f < factCount; f++) {
+            if (missingStart[f + 1] > missingStart[f]) {
+                blocking[f >>> 6] |= 1L << f;
+            }
+            if (presentStart[f + 1] > presentStart[f]) {
+                retiring[f >>> 6] |= 1L << f;
+            }
+        }
+    }
+
+    public int toolCount() {
+        return toolIds.length;
+    }
+
+    public int factCount() {
+        return factCount;
+    }
+
+    public String toolName(int index) {
+        return toolIds[index].name();
+    }
+
+    public ToolId toolId(int index) {
+        return toolIds[index];
+    }
+
+    /**
+     * Interned id of a tool, or null if the graph does not declare it.
+     */
+    public ToolId toolId(String name) {
+        return toolsByName.get(name);
+    }
+
+    /**
+     * Dense index of a tool, or -1 if the graph does not declare it.
+     */
+    public int toolIndex(String name) {
+        ToolId id = toolsByName.get(name);
+        return id == null ? -1 : id.ordinal();
+    }
+
+    /**
+     * Immutable copy of a tool bitset, e.g. one filled by {@link #resolve}.
+     */
+    public ToolSet toolSet(long[] tools) {
+        return new ToolSet(this, tools.clone());
+    }
+
+    public long[] newFactSet() {
+        return new long[factWords];
+    }
+
+    public long[] newToolSet() {
+        return new long[toolWords];
+    }
+
+    /**
+     * Observe every declared fact of the state into {@code facts}.
+     */
+    public void readFacts(ConfigState state, long[] facts) {
+        for (int w = 0; w < factWords; w++) {
+            facts[w] = 0;
+        }
+        for (int f = 0; f < factCount; f++) {
+            if (factReaders[f].test(state)) {
+                facts[f >>> 6] |= 1L << f;
+            }
+        }
+    }
+
+    /**
+     * Compute the allowed tools for the given facts into {@code allowed}.
+     */
+    public void resolve(long[] facts, long[] allowed) {
+        System.arraycopy(allTools, 0, allowed, 0, toolWords);
+
+        for (int w = 0; w < factWords; w++) {
+            long present = facts[w] & retiring[w];
+            long missing = ~facts[w] & blocking[w];
+
+            while (present != 0) {
+                int f = (w << 6) + Long.numberOfTrailingZeros(present);
+                for (int k = presentStart[f]; k < presentStart[f + 1]; k++) {
+                    allowed[presentWord[k]] &= ~presentBits[k];
+                }
+                present &= present - 1;
+            }
+            while (missing != 0) {
+                int f = (w << 6) + Long.numberOfTrailingZeros(missing);
+                for (int k = missingStart[f]; k < missingStart[f + 1]; k++) {
+                    allowed[missingWord[k]] &= ~missingBits[k];
+                }
+                missing &= missing - 1;
+            }
+        }
+    }
+
+    /**
+     * Mark the completion effect of {@code tool} in {@code facts}, i.e.
+     * the facts observed after it ran.
+     */
+    public void complete(ToolId tool, long[] facts) {
+        int f = completes[tool.ordinal()];
+        facts[f >>> 6] |= 1L << f;
+    }
+
+    private static int words(int bits) {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+
+    /**
+     * Per fact, the non-zero words of its mask as {word index, bits} pairs.
+     */
+    private static List<long[]> sparse(long[][] masks) {
+        List<long[]> result = new ArrayList<>(masks.length);
+        for (long[] mask : masks) {
+            int nonZero = 0;
+            for (long word : mask) {
+                if (word != 0) {
+                    nonZero++;
+                }
+            }
+            long[] pairs = new long[nonZero * 2];
+            int i = 0;
+            for (int w = 0; w < mask.length; w++) {
+                if (mask[w] != 0) {
+                    pairs[i++] = w;
+                    pairs[i++] = mask[w];
+                }
+            }
+            result.add(pairs);
+        }
+        return result;
+    }
+
+    private static int[] starts(List<long[]> sparse) {
+        int[] start = new int[sparse.size() + 1];
+        for (int f = 0; f < sparse.size(); f++) {
+            start[f + 1] = start[f] + sparse.get(f).length / 2;
+        }
+        return start;
+    }
+
+    private static int[] wordIndexes(List<long[]> sparse) {
+        int[] result = new int[starts(sparse)[sparse.size()]];
+        int i = 0;
+        for (long[] pairs : sparse) {
+            for (int k = 0; k < pairs.length; k += 2) {
+                result[i++] = (int) pairs[k];
+            }
+        }
+        return result;
+    }
+
+    private static long[] wordBits(List<long[]> sparse) {
+        long[] result = new long[starts(sparse)[sparse.size()]];
+        int i = 0;
+        for (long[] pairs : sparse) {
+            for (int k = 1; k < pairs.length; k += 2) {
+                result[i++] = pairs[k];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package org.digit.ai.gating;
+
+/**
+ * Prerequisites and completion effects of the DIGIT configuration tools.
+ *
+ * Adding a service means declaring its fact and one tool entry here;
+ * the order of tools is the order in which they are offered.
+ */
+public final class DigitToolGraph {
+
+    private static final CompiledToolGraph COMPILED = definition().compile();
+
+    private DigitToolGraph() {
+    }
+
+    /**
+     * The graph compiled once, so every component shares its {@link ToolId}s.
+     */
+    public static CompiledToolGraph compiled() {
+        return COMPILED;
+    }
+
+    public static ToolGraph definition() {
+        ToolGraph graph = new ToolGraph()
+            .fact("account.created", s -> s.getAccount().isCreated())
+            .fact("account.configured", s -> s.getAccount().isConfigured())
+            .fact("idgen.configured", s -> s.isIdGenConfigured())
+            .fact("workflow.configured", s -> s.isWorkflowConfigured())
+            .fact("notification.configured", s -> s.isNotificationConfigured())
+            .fact("boundary.configured", s -> s.isBoundaryConfigured())
+            .fact("registry.configured", s -> s.isRegistrySchemaConfigured())
+            .fact("user.created", s -> s.getUser().isCreated())
+            .fact("role.created", s -> s.getRole().isCreated())
+            .fact("role.assigned", s -> s.isRoleAssignmentDone());
+
+        // HARD GATE 1: Account must exist
+        graph.tool("account.create")
+            .completes("account.created");
+
+        // HARD GATE 2: Account must be configured (auth token)
+        graph.tool("account.configure")
+            .requires("account.created")
+            .completes("account.configured");
+
+        // Independent configuration domains
+        graph.tool("idgen.configure")
+            .requires("account.configured")
+            .completes("idgen.configured");
+        graph.tool("workflow.configure")
+            .requires("account.configured")
+            .completes("workflow.configured");
+        graph.tool("notification.configure")
+            .requires("account.configured")
+            .completes("notification.configured");
+        graph.tool("boundary.configure")
+            .requires("account.configured")
+            .completes("boundary.configured");
+        graph.tool("registry.configure")
+            .requires("account.configured")
+            .completes("registry.configured");
+
+        // User & Role creation (independent)
+        graph.tool("user.create")
+            .requires("account.configured")
+            .completes("user.created");
+        graph.tool("role.create")
+            .requires("account.configured")
+            .completes("role.created");
+
+        // Derived capability: role assignment
+        graph.tool("role.assign")
+            .requires("account.configured", "user.created", "role.created")
+            .completes("role.assigned");
+
+        return graph;
+    }
+}
@@ -0,0 +1,119 @@
+package org.digit.ai.gating;
+
+import org.digit.ai.state.ConfigState;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Declarative tool dependency graph.
+ *
+ * Facts are named observations of {@link ConfigState}. Each tool
+ * declares the facts it requires and the fact it completes; a tool is
+ * allowed when all of its prerequisites hold and its own effect does
+ * not. {@link #compile()} turns the declaration into bitmask tables.
+ */
+public class ToolGraph {
+
+    private final Map<String, Predicate<ConfigState>> facts = new LinkedHashMap<>();
+    private final Map<String, ToolSpec> tools = new LinkedHashMap<>();
+
+    public ToolGraph fact(String name, Predicate<ConfigState> reader) {
+        if (facts.putIfAbsent(name, reader) != null) {
+            throw new IllegalArgumentException("Duplicate fact: " + name);
+        }
+        return this;
+    }
+
+    public ToolSpec tool(String name) {
+        ToolSpec spec = new ToolSpec(name);
+        if (tools.putIfAbsent(name, spec) != null) {
+            throw new IllegalArgumentException("Duplicate tool: " + name);
+        }
+        return spec;
+    }
+
+    public CompiledToolGraph compile() {
+        List<String> factNames = new ArrayList<>(facts.keySet());
+        List<Predicate<ConfigState>> readers = new ArrayList<>(facts.values());
+        List<ToolSpec> specs = new ArrayList<>(tools.values());
+
+        for (ToolSpec spec : specs) {
+            for (String fact : spec.requires) {
+                requireFact(spec, fact);
+            }
+            if (spec.completes == null) {
+                throw new IllegalArgumentException("Tool declares no completion effect: " + spec.name);
+            }
+            requireFact(spec, spec.completes);
+        }
+        checkAcyclic(specs);
+
+        return new CompiledToolGraph(factNames, readers, specs);
+    }
+
+    private void requireFact(ToolSpec spec, String fact) {
+        if (!facts.containsKey(fact)) {
+            throw new IllegalArgumentException(
+                "Tool " + spec.name + " references unknown fact: " + fact
+            );
+        }
+    }
+
+    /**
+     * A tool that (transitively) requires its own effect can never run.
+     */
+    private void checkAcyclic(List<ToolSpec> specs) {
+        Map<String, List<ToolSpec>> producers = new LinkedHashMap<>();
+        for (ToolSpec spec : specs) {
+            producers.computeIfAbsent(spec.completes, f -> new ArrayList<>()).add(spec);
+        }
+
+        Map<ToolSpec, Integer> marks = new LinkedHashMap<>();
+        for (ToolSpec spec : specs) {
+            visit(spec, producers, marks);
+        }
+    }
+
+    private void visit(ToolSpec spec, Map<String, List<ToolSpec>> producers, Map<ToolSpec, Integer> marks) {
+        Integer mark = marks.get(spec);
+        if (mark != null) {
+            if (mark == 1) {
+                throw new IllegalStateException("Cycle in tool graph at: " + spec.name);
+            }
+            return;
+        }
+
+        marks.put(spec, 1);
+        for (String fact : spec.requires) {
+            for (ToolSpec producer : producers.getOrDefault(fact, List.of())) {
+                visit(producer, producers, marks);
+            }
+        }
+        marks.put(spec, 2);
+    }
+
+    public static class ToolSpec {
+
+        final String name;
+        final List<String> requires = new ArrayList<>();
+        String completes;
+
+        private ToolSpec(String name) {
+            this.name = name;
+        }
+
+        public ToolSpec requires(String... facts) {
+            requires.addAll(List.of(facts));
+            return this;
+        }
+
+        public ToolSpec completes(String fact) {
+            this.completes = fact;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.digit.ai.gating;
+
+/**
+ * Interned identifier of a tool declared in a {@link CompiledToolGraph}.
+ *
+ * The graph creates exactly one instance per tool when it is compiled,
+ * numbered densely in declaration order, so ids compare by identity and
+ * their ordinal indexes bitsets and handler arrays directly.
+ */
+public final class ToolId {
+
+    private final CompiledToolGraph graph;
+    private final int ordinal;
+    private final String name;
+
+    ToolId(CompiledToolGraph graph, int ordinal, String name) {
+        this.graph = graph;
+        this.ordinal = ordinal;
+        this.name = name;
+    }
+
+    public CompiledToolGraph graph() {
+        return graph;
+    }
+
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
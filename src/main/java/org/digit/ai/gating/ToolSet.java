@@ -0,0 +1,112 @@
+package org.digit.ai.gating;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Immutable set of tools of one {@link CompiledToolGraph}, as a bitset.
+ *
+ * Membership is a single bit test. The set is also a read-only
+ * {@code List<String>} of tool names in graph order, so it can be
+ * handed to code that still speaks names and serializes as a JSON
+ * array; names are the graph's own strings, nothing is copied.
+ */
+public final class ToolSet extends AbstractList<String> implements RandomAccess {
+
+    private final CompiledToolGraph graph;
+    private final long[] bits;
+    private final ToolId[] members;
+
+    ToolSet(CompiledToolGraph graph, long[] bits) {
+        this.graph = graph;
+        this.bits = bits;
+
+        int size = 0;
+        for (long word : bits) {
+            size += Long.bitCount(word);
+        }
+        this.members = new ToolId[size];
+        int i = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                members[i++] = graph.toolId((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * The tools of {@code graph} named in {@code names}; names the graph
+     * does not declare are dropped.
+     */
+    public static ToolSet of(CompiledToolGraph graph, Collection<String> names) {
+        if (names instanceof ToolSet set && set.graph == graph) {
+            return set;
+        }
+        long[] bits = graph.newToolSet();
+        for (String name : names) {
+            ToolId id = graph.toolId(name);
+            if (id != null) {
+                bits[id.ordinal() >>> 6] |= 1L << id.ordinal();
+            }
+        }
+        return new ToolSet(graph, bits);
+    }
+
+    public CompiledToolGraph graph() {
+        return graph;
+    }
+
+    public boolean contains(ToolId id) {
+        if (id.graph() != graph) {
+            return contains(id.name());
+        }
+        return (bits[id.ordinal() >>> 6] & (1L << id.ordinal())) != 0;
+    }
+
+    @Override
+    public boolean contains(Object name) {
+        if (!(name instanceof String toolName)) {
+            return false;
+        }
+        ToolId id = graph.toolId(toolName);
+        return id != null && contains(id);
+    }
+
+    /**
+     * Word {@code index} of the bitset, tools 64 * index to 64 * index + 63.
+     */
+    public long word(int index) {
+        return bits[index];
+    }
+
+    public ToolId id(int index) {
+        return members[index];
+    }
+
+    @Override
+    public String get(int index) {
+        return members[index].name();
+    }
+
+    @Override
+    public int size() {
+        return members.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof ToolSet set && set.graph == graph) {
+            return Arrays.equals(bits, set.bits);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,121 @@
+package org.digit.ai.idempotency;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted store of results keyed by client idempotency keys.
+ *
+ * The first request for a key runs the action; retries with the same
+ * key get the stored result back without running it again, and
+ * concurrent duplicates share the in-flight future instead of racing.
+ * Actions that fail exceptionally are forgotten so a retry can run
+ * them again. Entries expire after the TTL, and the oldest entries are
+ * dropped once the cache holds more than {@code maxEntries}.
+ */
+public class IdempotencyCache<V> {
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Insertion order equals expiry order because every entry has the same TTL
+    private final ConcurrentLinkedQueue<Entry<V>> order = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    public IdempotencyCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    public IdempotencyCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Run {@code action} once per key.
+     *
+     * @param fingerprint identifies the request payload; reusing a key
+     *                    with a different payload is rejected
+     * @throws IllegalStateException if the key was used for another request
+     */
+    public CompletableFuture<V> execute(
+            String key,
+            String fingerprint,
+            Supplier<CompletableFuture<V>> action
+    ) {
+        long now = nanoClock.getAsLong();
+        Entry<V> fresh = new Entry<>(key, fingerprint, now + ttlNanos);
+
+        Entry<V> winner = entries.compute(key, (k, current) ->
+            current == null || current.isExpired(now) ? fresh : current
+        );
+
+        if (winner != fresh) {
+            if (!Objects.equals(winner.fingerprint, fingerprint)) {
+                throw new IllegalStateException(
+                    "Idempotency-Key was already used for a different request"
+                );
+            }
+            return winner.result;
+        }
+
+        order.add(fresh);
+        evict(now);
+
+        CompletableFuture<V> running;
+        try {
+            running = action.get();
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+
+        running.whenComplete((value, error) -> {
+            if (error != null) {
+                entries.remove(key, fresh);
+                fresh.result.completeExceptionally(error);
+            } else {
+                fresh.result.complete(value);
+            }
+        });
+
+        return fresh.result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Entry<V> oldest;
+        while ((oldest = order.peek()) != null
+                && (oldest.isExpired(now) || entries.size() > maxEntries)) {
+            if (order.remove(oldest)) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final String key;
+        final String fingerprint;
+        final long expiresAtNanos;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long expiresAtNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
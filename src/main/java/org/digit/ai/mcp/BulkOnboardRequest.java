@@ -0,0 +1,13 @@
+package org.digit.ai.mcp;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param arguments optional tool arguments per tenant id, then per tool
+ *                  name, e.g. {"pb.amritsar": {"user.create": {"userName": "asha"}}}
+ */
+public record BulkOnboardRequest(
+        List<String> tenants,
+        Map<String, Map<String, Map<String, Object>>> arguments
+) {}
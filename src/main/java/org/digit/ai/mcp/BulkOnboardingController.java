@@ -0,0 +1,70 @@
+package org.digit.ai.mcp;
+
+import org.digit.ai.onboarding.BulkOnboardingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/mcp/bulk")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BulkOnboardingController {
+
+    private final BulkOnboardingService onboardingService;
+    private final Duration streamTimeout;
+
+    public BulkOnboardingController(
+            BulkOnboardingService onboardingService,
+            @Value("${digit.bulk.stream-timeout:30m}") Duration streamTimeout
+    ) {
+        this.onboardingService = onboardingService;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Onboard a wave of tenants, streaming a "tenant" event each time a
+     * tenant starts or finishes and a final "summary" event.
+     * Each tenant's session can afterwards be used with X-Session-Id =
+     * {@value BulkOnboardingService#SESSION_PREFIX} + tenant id.
+     */
+    @PostMapping(value = "/onboard", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter onboard(@RequestBody BulkOnboardRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+
+        if (request.tenants() == null || request.tenants().isEmpty()) {
+            emitter.completeWithError(new IllegalArgumentException("No tenants given"));
+            return emitter;
+        }
+
+        onboardingService
+            .onboard(
+                request.tenants(),
+                request.arguments() != null ? request.arguments() : Map.of(),
+                progress -> send(emitter, "tenant", progress)
+            )
+            .whenComplete((summary, error) -> {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                    return;
+                }
+                send(emitter, "summary", summary);
+                emitter.complete();
+            });
+
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // client went away; onboarding carries on
+        }
+    }
+}
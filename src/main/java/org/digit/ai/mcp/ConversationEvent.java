@@ -0,0 +1,35 @@
+package org.digit.ai.mcp;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Frame pushed on the /mcp/ws conversation channel.
+ *
+ * type "reply" answers a message (pendingAction set while a YES/NO is
+ * awaited), "allowed-tools" reports a change of the session's allowed
+ * tools, "overloaded" asks the client to retry after a delay.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ConversationEvent(
+        String type,
+        Boolean success,
+        String message,
+        String pendingAction,
+        List<String> tools,
+        Long retryAfterSeconds
+) {
+
+    public static ConversationEvent reply(ToolExecuteResponse response, String pendingAction) {
+        return new ConversationEvent("reply", response.success(), response.message(), pendingAction, null, null);
+    }
+
+    public static ConversationEvent allowedTools(List<String> tools) {
+        return new ConversationEvent("allowed-tools", null, null, null, tools, null);
+    }
+
+    public static ConversationEvent overloaded(String message, long retryAfterSeconds) {
+        return new ConversationEvent("overloaded", false, message, null, null, retryAfterSeconds);
+    }
+}
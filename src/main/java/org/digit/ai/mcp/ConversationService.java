@@ -0,0 +1,328 @@
+package org.digit.ai.mcp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.digit.ai.admission.OverloadedException;
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.ai.ConfirmationDetector;
+import org.digit.ai.ai.InferenceContext;
+import org.digit.ai.audit.AuditLog;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.ratelimit.LlmRateLimiter;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.usage.LlmUsageTracker;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The /mcp/ai conversation: YES/NO confirmation of the pending action,
+ * intent decisions and tool execution, shared by the servlet and the
+ * reactive controller so both have the same semantics.
+ *
+ * Only how an LLM-backed decision is obtained differs between the two
+ * stacks, so callers pass it in as an {@link LlmDecider}; confirmations
+ * and local-only decisions never reach it.
+ */
+public class ConversationService {
+
+    /**
+     * Obtains an LLM-backed decision, e.g. through admission control.
+     */
+    @FunctionalInterface
+    public interface LlmDecider {
+        CompletableFuture<AiDecision> decide(String message, List<String> allowedTools, InferenceContext context);
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ConversationOrchestrator orchestrator;
+    private final AiToolSelector aiToolSelector;
+    private final SessionStore sessionStore;
+    private final IdempotencyCache<ToolExecuteResponse> idempotencyCache;
+    private final LlmRateLimiter rateLimiter;
+    private final LlmUsageTracker usageTracker;
+    private final int historyTokenBudget;
+    private final AuditLog auditLog;
+    private final ConfirmationDetector confirmations;
+
+    /**
+     * @param rateLimiter may be null (no rate limits)
+     * @param auditLog may be null (no audit trail)
+     */
+    public ConversationService(
+            ConversationOrchestrator orchestrator,
+            AiToolSelector aiToolSelector,
+            SessionStore sessionStore,
+            IdempotencyCache<ToolExecuteResponse> idempotencyCache,
+            LlmRateLimiter rateLimiter,
+            LlmUsageTracker usageTracker,
+            int historyTokenBudget,
+            AuditLog auditLog
+    ) {
+        this(
+                orchestrator,
+                aiToolSelector,
+                sessionStore,
+                idempotencyCache,
+                rateLimiter,
+                usageTracker,
+                historyTokenBudget,
+                auditLog,
+                ConfirmationDetector.defaults()
+        );
+    }
+
+    /**
+     * @param confirmations recognizes YES/NO replies to a pending action without the LLM
+     */
+    public ConversationService(
+            ConversationOrchestrator orchestrator,
+            AiToolSelector aiToolSelector,
+            SessionStore sessionStore,
+            IdempotencyCache<ToolExecuteResponse> idempotencyCache,
+            LlmRateLimiter rateLimiter,
+            LlmUsageTracker usageTracker,
+            int historyTokenBudget,
+            AuditLog auditLog,
+            ConfirmationDetector confirmations
+    ) {
+        this.orchestrator = orchestrator;
+        this.aiToolSelector = aiToolSelector;
+        this.sessionStore = sessionStore;
+        this.idempotencyCache = idempotencyCache;
+        this.rateLimiter = rateLimiter;
+        this.usageTracker = usageTracker;
+        this.historyTokenBudget = historyTokenBudget;
+        this.auditLog = auditLog;
+        this.confirmations = confirmations;
+    }
+
+    public List<String> allowedTools(String sessionId) {
+        return orchestrator.getAllowedTools(sessionStore.getSession(sessionId).getState());
+    }
+
+    /**
+     * The /mcp/allowed-tools body for the session, resolved and
+     * serialized once per state version. The ETag covers the version and
+     * the content, so it cannot match another session's list.
+     */
+    public ConversationSession.CachedView allowedToolsView(String sessionId) {
+        ConversationSession session = sessionStore.getSession(sessionId);
+        ConfigState state = session.getState();
+
+        // one immutable snapshot, so the body always matches its version
+        long version = state.getVersion();
+        ConversationSession.CachedView view = session.getAllowedToolsView();
+        if (view != null && view.version() == version) {
+            return view;
+        }
+
+        byte[] json;
+        try {
+            json = JSON.writeValueAsBytes(new AllowedToolsResponse(orchestrator.getAllowedTools(state)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        view = new ConversationSession.CachedView(
+                version,
+                "\"" + version + "-" + Integer.toHexString(Arrays.hashCode(json)) + "\"",
+                json
+        );
+        session.setAllowedToolsView(view);
+        return view;
+    }
+
+    /**
+     * Action awaiting YES/NO, or null.
+     */
+    public String pendingAction(String sessionId) {
+        return sessionStore.getSession(sessionId).getPendingAction();
+    }
+
+    /**
+     * Answer a message. A shed LLM request fails the future with
+     * {@link OverloadedException}; every other failure is reported in
+     * the response.
+     *
+     * @param idempotencyKey may be null; retries with the same key replay the stored response
+     * @param tenantKey API key or tenant id for rate limits; may be null
+     */
+    public CompletableFuture<ToolExecuteResponse> message(
+            String sessionId,
+            String idempotencyKey,
+            String tenantKey,
+            AiRequest request,
+            LlmDecider llm
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return handle(sessionId, tenantKey, request, llm);
+        }
+
+        // Retried requests replay the stored response instead of re-running tools
+        try {
+            return idempotencyCache.execute(
+                    sessionId + ":" + idempotencyKey,
+                    request.message(),
+                    () -> handle(sessionId, tenantKey, request, llm)
+            );
+        } catch (IllegalStateException e) {
+            return CompletableFuture.completedFuture(
+                    new ToolExecuteResponse(false, e.getMessage())
+            );
+        }
+    }
+
+    /**
+     * Answer the message and remember the exchange in the session history.
+     */
+    private CompletableFuture<ToolExecuteResponse> handle(
+            String sessionId,
+            String tenantKey,
+            AiRequest request,
+            LlmDecider llm
+    ) {
+        ConversationSession session = sessionStore.getSession(sessionId);
+        return answer(session, sessionId, tenantKey, request, llm).thenApply(response -> {
+            session.getHistory().add(request.message(), response.message());
+            return response;
+        });
+    }
+
+    private CompletableFuture<ToolExecuteResponse> answer(
+            ConversationSession session,
+            String sessionId,
+            String tenantKey,
+            AiRequest request,
+            LlmDecider llm
+    ) {
+        try {
+            // "sure", "go ahead", "haan ji" etc. answer the pending action locally
+            ConfirmationDetector.Answer answer = session.getPendingAction() != null
+                    ? confirmations.detect(request.message())
+                    : ConfirmationDetector.Answer.NONE;
+
+            // Taken atomically, so two concurrent replies never both act on it
+            ConversationSession.PendingAction pending = answer != ConfirmationDetector.Answer.NONE
+                    ? session.takePendingAction()
+                    : null;
+
+            // YES handling
+            if (answer == ConfirmationDetector.Answer.AFFIRMATIVE && pending != null) {
+                audit("confirm", sessionId, session, pending.tool(), "YES");
+
+                return execute(pending.tool(), pending.arguments(), session);
+            }
+
+            // NO handling
+            if (answer == ConfirmationDetector.Answer.NEGATIVE && pending != null) {
+                audit("confirm", sessionId, session, pending.tool(), "NO");
+                return CompletableFuture.completedFuture(
+                        new ToolExecuteResponse(true, "Okay, let me know what you'd like to do next.")
+                );
+            }
+
+            // Get AI decision
+            var allowedTools = orchestrator.getAllowedTools(session.getState());
+            InferenceContext context = inferenceContext(sessionId, tenantKey, session);
+
+            // Local inference is cheap; only LLM calls go through admission
+            if (!context.llmAllowed()) {
+                return respond(aiToolSelector.decide(request.message(), allowedTools, context), sessionId, session);
+            }
+
+            return llm.decide(request.message(), allowedTools, context)
+                    .thenCompose(decision -> respond(decision, sessionId, session))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof OverloadedException overloaded) {
+                            throw overloaded;
+                        }
+                        return new ToolExecuteResponse(false, cause.getMessage());
+                    });
+
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(
+                    new ToolExecuteResponse(false, e.getMessage())
+            );
+        }
+    }
+
+    private CompletableFuture<ToolExecuteResponse> respond(
+            AiDecision decision,
+            String sessionId,
+            ConversationSession session
+    ) {
+        audit(
+                "decision",
+                sessionId,
+                session,
+                decision.tool() != null ? decision.tool() : decision.proposedAction(),
+                decision.type().name()
+        );
+
+        if (decision.type() == AiDecision.DecisionType.EXPLAIN) {
+            // Store proposed action if present
+            if (decision.proposedAction() != null) {
+                session.setPendingAction(decision.proposedAction(), decision.arguments());
+            }
+            return CompletableFuture.completedFuture(
+                    new ToolExecuteResponse(false, decision.message())
+            );
+        }
+
+        return execute(decision.tool(), decision.arguments(), session);
+    }
+
+    private void audit(String type, String sessionId, ConversationSession session, String tool, String outcome) {
+        if (auditLog != null) {
+            auditLog.publish(type, sessionId, session.getState().getAccount().getTenantId(), tool, outcome, null);
+        }
+    }
+
+    /**
+     * Over-limit or over-budget callers are not rejected; they fall back
+     * to the local intent classifier instead of a paid LLM call.
+     */
+    private InferenceContext inferenceContext(String sessionId, String tenantKey, ConversationSession session) {
+        String tenant = tenantKey != null ? tenantKey : session.getState().getAccount().getTenantId();
+        boolean llmAllowed = !usageTracker.isOverBudget(sessionId)
+                && (rateLimiter == null || rateLimiter.tryAcquire(sessionId, tenant));
+        return new InferenceContext(
+                sessionId,
+                tenant,
+                llmAllowed,
+                session.getHistory().recent(historyTokenBudget)
+        );
+    }
+
+    /**
+     * Run the tool without holding the caller's thread while it talks
+     * to DIGIT.
+     */
+    private CompletableFuture<ToolExecuteResponse> execute(
+            String tool,
+            Map<String, Object> arguments,
+            ConversationSession session
+    ) {
+        return orchestrator.executeAsync(tool, session, arguments)
+                .thenApply(ConversationService::toResponse)
+                .exceptionally(e -> new ToolExecuteResponse(
+                        false,
+                        (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage()
+                ));
+    }
+
+    private static ToolExecuteResponse toResponse(ToolResult result) {
+        return new ToolExecuteResponse(result.isSuccess(), result.message());
+    }
+}
@@ -0,0 +1,278 @@
+package org.digit.ai.mcp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.Session;
+import org.digit.ai.admission.LlmAdmission;
+import org.digit.ai.admission.OverloadedException;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.session.StateWatchers;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * /mcp/ws: one WebSocket per conversation.
+ *
+ * The conversation session is bound once, at the handshake, from the
+ * sessionId query parameter (or X-Session-Id header). Text frames are
+ * messages, including YES/NO confirmations, either as an AiRequest JSON
+ * object or as plain text; they go through the same
+ * {@link ConversationService} as POST /mcp/ai. Each answer is pushed as
+ * a "reply" frame, followed by an "allowed-tools" frame whenever the
+ * session's allowed tools differ from the ones last sent.
+ *
+ * Each connection also watches its session through {@link StateWatchers},
+ * so state changed elsewhere (REST, /mcp/plan, bulk onboarding, another
+ * socket) is pushed as an "allowed-tools" frame too.
+ *
+ * Frames of one connection are answered in order: each waits for the
+ * previous one's reply, so a quick "no" cannot overtake the "yes" it
+ * follows. Pushes queue behind the replies the same way, so a reply is
+ * never preceded by the tools its own action unlocked. Idle connections
+ * hold no thread, only the container's socket, a registered watch and
+ * the small {@link Connection} record here.
+ */
+public class ConversationSocketHandler extends TextWebSocketHandler {
+
+    private final ConversationService conversationService;
+    private final SessionStore sessionStore;
+    private final StateWatchers stateWatchers;
+    private final AiToolSelector aiToolSelector;
+    private final LlmAdmission llmAdmission;
+    private final ObjectMapper objectMapper;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferLimitBytes;
+    private final int maxMessageBytes;
+    private final Duration idleTimeout;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Per-connection state; sends are serialized by the decorator, so
+     * replies from tool threads cannot interleave.
+     */
+    private static final class Connection {
+
+        private final WebSocketSession socket;
+        private final String sessionId;
+        private final String tenantKey;
+        private volatile List<String> lastTools;
+        private volatile CompletableFuture<Long> watch;
+
+        // completes once the last queued frame or push has settled; guarded by this
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+        private Connection(WebSocketSession socket, String sessionId, String tenantKey) {
+            this.socket = socket;
+            this.sessionId = sessionId;
+            this.tenantKey = tenantKey;
+        }
+    }
+
+    public ConversationSocketHandler(
+            ConversationService conversationService,
+            SessionStore sessionStore,
+            StateWatchers stateWatchers,
+            AiToolSelector aiToolSelector,
+            LlmAdmission llmAdmission,
+            ObjectMapper objectMapper,
+            int sendTimeLimitMillis,
+            int sendBufferLimitBytes,
+            int maxMessageBytes,
+            Duration idleTimeout
+    ) {
+        this.conversationService = conversationService;
+        this.sessionStore = sessionStore;
+        this.stateWatchers = stateWatchers;
+        this.aiToolSelector = aiToolSelector;
+        this.llmAdmission = llmAdmission;
+        this.objectMapper = objectMapper;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferLimitBytes = sendBufferLimitBytes;
+        this.maxMessageBytes = maxMessageBytes;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int connections() {
+        return connections.size();
+    }
+
+    /**
+     * Frames are short chat messages, so small per-connection buffers let
+     * a node hold many idle connections; idle ones are closed eventually.
+     */
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        session.setBinaryMessageSizeLimit(1024);
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session socket = nativeSession.getNativeSession(Session.class);
+            if (socket != null) {
+                socket.setMaxIdleTimeout(idleTimeout.toMillis());
+            }
+        }
+
+        String sessionId = UriComponentsBuilder.fromUri(session.getUri()).build()
+            .getQueryParams().getFirst("sessionId");
+        if (sessionId == null) {
+            sessionId = session.getHandshakeHeaders().getFirst("X-Session-Id");
+        }
+        String tenantKey = TenantKeys.of(
+            session.getHandshakeHeaders().getFirst("X-Api-Key"),
+            session.getHandshakeHeaders().getFirst("X-Tenant-Id")
+        );
+
+        Connection connection = new Connection(
+            new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferLimitBytes),
+            sessionId != null ? sessionId : "default",
+            tenantKey
+        );
+        connections.put(session.getId(), connection);
+        long version = sessionStore.getSession(connection.sessionId).getState().getVersion();
+        pushAllowedToolsIfChanged(connection);
+        watch(connection, version);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage frame) throws Exception {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+
+        String payload = frame.getPayload();
+        enqueue(connection, () -> answer(connection, payload));
+    }
+
+    /**
+     * Runs {@code step} once everything queued before it on the connection has settled.
+     */
+    private static void enqueue(Connection connection, Supplier<CompletableFuture<?>> step) {
+        // the new tail is in place before the step runs, so whatever it queues goes after it
+        CompletableFuture<Void> settled = new CompletableFuture<>();
+        CompletableFuture<?> previous;
+        synchronized (connection) {
+            previous = connection.tail;
+            connection.tail = settled;
+        }
+        previous
+            .handle((done, error) -> null)
+            .thenCompose(ignored -> step.get())
+            .whenComplete((done, error) -> settled.complete(null));
+    }
+
+    /**
+     * Push the allowed tools after each state change past {@code since},
+     * until the connection closes.
+     */
+    private void watch(Connection connection, long since) {
+        CompletableFuture<Long> change = stateWatchers.awaitChange(sessionStore.getSession(connection.sessionId), since);
+        connection.watch = change;
+        // closed while registering; afterConnectionClosed may have missed this watch
+        if (!connections.containsKey(connection.socket.getId())) {
+            change.cancel(false);
+            return;
+        }
+        change.thenAccept(version -> {
+            if (connections.containsKey(connection.socket.getId())) {
+                enqueue(connection, () -> {
+                    pushAllowedToolsIfChanged(connection);
+                    return CompletableFuture.completedFuture(null);
+                });
+                watch(connection, version);
+            }
+        });
+    }
+
+    private CompletableFuture<?> answer(Connection connection, String payload) {
+        AiRequest request;
+        try {
+            request = payload.stripLeading().startsWith("{")
+                ? objectMapper.readValue(payload, AiRequest.class)
+                : new AiRequest(payload);
+        } catch (JsonProcessingException e) {
+            send(connection, ConversationEvent.reply(new ToolExecuteResponse(false, "Invalid message frame"), null));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (request.message() == null) {
+            send(connection, ConversationEvent.reply(new ToolExecuteResponse(false, "Missing message"), null));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return conversationService.message(
+            connection.sessionId,
+            null,
+            connection.tenantKey,
+            request,
+            (message, allowedTools, context) ->
+                llmAdmission.submit(() -> aiToolSelector.decide(message, allowedTools, context))
+        ).whenComplete((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+                if (cause instanceof OverloadedException overloaded) {
+                    send(connection, ConversationEvent.overloaded(
+                        overloaded.getMessage(), Math.max(1, overloaded.retryAfter().toSeconds())
+                    ));
+                } else {
+                    send(connection, ConversationEvent.reply(new ToolExecuteResponse(false, cause.getMessage()), null));
+                }
+                return;
+            }
+            send(connection, ConversationEvent.reply(response, conversationService.pendingAction(connection.sessionId)));
+            pushAllowedToolsIfChanged(connection);
+        });
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        close(connections.remove(session.getId()));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        close(connections.remove(session.getId()));
+    }
+
+    /**
+     * Cancelling the watch unregisters it from {@link StateWatchers}.
+     */
+    private static void close(Connection connection) {
+        if (connection != null && connection.watch != null) {
+            connection.watch.cancel(false);
+        }
+    }
+
+    private void pushAllowedToolsIfChanged(Connection connection) {
+        synchronized (connection) {
+            List<String> tools = conversationService.allowedTools(connection.sessionId);
+            if (!tools.equals(connection.lastTools)) {
+                connection.lastTools = tools;
+                send(connection, ConversationEvent.allowedTools(tools));
+            }
+        }
+    }
+
+    private void send(Connection connection, ConversationEvent event) {
+        try {
+            connection.socket.sendMessage(new TextMessage(objectMapper.writeValueAsBytes(event)));
+        } catch (IOException | IllegalStateException e) {
+            // slow or closed client; the decorator closes it on overflow
+        }
+    }
+}
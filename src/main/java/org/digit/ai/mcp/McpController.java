@@ -1,89 +1,118 @@
 package org.digit.ai.mcp;
 
+import org.digit.ai.admission.LlmAdmission;
+import org.digit.ai.admission.OverloadedException;
 import org.digit.ai.ai.AiToolSelector;
-import org.digit.ai.ai.AiDecision;
 import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.PlanReport;
 import org.digit.ai.session.ConversationSession;
 import org.digit.ai.session.SessionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servlet MCP API; see ReactiveMcpController for the WebFlux variant.
+ */
 @RestController
 @RequestMapping("/mcp")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class McpController {
 
+    private final ConversationService conversationService;
     private final ConversationOrchestrator orchestrator;
     private final AiToolSelector aiToolSelector;
-    private final SessionStore sessionStore = new SessionStore();
+    private final SessionStore sessionStore;
+    private final int planParallelism;
+    private final LlmAdmission llmAdmission;
 
     public McpController(
+            ConversationService conversationService,
             ConversationOrchestrator orchestrator,
-            AiToolSelector aiToolSelector
+            AiToolSelector aiToolSelector,
+            SessionStore sessionStore,
+            @Value("${digit.plan.parallelism:4}") int planParallelism,
+            LlmAdmission llmAdmission
     ) {
+        this.conversationService = conversationService;
         this.orchestrator = orchestrator;
         this.aiToolSelector = aiToolSelector;
+        this.sessionStore = sessionStore;
+        this.planParallelism = planParallelism;
+        this.llmAdmission = llmAdmission;
     }
 
+    /**
+     * Polled constantly by the UI, so the body is pre-serialized per
+     * state version and carries an ETag; Spring answers a matching
+     * If-None-Match with 304 and no body.
+     */
     @GetMapping("/allowed-tools")
-    public AllowedToolsResponse allowedTools(
+    public ResponseEntity<byte[]> allowedTools(
             @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId
     ) {
-        ConversationSession session = sessionStore.getSession(sessionId);
-        return new AllowedToolsResponse(
-                orchestrator.getAllowedTools(session.getState())
-        );
+        ConversationSession.CachedView view = conversationService.allowedToolsView(sessionId);
+        return ResponseEntity.ok()
+                .eTag(view.eTag())
+                .varyBy("X-Session-Id")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view.json());
     }
 
+    /**
+     * LLM decisions run on the bounded admission pool, so they never
+     * hold the request threads that serve confirmations; the response
+     * completes when the future does.
+     */
     @PostMapping("/ai")
-    public ToolExecuteResponse aiExecute(
+    public CompletableFuture<ToolExecuteResponse> aiExecute(
             @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Api-Key", required = false) String apiKey,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
             @RequestBody AiRequest request
     ) {
-        try {
-            ConversationSession session = sessionStore.getSession(sessionId);
-            String message = request.message().toLowerCase().trim();
-
-            // YES handling
-            if (message.equals("yes") && session.getPendingAction() != null) {
-                String action = session.getPendingAction();
-                session.clearPendingAction();
-
-                orchestrator.execute(action, session.getState());
-
-                return new ToolExecuteResponse(true, "Executed: " + action);
-            }
-
-            // NO handling
-            if (message.equals("no") && session.getPendingAction() != null) {
-                session.clearPendingAction();
-                return new ToolExecuteResponse(true, "Okay, let me know what you'd like to do next.");
-            }
-
-            // Get AI decision
-            var allowedTools = orchestrator.getAllowedTools(session.getState());
-
-            AiDecision decision =
-                    aiToolSelector.decide(
-                            request.message(),
-                            allowedTools
-                    );
-
-            if (decision.type() == AiDecision.DecisionType.EXPLAIN) {
-                // Store proposed action if present
-                if (decision.proposedAction() != null) {
-                    session.setPendingAction(decision.proposedAction());
-                }
-                return new ToolExecuteResponse(false, decision.message());
-            }
+        return conversationService.message(
+                sessionId,
+                idempotencyKey,
+                TenantKeys.of(apiKey, tenantId),
+                request,
+                (message, allowedTools, context) ->
+                        llmAdmission.submit(() -> aiToolSelector.decide(message, allowedTools, context))
+        );
+    }
 
-            orchestrator.execute(decision.tool(), session.getState());
+    /**
+     * Shed LLM requests fail fast so clients back off instead of queueing.
+     */
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ToolExecuteResponse> overloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.retryAfter().toSeconds())))
+                .body(new ToolExecuteResponse(false, e.getMessage()));
+    }
 
-            return new ToolExecuteResponse(
-                    true,
-                    "Executed: " + decision.tool()
-            );
+    /**
+     * Configure everything that is still open for the session in one
+     * call, running independent tools concurrently. The optional body
+     * maps tool names to their arguments, e.g.
+     * {"user.create": {"userName": "asha"}}.
+     */
+    @PostMapping("/plan")
+    public CompletableFuture<PlanReport> executePlan(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId,
+            @RequestBody(required = false) Map<String, Map<String, Object>> arguments
+    ) {
+        ConversationSession session = sessionStore.getSession(sessionId);
+        session.clearPendingAction();
 
-        } catch (Exception e) {
-            return new ToolExecuteResponse(false, e.getMessage());
-        }
+        return orchestrator.executePlan(session, planParallelism, arguments != null ? arguments : Map.of());
     }
 }
@@ -0,0 +1,114 @@
+package org.digit.ai.mcp;
+
+import org.digit.ai.admission.OverloadedException;
+import org.digit.ai.admission.ReactiveLlmAdmission;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.PlanReport;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * WebFlux variant of the MCP API, active with
+ * spring.main.web-application-type=reactive (Netty).
+ *
+ * Conversation semantics come from the same {@link ConversationService}
+ * as the servlet controller; LLM decisions are made with
+ * {@link AiToolSelector#decideReactive} through
+ * {@link ReactiveLlmAdmission}, so no thread waits on OpenAI or DIGIT.
+ */
+@RestController
+@RequestMapping("/mcp")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMcpController {
+
+    private final ConversationService conversationService;
+    private final ConversationOrchestrator orchestrator;
+    private final AiToolSelector aiToolSelector;
+    private final SessionStore sessionStore;
+    private final int planParallelism;
+    private final ReactiveLlmAdmission llmAdmission;
+
+    public ReactiveMcpController(
+            ConversationService conversationService,
+            ConversationOrchestrator orchestrator,
+            AiToolSelector aiToolSelector,
+            SessionStore sessionStore,
+            @Value("${digit.plan.parallelism:4}") int planParallelism,
+            ReactiveLlmAdmission llmAdmission
+    ) {
+        this.conversationService = conversationService;
+        this.orchestrator = orchestrator;
+        this.aiToolSelector = aiToolSelector;
+        this.sessionStore = sessionStore;
+        this.planParallelism = planParallelism;
+        this.llmAdmission = llmAdmission;
+    }
+
+    /**
+     * Sessions live in memory, so the lookup does not block. Same
+     * per-version body and ETag as the servlet API, with 304 on a
+     * matching If-None-Match.
+     */
+    @GetMapping("/allowed-tools")
+    public Mono<ResponseEntity<byte[]>> allowedTools(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId
+    ) {
+        return Mono.fromSupplier(() -> {
+            ConversationSession.CachedView view = conversationService.allowedToolsView(sessionId);
+            return ResponseEntity.ok()
+                    .eTag(view.eTag())
+                    .varyBy("X-Session-Id")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(view.json());
+        });
+    }
+
+    @PostMapping("/ai")
+    public Mono<ToolExecuteResponse> aiExecute(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Api-Key", required = false) String apiKey,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
+            @RequestBody AiRequest request
+    ) {
+        return Mono.fromFuture(() -> conversationService.message(
+                sessionId,
+                idempotencyKey,
+                TenantKeys.of(apiKey, tenantId),
+                request,
+                (message, allowedTools, context) -> llmAdmission
+                        .submit(() -> aiToolSelector.decideReactive(message, allowedTools, context))
+                        .toFuture()
+        ));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ToolExecuteResponse> overloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.retryAfter().toSeconds())))
+                .body(new ToolExecuteResponse(false, e.getMessage()));
+    }
+
+    @PostMapping("/plan")
+    public Mono<PlanReport> executePlan(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId,
+            @RequestBody(required = false) Map<String, Map<String, Object>> arguments
+    ) {
+        return Mono.fromFuture(() -> {
+            ConversationSession session = sessionStore.getSession(sessionId);
+            session.clearPendingAction();
+            return orchestrator.executePlan(session, planParallelism, arguments != null ? arguments : Map.of());
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package org.digit.ai.mcp;
+
+import java.util.List;
+
+/**
+ * Answer to a watch on /mcp/state/changes; pass {@code version} as the
+ * next {@code since}.
+ */
+public record StateChangeResponse(
+        long version,
+        List<String> tools
+) {}
@@ -0,0 +1,69 @@
+package org.digit.ai.mcp;
+
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.session.StateWatchers;
+import org.digit.ai.state.ConfigState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-poll for session state changes, on either web stack.
+ *
+ * A watch answers as soon as the session's state version is past the
+ * client's {@code since} cursor, or with 304 once the timeout passes so
+ * the client asks again. Waiting watches are futures in
+ * {@link StateWatchers}, completed by the orchestrator after a tool
+ * changes the state; none of them holds a thread.
+ */
+@RestController
+@RequestMapping("/mcp")
+public class StateWatchController {
+
+    private static final long NO_CHANGE = Long.MIN_VALUE;
+
+    private final SessionStore sessionStore;
+    private final ConversationOrchestrator orchestrator;
+    private final StateWatchers watchers;
+    private final Duration timeout;
+
+    public StateWatchController(
+            SessionStore sessionStore,
+            ConversationOrchestrator orchestrator,
+            StateWatchers watchers,
+            @Value("${digit.watch.timeout:25s}") Duration timeout
+    ) {
+        this.sessionStore = sessionStore;
+        this.orchestrator = orchestrator;
+        this.watchers = watchers;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param since last version seen; the default -1 answers at once with the current state
+     */
+    @GetMapping("/state/changes")
+    public CompletableFuture<ResponseEntity<StateChangeResponse>> changes(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId,
+            @RequestParam(defaultValue = "-1") long since
+    ) {
+        ConversationSession session = sessionStore.getSession(sessionId);
+
+        return watchers.awaitChange(session, since)
+                .completeOnTimeout(NO_CHANGE, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(version -> {
+                    if (version == NO_CHANGE) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+                    }
+                    ConfigState state = session.getState();
+                    return ResponseEntity.ok(new StateChangeResponse(state.getVersion(), orchestrator.getAllowedTools(state)));
+                });
+    }
+}
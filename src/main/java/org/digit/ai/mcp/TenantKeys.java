@@ -0,0 +1,38 @@
+package org.digit.ai.mcp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Key under which a caller's rate limits and LLM usage are kept.
+ *
+ * Usage per key is readable through /mcp/usage/tenants, so a raw API
+ * key must never become one: it is replaced by a truncated SHA-256
+ * digest, stable across restarts so the same client keeps its key.
+ */
+final class TenantKeys {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private TenantKeys() {
+    }
+
+    /**
+     * @return "key-" plus a digest of the API key if one is given,
+     *         else the tenant id, which may be null
+     */
+    static String of(String apiKey, String tenantId) {
+        if (apiKey == null) {
+            return tenantId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return "key-" + HEX.formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.digit.ai.mcp;
+
+import org.digit.ai.usage.LlmUsageTracker;
+import org.digit.ai.usage.UsageSnapshot;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * LLM token and latency accounting, per session, per tenant and overall.
+ */
+@RestController
+@RequestMapping("/mcp/usage")
+public class UsageController {
+
+    private final LlmUsageTracker usageTracker;
+
+    public UsageController(LlmUsageTracker usageTracker) {
+        this.usageTracker = usageTracker;
+    }
+
+    @GetMapping
+    public UsageSnapshot total() {
+        return usageTracker.total();
+    }
+
+    @GetMapping("/session")
+    public UsageSnapshot session(
+            @RequestHeader(value = "X-Session-Id", defaultValue = "default") String sessionId
+    ) {
+        return usageTracker.session(sessionId);
+    }
+
+    @GetMapping("/tenants")
+    public Map<String, UsageSnapshot> tenants() {
+        return usageTracker.tenants();
+    }
+
+    @GetMapping("/tenants/{tenantId}")
+    public UsageSnapshot tenant(@PathVariable String tenantId) {
+        return usageTracker.tenant(tenantId);
+    }
+}
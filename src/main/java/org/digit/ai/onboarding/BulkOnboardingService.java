@@ -0,0 +1,123 @@
+package org.digit.ai.onboarding;
+
+import org.digit.ai.orchestrator.BoundedParallel;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Onboards many tenants (ULBs) without the chat confirmation loop.
+ *
+ * Each tenant gets its own session, keyed by tenant id under the
+ * {@value #SESSION_PREFIX} prefix so it never collides with a chat
+ * session of the same id, and runs the full gated sequence through
+ * {@link ConversationOrchestrator#executePlan} with that tenant's tool
+ * arguments. Runs are resumable: a tenant whose plan failed partway
+ * only runs its remaining tools next time, and a tenant with nothing
+ * left to configure is reported as already onboarded. At most
+ * {@code tenantParallelism} tenants run at once. A failing tenant is
+ * reported and the run moves on; it never blocks the others.
+ */
+public class BulkOnboardingService {
+
+    public static final String SESSION_PREFIX = "bulk:";
+
+    private final ConversationOrchestrator orchestrator;
+    private final SessionStore sessionStore;
+    private final int tenantParallelism;
+    private final int planParallelism;
+
+    public BulkOnboardingService(
+            ConversationOrchestrator orchestrator,
+            SessionStore sessionStore,
+            int tenantParallelism,
+            int planParallelism
+    ) {
+        this.orchestrator = orchestrator;
+        this.sessionStore = sessionStore;
+        this.tenantParallelism = tenantParallelism;
+        this.planParallelism = planParallelism;
+    }
+
+    /**
+     * @param arguments tool arguments per tenant id, then per tool name;
+     *                  tenants without an entry run without arguments
+     */
+    public CompletableFuture<BulkOnboardingSummary> onboard(
+            List<String> tenantIds,
+            Map<String, Map<String, Map<String, Object>>> arguments,
+            Consumer<TenantProgress> progress
+    ) {
+        long start = System.nanoTime();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger alreadyOnboarded = new AtomicInteger();
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+
+        List<String> tenants = tenantIds.stream().distinct().toList();
+
+        return BoundedParallel
+            .run(tenants, tenantParallelism, tenantId ->
+                onboardTenant(tenantId, arguments.getOrDefault(tenantId, Map.of()), progress).thenAccept(result -> {
+                    switch (result.status()) {
+                        case COMPLETED -> completed.incrementAndGet();
+                        case ALREADY_ONBOARDED -> alreadyOnboarded.incrementAndGet();
+                        default -> failed.add(tenantId);
+                    }
+                })
+            )
+            .thenApply(v -> new BulkOnboardingSummary(
+                tenants.size(),
+                completed.get(),
+                alreadyOnboarded.get(),
+                List.copyOf(failed),
+                (System.nanoTime() - start) / 1_000_000
+            ));
+    }
+
+    private CompletableFuture<TenantProgress> onboardTenant(
+            String tenantId,
+            Map<String, Map<String, Object>> arguments,
+            Consumer<TenantProgress> progress
+    ) {
+        notify(progress, TenantProgress.started(tenantId));
+
+        CompletableFuture<TenantProgress> result;
+        try {
+            ConversationSession session = sessionStore.getSession(SESSION_PREFIX + tenantId);
+            session.clearPendingAction();
+            session.updateState(state -> state.withAccount(state.getAccount().withTenantId(tenantId)));
+
+            if (orchestrator.getAllowedTools(session.getState()).isEmpty()) {
+                result = CompletableFuture.completedFuture(TenantProgress.alreadyOnboarded(tenantId));
+            } else {
+                result = orchestrator
+                    .executePlan(session, planParallelism, arguments)
+                    .thenApply(report -> TenantProgress.finished(tenantId, report))
+                    .exceptionally(e -> TenantProgress.failed(tenantId, e.getMessage()));
+            }
+        } catch (RuntimeException e) {
+            result = CompletableFuture.completedFuture(TenantProgress.failed(tenantId, e.getMessage()));
+        }
+
+        return result.whenComplete((event, e) -> notify(progress, event));
+    }
+
+    /**
+     * A listener that fails (e.g. the client disconnected) must not stop onboarding.
+     */
+    private static void notify(Consumer<TenantProgress> progress, TenantProgress event) {
+        try {
+            progress.accept(event);
+        } catch (RuntimeException ignored) {
+            // progress is best effort
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.digit.ai.onboarding;
+
+import java.util.List;
+
+public record BulkOnboardingSummary(
+        int tenants,
+        int completed,
+        int alreadyOnboarded,
+        List<String> failedTenants,
+        long elapsedMillis
+) {}
@@ -0,0 +1,45 @@
+package org.digit.ai.onboarding;
+
+import org.digit.ai.orchestrator.PlanReport;
+
+/**
+ * Progress event for one tenant of a bulk onboarding run.
+ * The plan report is only present once the tenant has finished.
+ */
+public record TenantProgress(
+        String tenantId,
+        Status status,
+        PlanReport report,
+        String message
+) {
+    public enum Status {
+        STARTED,
+        COMPLETED,
+        ALREADY_ONBOARDED,
+        FAILED
+    }
+
+    public static TenantProgress started(String tenantId) {
+        return new TenantProgress(tenantId, Status.STARTED, null, null);
+    }
+
+    public static TenantProgress finished(String tenantId, PlanReport report) {
+        return new TenantProgress(
+            tenantId,
+            report.success() ? Status.COMPLETED : Status.FAILED,
+            report,
+            null
+        );
+    }
+
+    /**
+     * Nothing left to configure; no plan was run.
+     */
+    public static TenantProgress alreadyOnboarded(String tenantId) {
+        return new TenantProgress(tenantId, Status.ALREADY_ONBOARDED, null, "Tenant is already onboarded");
+    }
+
+    public static TenantProgress failed(String tenantId, String message) {
+        return new TenantProgress(tenantId, Status.FAILED, null, message);
+    }
+}
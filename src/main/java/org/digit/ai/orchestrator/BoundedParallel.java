@@ -0,0 +1,107 @@
+package org.digit.ai.orchestrator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs asynchronous tasks with at most N in flight.
+ *
+ * No threads are held while tasks are pending: each completion frees a
+ * slot and drains the queue. The drain is a loop, not a recursion, so
+ * tasks that complete synchronously cannot grow the stack; whichever
+ * thread is already draining picks up slots freed meanwhile. Individual
+ * task failures do not stop the remaining items; tasks are expected to
+ * record their own outcome. Anything else that goes wrong fails the
+ * returned future rather than leaving it pending.
+ */
+public final class BoundedParallel {
+
+    private BoundedParallel() {
+    }
+
+    public static <T> CompletableFuture<Void> run(
+            List<T> items,
+            int parallelism,
+            Function<T, ? extends CompletableFuture<?>> task
+    ) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (items.isEmpty()) {
+            done.complete(null);
+            return done;
+        }
+
+        new Drain<>(items, parallelism, task, done).drain();
+        return done;
+    }
+
+    private static final class Drain<T> {
+
+        private final List<T> items;
+        private final Function<T, ? extends CompletableFuture<?>> task;
+        private final CompletableFuture<Void> done;
+        private final AtomicInteger freeSlots;
+        private final AtomicInteger remaining;
+        // Drain requests not yet served; only the thread that raised it from 0 drains
+        private final AtomicInteger pending = new AtomicInteger();
+        private int next;
+
+        private Drain(
+                List<T> items,
+                int parallelism,
+                Function<T, ? extends CompletableFuture<?>> task,
+                CompletableFuture<Void> done
+        ) {
+            this.items = items;
+            this.task = task;
+            this.done = done;
+            this.freeSlots = new AtomicInteger(parallelism);
+            this.remaining = new AtomicInteger(items.size());
+        }
+
+        private void drain() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                int missed = 1;
+                do {
+                    while (next < items.size() && !done.isDone() && freeSlots.get() > 0) {
+                        freeSlots.decrementAndGet();
+                        launch(items.get(next++));
+                    }
+                    missed = pending.addAndGet(-missed);
+                } while (missed != 0);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void launch(T item) {
+            CompletableFuture<?> running;
+            try {
+                running = task.apply(item);
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+
+            running.whenComplete((r, e) -> {
+                try {
+                    freeSlots.incrementAndGet();
+                    if (remaining.decrementAndGet() == 0) {
+                        done.complete(null);
+                    } else {
+                        drain();
+                    }
+                } catch (Throwable t) {
+                    done.completeExceptionally(t);
+                }
+            });
+        }
+    }
+}
@@ -1,43 +1,298 @@
 package org.digit.ai.orchestrator;
 
+import org.digit.ai.audit.AuditLog;
 import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.gating.ToolId;
+import org.digit.ai.gating.ToolSet;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.StateChangeListener;
 import org.digit.ai.state.ConfigState;
 import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.ToolSchema;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class ConversationOrchestrator {
 
+    private static final Duration DEFAULT_TOOL_TIMEOUT = Duration.ofSeconds(30);
+
     private final AllowedToolsResolver resolver;
     private final ToolRegistry toolRegistry;
+    private final Duration toolTimeout;
+    private final AuditLog auditLog;
+    private final StateChangeListener stateListener;
 
     public ConversationOrchestrator(
             AllowedToolsResolver resolver,
             ToolRegistry toolRegistry
+    ) {
+        this(resolver, toolRegistry, DEFAULT_TOOL_TIMEOUT);
+    }
+
+    public ConversationOrchestrator(
+            AllowedToolsResolver resolver,
+            ToolRegistry toolRegistry,
+            Duration toolTimeout
+    ) {
+        this(resolver, toolRegistry, toolTimeout, null);
+    }
+
+    /**
+     * @param auditLog receives every tool execution outcome; may be null
+     */
+    public ConversationOrchestrator(
+            AllowedToolsResolver resolver,
+            ToolRegistry toolRegistry,
+            Duration toolTimeout,
+            AuditLog auditLog
+    ) {
+        this(resolver, toolRegistry, toolTimeout, auditLog, null);
+    }
+
+    /**
+     * @param stateListener notified after each state transition published by a tool; may be null
+     */
+    public ConversationOrchestrator(
+            AllowedToolsResolver resolver,
+            ToolRegistry toolRegistry,
+            Duration toolTimeout,
+            AuditLog auditLog,
+            StateChangeListener stateListener
     ) {
         this.resolver = resolver;
         this.toolRegistry = toolRegistry;
+        this.toolTimeout = toolTimeout;
+        this.auditLog = auditLog;
+        this.stateListener = stateListener;
+    }
+
+    public void execute(String toolName, ConversationSession session) {
+        ToolHandler tool = resolveTool(toolName, session.getState());
+        stateChanged(session, session.updateState(tool::apply));
+    }
+
+    /**
+     * Execute a tool without blocking the caller.
+     *
+     * Gating is checked up front, so disallowed or unknown tools fail
+     * with the same exceptions as {@link #execute}. The state transition
+     * is published only when the tool completes successfully within the
+     * timeout; timeouts and failures come back as structured results
+     * and leave the state untouched. Cancelling the returned future
+     * also cancels the tool call and discards its transition. A tool
+     * that {@link ToolHandler#needsArguments() needs arguments} is not
+     * called when they are missing or invalid; the result is FAILED and
+     * names the problems.
+     */
+    public CompletableFuture<ToolResult> executeAsync(String toolName, ConversationSession session) {
+        return executeAsync(toolName, session, Map.of());
+    }
+
+    /**
+     * As {@link #executeAsync(String, ConversationSession)}, passing
+     * arguments extracted from the conversation to the tool.
+     */
+    public CompletableFuture<ToolResult> executeAsync(
+            String toolName,
+            ConversationSession session,
+            Map<String, Object> arguments
+    ) {
+        ConfigState snapshot = session.getState();
+        ToolHandler tool = resolveTool(toolName, snapshot);
+
+        Map<String, Object> given = arguments != null ? arguments : Map.of();
+        List<String> problems = tool.needsArguments()
+            ? ToolSchema.validate(tool.parameters(), given)
+            : List.of();
+        if (!problems.isEmpty()) {
+            ToolResult rejected = ToolResult.failed(
+                toolName,
+                "Cannot run " + toolName + ": " + String.join(", ", problems)
+            );
+            audit(session, snapshot, toolName, rejected);
+            return CompletableFuture.completedFuture(rejected);
+        }
+
+        CompletableFuture<ToolResult> call =
+            tool.executeAsync(snapshot, given).toCompletableFuture();
+
+        CompletableFuture<ToolResult> result = call
+            .orTimeout(toolTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((toolResult, error) -> {
+                ToolResult outcome = error != null ? failureResult(toolName, error) : toolResult;
+                ConfigState state = session.getState();
+                if (outcome.isSuccess() && outcome.stateUpdate() != null) {
+                    state = session.updateState(outcome.stateUpdate());
+                    stateChanged(session, state);
+                }
+                audit(session, state, toolName, outcome);
+                return outcome;
+            });
+
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * "Configure everything" plan mode.
+     *
+     * The dependency DAG comes straight from the gating rules: every
+     * tool allowed right now forms one layer and runs concurrently with
+     * at most {@code maxParallelism} calls in flight. Once a layer
+     * settles the gates are re-evaluated, which unlocks dependent tools
+     * (e.g. role.assign) for the next layer. A failed tool is not
+     * retried, so whatever depends on it is simply never unlocked.
+     * Against DIGIT, tools that need arguments (user.create,
+     * role.create, role.assign) fail without them; pass them with
+     * {@link #executePlan(ConversationSession, int, Map)}.
+     */
+    public CompletableFuture<PlanReport> executePlan(ConversationSession session, int maxParallelism) {
+        return executePlan(session, maxParallelism, Map.of());
     }
 
-    public void execute(String toolName, ConfigState state) {
-        List<String> allowedTools = resolver.resolve(state);
+    /**
+     * As {@link #executePlan(ConversationSession, int)}, passing each
+     * tool the arguments mapped to its name.
+     */
+    public CompletableFuture<PlanReport> executePlan(
+            ConversationSession session,
+            int maxParallelism,
+            Map<String, Map<String, Object>> arguments
+    ) {
+        long planStart = System.nanoTime();
+        Set<String> attempted = new HashSet<>();
+        List<PlanReport.Node> nodes = Collections.synchronizedList(new ArrayList<>());
+
+        return runLayer(session, maxParallelism, arguments, 0, attempted, nodes, planStart)
+            .thenApply(v -> new PlanReport(
+                nodes.stream().allMatch(n -> n.status() == ToolResult.Status.SUCCESS),
+                elapsedMillis(planStart),
+                List.copyOf(nodes)
+            ));
+    }
+
+    public ToolSet getAllowedTools(ConfigState state) {
+        return resolver.resolve(state);
+    }
+
+    private CompletableFuture<Void> runLayer(
+            ConversationSession session,
+            int maxParallelism,
+            Map<String, Map<String, Object>> arguments,
+            int layer,
+            Set<String> attempted,
+            List<PlanReport.Node> nodes,
+            long planStart
+    ) {
+        List<String> ready = new ArrayList<>();
+        for (String tool : resolver.resolve(session.getState())) {
+            if (attempted.add(tool)) {
+                ready.add(tool);
+            }
+        }
+
+        if (ready.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return BoundedParallel
+            .run(ready, maxParallelism, tool -> runNode(tool, arguments.get(tool), layer, session, nodes, planStart))
+            .thenCompose(v -> runLayer(session, maxParallelism, arguments, layer + 1, attempted, nodes, planStart));
+    }
+
+    private CompletableFuture<ToolResult> runNode(
+            String tool,
+            Map<String, Object> arguments,
+            int layer,
+            ConversationSession session,
+            List<PlanReport.Node> nodes,
+            long planStart
+    ) {
+        long nodeStart = System.nanoTime();
+
+        CompletableFuture<ToolResult> result;
+        try {
+            result = executeAsync(tool, session, arguments);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.completedFuture(ToolResult.failed(tool, e.getMessage()));
+        }
 
-        if (!allowedTools.contains(toolName)) {
+        return result.whenComplete((r, e) -> nodes.add(new PlanReport.Node(
+            tool,
+            layer,
+            r != null ? r.status() : ToolResult.Status.FAILED,
+            (nodeStart - planStart) / 1_000_000,
+            elapsedMillis(nodeStart),
+            r != null ? r.message() : String.valueOf(e)
+        )));
+    }
+
+    private void audit(ConversationSession session, ConfigState state, String toolName, ToolResult outcome) {
+        if (auditLog != null) {
+            auditLog.publish(
+                "tool",
+                session.getId(),
+                state.getAccount().getTenantId(),
+                toolName,
+                outcome.status().name(),
+                outcome.message()
+            );
+        }
+    }
+
+    private void stateChanged(ConversationSession session, ConfigState state) {
+        if (stateListener != null) {
+            stateListener.stateChanged(session, state);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private ToolHandler resolveTool(String toolName, ConfigState state) {
+        ToolSet allowedTools = resolver.resolve(state);
+        ToolId id = allowedTools.graph().toolId(toolName);
+
+        if (id == null || !allowedTools.contains(id)) {
             throw new IllegalStateException(
                 "Tool not allowed in current state: " + toolName
             );
         }
 
-        ToolHandler tool = toolRegistry.get(toolName);
+        ToolHandler tool = toolRegistry.get(id);
         if (tool == null) {
             throw new IllegalArgumentException("Unknown tool: " + toolName);
         }
 
-        tool.execute(state);
+        return tool;
     }
 
-    public List<String> getAllowedTools(ConfigState state) {
-    return resolver.resolve(state);
-}
+    private ToolResult failureResult(String toolName, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error;
+
+        if (cause instanceof TimeoutException) {
+            return ToolResult.timedOut(toolName);
+        }
+        return ToolResult.failed(toolName, "Failed: " + toolName + ": " + cause.getMessage());
+    }
 
 }
@@ -0,0 +1,24 @@
+package org.digit.ai.orchestrator;
+
+import org.digit.ai.tools.ToolResult;
+
+import java.util.List;
+
+/**
+ * Outcome of a "configure everything" plan run.
+ * Nodes are listed in the order they finished.
+ */
+public record PlanReport(
+        boolean success,
+        long elapsedMillis,
+        List<Node> nodes
+) {
+    public record Node(
+            String tool,
+            int layer,
+            ToolResult.Status status,
+            long startedAtMillis,
+            long durationMillis,
+            String message
+    ) {}
+}
@@ -1,21 +1,60 @@
 package org.digit.ai.orchestrator;
 
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.DigitToolGraph;
+import org.digit.ai.gating.ToolId;
 import org.digit.ai.tools.ToolHandler;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Tool handlers indexed by the {@link ToolId} the tool graph assigned
+ * to their name, so lookups by id are a single array read.
+ */
 public class ToolRegistry {
 
-    private final Map<String, ToolHandler> tools = new HashMap<>();
+    private final CompiledToolGraph graph;
+    private final ToolHandler[] tools;
 
     public ToolRegistry(Iterable<ToolHandler> handlers) {
+        this(DigitToolGraph.compiled(), handlers);
+    }
+
+    public ToolRegistry(CompiledToolGraph graph, Iterable<ToolHandler> handlers) {
+        this.graph = graph;
+        this.tools = new ToolHandler[graph.toolCount()];
         for (ToolHandler handler : handlers) {
-            tools.put(handler.name(), handler);
+            ToolId id = graph.toolId(handler.name());
+            if (id == null) {
+                throw new IllegalArgumentException("Tool not declared in the tool graph: " + handler.name());
+            }
+            tools[id.ordinal()] = handler;
+        }
+    }
+
+    public ToolHandler get(ToolId id) {
+        if (id.graph() != graph) {
+            return get(id.name());
         }
+        return tools[id.ordinal()];
     }
 
     public ToolHandler get(String toolName) {
-        return tools.get(toolName);
+        ToolId id = graph.toolId(toolName);
+        return id == null ? null : tools[id.ordinal()];
+    }
+
+    /**
+     * Argument schema of every registered tool, by tool name.
+     */
+    public Map<String, Map<String, Object>> parameterSchemas() {
+        Map<String, Map<String, Object>> schemas = new TreeMap<>();
+        for (ToolHandler handler : tools) {
+            if (handler != null) {
+                schemas.put(handler.name(), handler.parameters());
+            }
+        }
+        return schemas;
     }
 }
@@ -0,0 +1,138 @@
+package org.digit.ai.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limits on LLM calls per session and per tenant / API key.
+ *
+ * A request may use the LLM only if both its session bucket and its
+ * tenant bucket have a permit; otherwise the caller should fall back to
+ * local inference rather than reject the message. Buckets that have
+ * fully refilled are swept once a map reaches {@code maxKeys}, at most
+ * once per {@link #SWEEP_INTERVAL_NANOS}; a new key that still finds
+ * the map full gets no bucket and falls back to local inference.
+ */
+public class LlmRateLimiter {
+
+    static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, TokenBucket> sessionBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final Limit sessionLimit;
+    private final Limit tenantLimit;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final AtomicLong sessionsSweptAt;
+    private final AtomicLong tenantsSweptAt;
+
+    private final Counter allowed;
+    private final Counter limitedBySession;
+    private final Counter limitedByTenant;
+
+    public record Limit(double permitsPerSecond, int burst) {
+
+        public static Limit perMinute(int requests, int burst) {
+            return new Limit(requests / 60.0, burst);
+        }
+    }
+
+    public LlmRateLimiter(Limit sessionLimit, Limit tenantLimit, int maxKeys, MeterRegistry registry) {
+        this(sessionLimit, tenantLimit, maxKeys, registry, System::nanoTime);
+    }
+
+    public LlmRateLimiter(
+            Limit sessionLimit,
+            Limit tenantLimit,
+            int maxKeys,
+            MeterRegistry registry,
+            LongSupplier nanoClock
+    ) {
+        this.sessionLimit = sessionLimit;
+        this.tenantLimit = tenantLimit;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        long start = nanoClock.getAsLong() - SWEEP_INTERVAL_NANOS;
+        this.sessionsSweptAt = new AtomicLong(start);
+        this.tenantsSweptAt = new AtomicLong(start);
+
+        this.allowed = Counter.builder("digit.llm.ratelimit")
+            .tag("outcome", "allowed")
+            .register(registry);
+        this.limitedBySession = Counter.builder("digit.llm.ratelimit")
+            .tag("outcome", "limited")
+            .tag("scope", "session")
+            .register(registry);
+        this.limitedByTenant = Counter.builder("digit.llm.ratelimit")
+            .tag("outcome", "limited")
+            .tag("scope", "tenant")
+            .register(registry);
+        Gauge.builder("digit.llm.ratelimit.buckets", sessionBuckets, ConcurrentHashMap::size)
+            .tag("scope", "session")
+            .register(registry);
+        Gauge.builder("digit.llm.ratelimit.buckets", tenantBuckets, ConcurrentHashMap::size)
+            .tag("scope", "tenant")
+            .register(registry);
+    }
+
+    /**
+     * Take one permit for an LLM call.
+     *
+     * @param tenantKey tenant or API key; null applies only the session limit
+     * @return false if the call should degrade to local inference
+     */
+    public boolean tryAcquire(String sessionId, String tenantKey) {
+        long now = nanoClock.getAsLong();
+
+        TokenBucket session = bucket(sessionBuckets, sessionsSweptAt, sessionId, sessionLimit, now);
+        if (session == null || !session.tryAcquire(now)) {
+            limitedBySession.increment();
+            return false;
+        }
+
+        if (tenantKey != null) {
+            TokenBucket tenant = bucket(tenantBuckets, tenantsSweptAt, tenantKey, tenantLimit, now);
+            if (tenant == null || !tenant.tryAcquire(now)) {
+                session.refund();
+                limitedByTenant.increment();
+                return false;
+            }
+        }
+
+        allowed.increment();
+        return true;
+    }
+
+    /**
+     * The key's bucket, or null if the map is full of active buckets.
+     */
+    private TokenBucket bucket(
+            ConcurrentHashMap<String, TokenBucket> buckets,
+            AtomicLong sweptAt,
+            String key,
+            Limit limit,
+            long now
+    ) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxKeys) {
+            // One O(n) sweep per interval, not one per new key
+            long last = sweptAt.get();
+            if (now - last >= SWEEP_INTERVAL_NANOS && sweptAt.compareAndSet(last, now)) {
+                buckets.values().removeIf(b -> b.isIdle(now));
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.permitsPerSecond(), limit.burst(), now));
+    }
+}
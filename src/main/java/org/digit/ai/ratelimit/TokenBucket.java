@@ -0,0 +1,56 @@
+package org.digit.ai.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as a generic cell rate algorithm: the whole bucket is one
+ * "theoretical arrival time" that moves forward by one emission
+ * interval per admitted request. A request is admitted while that time
+ * is at most {@code burst - 1} intervals ahead of now, which is exactly
+ * a bucket of {@code burst} tokens refilled at {@code rate}. Each call
+ * is a read and a CAS on a single long, with no allocation.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            if (base - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by {@link #tryAcquire} that went unused.
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    /**
+     * A bucket that has fully refilled behaves like a new one and can be dropped.
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,91 @@
+package org.digit.ai.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring buffer of a session's most recent turns.
+ *
+ * Memory per session is bounded twice: at most {@code capacity} turns
+ * are kept, and each message is cut to {@code maxChars} on the way in.
+ * The oldest turn is overwritten once the buffer is full.
+ */
+public class ConversationHistory {
+
+    public static final int DEFAULT_CAPACITY = 8;
+    public static final int DEFAULT_MAX_CHARS = 400;
+
+    // ASCII keeps truncated strings in compact one-byte-per-char form
+    private static final String ELLIPSIS = "...";
+
+    private final ConversationTurn[] turns;
+    private final int maxChars;
+    private int next;
+    private int size;
+
+    public ConversationHistory() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_CHARS);
+    }
+
+    public ConversationHistory(int capacity, int maxChars) {
+        this.turns = new ConversationTurn[capacity];
+        this.maxChars = maxChars;
+    }
+
+    public synchronized void add(String userMessage, String reply) {
+        if (turns.length == 0) {
+            return;
+        }
+        turns[next] = new ConversationTurn(
+            truncate(userMessage, maxChars),
+            truncate(reply == null ? "" : reply, maxChars)
+        );
+        next = (next + 1) % turns.length;
+        size = Math.min(size + 1, turns.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Most recent turns that fit in {@code tokenBudget}, oldest first.
+     * The newest turn that no longer fits is kept with its reply cut to
+     * the remaining budget; anything older is left out.
+     */
+    public synchronized List<ConversationTurn> recent(int tokenBudget) {
+        List<ConversationTurn> selected = new ArrayList<>();
+        int remaining = tokenBudget;
+
+        for (int i = 0; i < size && remaining > 0; i++) {
+            ConversationTurn turn = turns[Math.floorMod(next - 1 - i, turns.length)];
+            int tokens = turn.estimatedTokens();
+            if (tokens <= remaining) {
+                selected.add(turn);
+                remaining -= tokens;
+                continue;
+            }
+
+            // Largest reply for which estimatedTokens() still fits
+            int replyChars = remaining * 4 - 4 - turn.userMessage().length();
+            if (replyChars > 0) {
+                selected.add(new ConversationTurn(turn.userMessage(), truncate(turn.reply(), replyChars)));
+            }
+            break;
+        }
+
+        Collections.reverse(selected);
+        return selected;
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        if (maxChars <= ELLIPSIS.length()) {
+            return text.substring(0, maxChars);
+        }
+        return text.substring(0, maxChars - ELLIPSIS.length()) + ELLIPSIS;
+    }
+}
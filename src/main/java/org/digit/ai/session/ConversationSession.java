@@ -2,26 +2,111 @@ package org.digit.ai.session;
 
 import org.digit.ai.state.ConfigState;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
 public class ConversationSession {
 
-    private final ConfigState state = new ConfigState();
+    // key in the session store; null for sessions made outside it
+    private final String id;
+
+    // current snapshot; replaced only through updateState
+    private final AtomicReference<ConfigState> state = new AtomicReference<>(new ConfigState());
+    private final ConversationHistory history;
+
+    // what AI last proposed, waiting for yes/no; null when nothing is pending
+    private final AtomicReference<PendingAction> pendingAction = new AtomicReference<>();
+
+    // allowed tools response, serialized for the state version it was built from
+    private volatile CachedView allowedToolsView;
 
-    // what AI last proposed, waiting for yes/no
-    private String pendingAction;
+    /**
+     * A response body rendered from the state at {@code version}.
+     */
+    public record CachedView(long version, String eTag, byte[] json) {}
+
+    /**
+     * A proposed tool and the arguments extracted for it.
+     */
+    public record PendingAction(String tool, Map<String, Object> arguments) {
+
+        public PendingAction {
+            arguments = arguments != null ? Map.copyOf(arguments) : Map.of();
+        }
+    }
+
+    public ConversationSession() {
+        this(null, new ConversationHistory());
+    }
+
+    public ConversationSession(String id, ConversationHistory history) {
+        this.id = id;
+        this.history = history;
+    }
+
+    public String getId() {
+        return id;
+    }
 
+    /**
+     * The current snapshot; never changes once read.
+     */
     public ConfigState getState() {
-        return state;
+        return state.get();
+    }
+
+    /**
+     * Publish {@code transition} of the current state, bumping the
+     * version. Lock-free: if another transition is published first, the
+     * transition is re-applied to that newer state, so it must be pure.
+     *
+     * @return the published state
+     */
+    public ConfigState updateState(UnaryOperator<ConfigState> transition) {
+        ConfigState current;
+        ConfigState next;
+        do {
+            current = state.get();
+            next = transition.apply(current).withVersion(current.getVersion() + 1);
+        } while (!state.compareAndSet(current, next));
+        return next;
+    }
+
+    public ConversationHistory getHistory() {
+        return history;
     }
 
     public String getPendingAction() {
-        return pendingAction;
+        PendingAction pending = pendingAction.get();
+        return pending != null ? pending.tool() : null;
     }
 
     public void setPendingAction(String pendingAction) {
-        this.pendingAction = pendingAction;
+        setPendingAction(pendingAction, Map.of());
+    }
+
+    public void setPendingAction(String pendingAction, Map<String, Object> arguments) {
+        this.pendingAction.set(pendingAction != null ? new PendingAction(pendingAction, arguments) : null);
+    }
+
+    /**
+     * Remove and return the pending action, or null if there is none.
+     * Of two concurrent replies to the same proposal only one gets it.
+     */
+    public PendingAction takePendingAction() {
+        return pendingAction.getAndSet(null);
+    }
+
+    public CachedView getAllowedToolsView() {
+        return allowedToolsView;
+    }
+
+    public void setAllowedToolsView(CachedView allowedToolsView) {
+        this.allowedToolsView = allowedToolsView;
     }
 
     public void clearPendingAction() {
-        this.pendingAction = null;
+        pendingAction.set(null);
     }
 }
@@ -0,0 +1,14 @@
+package org.digit.ai.session;
+
+/**
+ * One exchange: what the user said and what the assistant answered.
+ */
+public record ConversationTurn(String userMessage, String reply) {
+
+    /**
+     * Rough o200k_base token count (about four characters per token).
+     */
+    public int estimatedTokens() {
+        return (userMessage.length() + reply.length() + 7) / 4;
+    }
+}
@@ -6,8 +6,22 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SessionStore {
 
     private final Map<String, ConversationSession> sessions = new ConcurrentHashMap<>();
+    private final int historyTurns;
+    private final int maxTurnChars;
+
+    public SessionStore() {
+        this(ConversationHistory.DEFAULT_CAPACITY, ConversationHistory.DEFAULT_MAX_CHARS);
+    }
+
+    public SessionStore(int historyTurns, int maxTurnChars) {
+        this.historyTurns = historyTurns;
+        this.maxTurnChars = maxTurnChars;
+    }
 
     public ConversationSession getSession(String sessionId) {
-        return sessions.computeIfAbsent(sessionId, id -> new ConversationSession());
+        return sessions.computeIfAbsent(
+            sessionId,
+            id -> new ConversationSession(id, new ConversationHistory(historyTurns, maxTurnChars))
+        );
     }
 }
@@ -0,0 +1,13 @@
+package org.digit.ai.session;
+
+import org.digit.ai.state.ConfigState;
+
+/**
+ * Told about every state transition the orchestrator publishes to a
+ * session.
+ */
+@FunctionalInterface
+public interface StateChangeListener {
+
+    void stateChanged(ConversationSession session, ConfigState state);
+}
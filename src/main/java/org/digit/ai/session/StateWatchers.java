@@ -0,0 +1,76 @@
+package org.digit.ai.session;
+
+import org.digit.ai.state.ConfigState;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clients waiting for a session's state to move past a version they
+ * have already seen.
+ *
+ * A waiter is just a future in a per-session set; nothing blocks while
+ * it waits, so the number of watchers is bounded by memory and open
+ * connections, not threads. A session's set is removed whole when its
+ * state changes, and waiters re-check the version after registering,
+ * so a change racing with a registration is never missed.
+ */
+public class StateWatchers implements StateChangeListener {
+
+    private final Map<ConversationSession, Set<CompletableFuture<Long>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Completes with the session's state version once it is greater
+     * than {@code since}; at once if it already differs, including a
+     * {@code since} ahead of the session (e.g. one recreated after a
+     * restart), which could otherwise never be reached. Completing or
+     * cancelling the future from outside (e.g. on timeout) unregisters
+     * it.
+     */
+    public CompletableFuture<Long> awaitChange(ConversationSession session, long since) {
+        long version = session.getState().getVersion();
+        if (version != since) {
+            return CompletableFuture.completedFuture(version);
+        }
+
+        CompletableFuture<Long> waiter = new CompletableFuture<>();
+        waiters.compute(session, (k, set) -> {
+            Set<CompletableFuture<Long>> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        waiter.whenComplete((v, e) -> waiters.computeIfPresent(session, (k, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        }));
+
+        // a change may have removed the set before the add above
+        version = session.getState().getVersion();
+        if (version != since) {
+            waiter.complete(version);
+        }
+        return waiter;
+    }
+
+    @Override
+    public void stateChanged(ConversationSession session, ConfigState state) {
+        Set<CompletableFuture<Long>> set = waiters.remove(session);
+        if (set != null) {
+            // notifications of concurrent transitions may arrive out of order
+            long version = Math.max(state.getVersion(), session.getState().getVersion());
+            for (CompletableFuture<Long> waiter : set) {
+                waiter.complete(version);
+            }
+        }
+    }
+
+    public int watching() {
+        int count = 0;
+        for (Set<CompletableFuture<Long>> set : waiters.values()) {
+            count += set.size();
+        }
+        return count;
+    }
+}
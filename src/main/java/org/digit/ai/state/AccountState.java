@@ -1,10 +1,19 @@
 package org.digit.ai.state;
 
-import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
 
-@Data
+@Value
+@With
+@AllArgsConstructor
 public class AccountState {
-    private boolean created;
-    private boolean configured;
-    private String accessToken;
+    boolean created;
+    boolean configured;
+    String accessToken;
+    String tenantId;
+
+    public AccountState() {
+        this(false, false, null, null);
+    }
 }
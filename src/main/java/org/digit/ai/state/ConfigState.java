@@ -1,21 +1,46 @@
 package org.digit.ai.state;
 
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import lombok.With;
 
-@Data
-@NoArgsConstructor
+/**
+ * Immutable snapshot of a session's configuration.
+ *
+ * Tools describe their effect as a transition to a new snapshot built
+ * with the {@code withX} methods; ConversationSession publishes it with
+ * a compare-and-set, so readers always see a whole state without
+ * taking a lock.
+ */
+@Value
+@With
+@AllArgsConstructor
 public class ConfigState {
 
-    private AccountState account = new AccountState();
+    AccountState account;
 
-    private boolean idGenConfigured;
-    private boolean workflowConfigured;
-    private boolean notificationConfigured;
-    private boolean boundaryConfigured;
-    private boolean registrySchemaConfigured;
+    boolean idGenConfigured;
+    boolean workflowConfigured;
+    boolean notificationConfigured;
+    boolean boundaryConfigured;
+    boolean registrySchemaConfigured;
 
-    private UserState user = new UserState();
-    private RoleState role = new RoleState();
-    private boolean roleAssignmentDone;
+    UserState user;
+    RoleState role;
+    boolean roleAssignmentDone;
+
+    /**
+     * Monotonic; bumped with every published transition, so views
+     * derived from a snapshot can be cached per version.
+     */
+    @EqualsAndHashCode.Exclude
+    long version;
+
+    /**
+     * Nothing configured yet.
+     */
+    public ConfigState() {
+        this(new AccountState(), false, false, false, false, false, new UserState(), new RoleState(), false, 0);
+    }
 }
@@ -1,8 +1,16 @@
 package org.digit.ai.state;
 
-import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
 
-@Data
+@Value
+@With
+@AllArgsConstructor
 public class RoleState {
-    private boolean created;
+    boolean created;
+
+    public RoleState() {
+        this(false);
+    }
 }
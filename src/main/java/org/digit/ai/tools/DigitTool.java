@@ -0,0 +1,73 @@
+package org.digit.ai.tools;
+
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitResponse;
+import org.digit.ai.state.ConfigState;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Base for tools backed by a DIGIT platform call.
+ *
+ * Without a client the tool only simulates its effect (v1 behaviour).
+ * With a client, {@link #executeAsync} makes the call and returns the
+ * state transition to publish once DIGIT has accepted it.
+ */
+public abstract class DigitTool implements ToolHandler {
+
+    private final DigitClient client;
+
+    protected DigitTool(DigitClient client) {
+        this.client = client;
+    }
+
+    /**
+     * The DIGIT call that performs this tool for the given state.
+     */
+    protected abstract DigitRequest request(ConfigState state);
+
+    /**
+     * The DIGIT call for the given state and arguments. Tools that take
+     * arguments override this; by default they are ignored.
+     */
+    protected DigitRequest request(ConfigState state, Map<String, Object> arguments) {
+        return request(state);
+    }
+
+    /**
+     * The state recording a successful call. Defaults to {@link #apply(ConfigState)}.
+     */
+    protected ConfigState apply(ConfigState state, DigitResponse response) {
+        return apply(state);
+    }
+
+    /**
+     * Only a real DIGIT call needs the arguments; the simulation runs without them.
+     */
+    @Override
+    public boolean needsArguments() {
+        return client != null;
+    }
+
+    @Override
+    public CompletionStage<ToolResult> executeAsync(ConfigState state) {
+        return executeAsync(state, Map.of());
+    }
+
+    @Override
+    public CompletionStage<ToolResult> executeAsync(ConfigState state, Map<String, Object> arguments) {
+        if (client == null) {
+            return ToolHandler.super.executeAsync(state);
+        }
+
+        return client
+            .send(
+                request(state, arguments),
+                state.getAccount().getAccessToken(),
+                state.getAccount().getTenantId()
+            )
+            .thenApply(response -> ToolResult.success(name(), s -> apply(s, response)));
+    }
+}
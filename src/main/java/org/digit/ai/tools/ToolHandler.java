@@ -2,6 +2,10 @@ package org.digit.ai.tools;
 
 import org.digit.ai.state.ConfigState;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface ToolHandler {
 
     /**
@@ -11,7 +15,46 @@ public interface ToolHandler {
     String name();
 
     /**
-     * Execute the tool and mutate configuration state.
+     * The configuration state after this tool has run. Must be a pure
+     * function of the given state: it is re-applied to the newer state
+     * when a concurrent transition is published first.
+     */
+    ConfigState apply(ConfigState state);
+
+    /**
+     * Execute the tool without blocking the caller.
+     * The returned result carries the state transition, which the
+     * orchestrator publishes once the call completes successfully.
+     * By default {@link #apply} is that transition.
+     */
+    default CompletionStage<ToolResult> executeAsync(ConfigState state) {
+        return CompletableFuture.completedFuture(
+            ToolResult.success(name(), this::apply)
+        );
+    }
+
+    /**
+     * Execute with arguments extracted from the conversation, already
+     * validated against {@link #parameters}. Tools without arguments
+     * ignore them.
+     */
+    default CompletionStage<ToolResult> executeAsync(ConfigState state, Map<String, Object> arguments) {
+        return executeAsync(state);
+    }
+
+    /**
+     * JSON Schema of the tool's arguments, see {@link ToolSchema}.
+     */
+    default Map<String, Object> parameters() {
+        return ToolSchema.none();
+    }
+
+    /**
+     * Whether the required {@link #parameters} must be given for the
+     * tool to run. Tools that only simulate their effect do not use
+     * their arguments and can run without them.
      */
-    void execute(ConfigState state);
+    default boolean needsArguments() {
+        return true;
+    }
 }
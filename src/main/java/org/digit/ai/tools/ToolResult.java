@@ -0,0 +1,45 @@
+package org.digit.ai.tools;
+
+import org.digit.ai.state.ConfigState;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Structured outcome of an asynchronous tool call.
+ *
+ * The state transition is not published by the tool itself; the
+ * orchestrator publishes it only when the call has completed
+ * successfully.
+ */
+public record ToolResult(
+        String tool,
+        Status status,
+        String message,
+        UnaryOperator<ConfigState> stateUpdate
+) {
+    public enum Status {
+        SUCCESS,
+        FAILED,
+        TIMED_OUT
+    }
+
+    public static ToolResult success(String tool, UnaryOperator<ConfigState> stateUpdate) {
+        return new ToolResult(tool, Status.SUCCESS, "Executed: " + tool, stateUpdate);
+    }
+
+    public static ToolResult success(String tool, String message, UnaryOperator<ConfigState> stateUpdate) {
+        return new ToolResult(tool, Status.SUCCESS, message, stateUpdate);
+    }
+
+    public static ToolResult failed(String tool, String message) {
+        return new ToolResult(tool, Status.FAILED, message, null);
+    }
+
+    public static ToolResult timedOut(String tool) {
+        return new ToolResult(tool, Status.TIMED_OUT, "Timed out: " + tool, null);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+}
@@ -0,0 +1,74 @@
+package org.digit.ai.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Schema for tool arguments, in the subset OpenAI function calling
+ * accepts: an object of string properties, some required, nothing else.
+ */
+public final class ToolSchema {
+
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+    private final List<String> required = new ArrayList<>();
+
+    private ToolSchema() {
+    }
+
+    public static ToolSchema object() {
+        return new ToolSchema();
+    }
+
+    /**
+     * Schema for tools without arguments.
+     */
+    public static Map<String, Object> none() {
+        return object().build();
+    }
+
+    public ToolSchema required(String name, String description) {
+        required.add(name);
+        return optional(name, description);
+    }
+
+    public ToolSchema optional(String name, String description) {
+        properties.put(name, Map.of("type", "string", "description", description));
+        return this;
+    }
+
+    public Map<String, Object> build() {
+        return Map.of(
+            "type", "object",
+            "properties", Map.copyOf(properties),
+            "required", List.copyOf(required),
+            "additionalProperties", false
+        );
+    }
+
+    /**
+     * Problems with {@code arguments} against a schema built here; empty if valid.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> validate(Map<String, Object> schema, Map<String, Object> arguments) {
+        Map<String, Object> properties = (Map<String, Object>) schema.getOrDefault("properties", Map.of());
+        List<String> required = (List<String>) schema.getOrDefault("required", List.of());
+        List<String> problems = new ArrayList<>();
+
+        for (String name : required) {
+            Object value = arguments.get(name);
+            if (!(value instanceof String s) || s.isBlank()) {
+                problems.add("missing " + name);
+            }
+        }
+        for (Map.Entry<String, Object> argument : arguments.entrySet()) {
+            if (!properties.containsKey(argument.getKey())) {
+                problems.add("unexpected " + argument.getKey());
+            } else if (!(argument.getValue() instanceof String)) {
+                problems.add(argument.getKey() + " must be a string");
+            }
+        }
+        return problems;
+    }
+}
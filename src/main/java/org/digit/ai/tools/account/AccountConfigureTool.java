@@ -1,9 +1,23 @@
 package org.digit.ai.tools.account;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitResponse;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class AccountConfigureTool implements ToolHandler {
+import java.util.Map;
+
+public class AccountConfigureTool extends DigitTool {
+
+    public AccountConfigureTool() {
+        this(null);
+    }
+
+    public AccountConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,9 +25,28 @@ public class AccountConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
+    public ConfigState apply(ConfigState state) {
         // v1: simulate successful configuration
-        state.getAccount().setConfigured(true);
-        state.getAccount().setAccessToken("dummy-access-token");
+        return state.withAccount(
+            state.getAccount().withConfigured(true).withAccessToken("dummy-access-token")
+        );
+    }
+
+    @Override
+    protected ConfigState apply(ConfigState state, DigitResponse response) {
+        return state.withAccount(
+            state.getAccount()
+                .withConfigured(true)
+                .withAccessToken(response.body().path("access_token").asText(null))
+        );
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.upsert(
+            DigitService.USER,
+            "/user/oauth/token",
+            Map.of("grant_type", "password", "scope", "read")
+        );
     }
 }
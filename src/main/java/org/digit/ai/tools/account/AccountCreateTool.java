@@ -1,9 +1,22 @@
 package org.digit.ai.tools.account;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class AccountCreateTool implements ToolHandler {
+import java.util.Map;
+
+public class AccountCreateTool extends DigitTool {
+
+    public AccountCreateTool() {
+        this(null);
+    }
+
+    public AccountCreateTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,9 +24,17 @@ public class AccountCreateTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        // v1: just mark account as created
-        // later: call digit-cli / DIGIT API here
-        state.getAccount().setCreated(true);
+    public ConfigState apply(ConfigState state) {
+        // the DIGIT call happens in executeAsync when a client is configured
+        return state.withAccount(state.getAccount().withCreated(true));
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.create(
+            DigitService.ACCOUNT,
+            "/account/v1/_create",
+            Map.of("Account", Map.of("status", "ACTIVE"))
+        );
     }
 }
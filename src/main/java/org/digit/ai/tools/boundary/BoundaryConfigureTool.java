@@ -1,9 +1,24 @@
 package org.digit.ai.tools.boundary;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
+import org.digit.ai.tools.ToolSchema;
 
-public class BoundaryConfigureTool implements ToolHandler {
+import java.util.HashMap;
+import java.util.Map;
+
+public class BoundaryConfigureTool extends DigitTool {
+
+    public BoundaryConfigureTool() {
+        this(null);
+    }
+
+    public BoundaryConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +26,31 @@ public class BoundaryConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setBoundaryConfigured(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withBoundaryConfigured(true);
+    }
+
+    @Override
+    public Map<String, Object> parameters() {
+        return ToolSchema.object()
+            .optional("hierarchyType", "Boundary hierarchy type, e.g. ADMIN or REVENUE")
+            .optional("boundaryFile", "Location of the boundary data file")
+            .build();
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return request(state, Map.of());
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state, Map<String, Object> arguments) {
+        Map<String, Object> hierarchy = new HashMap<>(arguments);
+        hierarchy.putIfAbsent("hierarchyType", "ADMIN");
+        return DigitRequest.upsert(
+            DigitService.BOUNDARY,
+            "/boundary/v1/hierarchy/_upsert",
+            Map.of("BoundaryHierarchy", hierarchy)
+        );
     }
 }
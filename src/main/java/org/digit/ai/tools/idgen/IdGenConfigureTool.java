@@ -1,9 +1,22 @@
 package org.digit.ai.tools.idgen;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class IdGenConfigureTool implements ToolHandler {
+import java.util.Map;
+
+public class IdGenConfigureTool extends DigitTool {
+
+    public IdGenConfigureTool() {
+        this(null);
+    }
+
+    public IdGenConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +24,16 @@ public class IdGenConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setIdGenConfigured(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withIdGenConfigured(true);
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.upsert(
+            DigitService.IDGEN,
+            "/idgen/v1/config/_upsert",
+            Map.of("IdGenConfig", Map.of("format", "[CITY]-[SEQ]"))
+        );
     }
 }
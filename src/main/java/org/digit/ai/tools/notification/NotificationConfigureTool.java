@@ -1,9 +1,22 @@
 package org.digit.ai.tools.notification;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class NotificationConfigureTool implements ToolHandler {
+import java.util.Map;
+
+public class NotificationConfigureTool extends DigitTool {
+
+    public NotificationConfigureTool() {
+        this(null);
+    }
+
+    public NotificationConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +24,16 @@ public class NotificationConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setNotificationConfigured(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withNotificationConfigured(true);
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.upsert(
+            DigitService.NOTIFICATION,
+            "/notification/v1/templates/_upsert",
+            Map.of("Templates", Map.of("channel", "SMS"))
+        );
     }
 }
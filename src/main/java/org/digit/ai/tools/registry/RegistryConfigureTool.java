@@ -1,9 +1,22 @@
 package org.digit.ai.tools.registry;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class RegistryConfigureTool implements ToolHandler {
+import java.util.Map;
+
+public class RegistryConfigureTool extends DigitTool {
+
+    public RegistryConfigureTool() {
+        this(null);
+    }
+
+    public RegistryConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +24,16 @@ public class RegistryConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setRegistrySchemaConfigured(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withRegistrySchemaConfigured(true);
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.upsert(
+            DigitService.REGISTRY,
+            "/registry/v1/schema/_upsert",
+            Map.of("Schema", Map.of("version", "1"))
+        );
     }
 }
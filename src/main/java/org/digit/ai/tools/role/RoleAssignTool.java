@@ -1,9 +1,23 @@
 package org.digit.ai.tools.role;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
+import org.digit.ai.tools.ToolSchema;
 
-public class RoleAssignTool implements ToolHandler {
+import java.util.Map;
+
+public class RoleAssignTool extends DigitTool {
+
+    public RoleAssignTool() {
+        this(null);
+    }
+
+    public RoleAssignTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +25,29 @@ public class RoleAssignTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setRoleAssignmentDone(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withRoleAssignmentDone(true);
+    }
+
+    @Override
+    public Map<String, Object> parameters() {
+        return ToolSchema.object()
+            .required("userName", "User receiving the role")
+            .required("roleCode", "Code of the role to assign")
+            .build();
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return request(state, Map.of());
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state, Map<String, Object> arguments) {
+        return DigitRequest.upsert(
+            DigitService.ACCESS_CONTROL,
+            "/access/v1/roles/_assign",
+            Map.of("RoleAssignment", arguments)
+        );
     }
 }
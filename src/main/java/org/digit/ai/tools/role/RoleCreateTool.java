@@ -1,9 +1,23 @@
 package org.digit.ai.tools.role;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
+import org.digit.ai.tools.ToolSchema;
 
-public class RoleCreateTool implements ToolHandler {
+import java.util.Map;
+
+public class RoleCreateTool extends DigitTool {
+
+    public RoleCreateTool() {
+        this(null);
+    }
+
+    public RoleCreateTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +25,29 @@ public class RoleCreateTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.getRole().setCreated(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withRole(state.getRole().withCreated(true));
+    }
+
+    @Override
+    public Map<String, Object> parameters() {
+        return ToolSchema.object()
+            .required("code", "Role code, e.g. EMPLOYEE")
+            .optional("name", "Display name of the role")
+            .build();
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return request(state, Map.of());
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state, Map<String, Object> arguments) {
+        return DigitRequest.create(
+            DigitService.ACCESS_CONTROL,
+            "/access/v1/roles/_create",
+            Map.of("Role", arguments)
+        );
     }
 }
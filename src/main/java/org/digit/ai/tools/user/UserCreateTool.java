@@ -1,9 +1,23 @@
 package org.digit.ai.tools.user;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
+import org.digit.ai.tools.ToolSchema;
 
-public class UserCreateTool implements ToolHandler {
+import java.util.Map;
+
+public class UserCreateTool extends DigitTool {
+
+    public UserCreateTool() {
+        this(null);
+    }
+
+    public UserCreateTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +25,30 @@ public class UserCreateTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.getUser().setCreated(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withUser(state.getUser().withCreated(true));
+    }
+
+    @Override
+    public Map<String, Object> parameters() {
+        return ToolSchema.object()
+            .required("userName", "Login name of the user")
+            .optional("name", "Full name of the user")
+            .optional("mobileNumber", "Mobile number of the user")
+            .build();
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return request(state, Map.of());
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state, Map<String, Object> arguments) {
+        return DigitRequest.create(
+            DigitService.USER,
+            "/user/v1/_create",
+            Map.of("User", arguments)
+        );
     }
 }
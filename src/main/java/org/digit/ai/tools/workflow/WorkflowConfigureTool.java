@@ -1,9 +1,22 @@
 package org.digit.ai.tools.workflow;
 
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
 import org.digit.ai.state.ConfigState;
-import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.DigitTool;
 
-public class WorkflowConfigureTool implements ToolHandler {
+import java.util.Map;
+
+public class WorkflowConfigureTool extends DigitTool {
+
+    public WorkflowConfigureTool() {
+        this(null);
+    }
+
+    public WorkflowConfigureTool(DigitClient client) {
+        super(client);
+    }
 
     @Override
     public String name() {
@@ -11,7 +24,16 @@ public class WorkflowConfigureTool implements ToolHandler {
     }
 
     @Override
-    public void execute(ConfigState state) {
-        state.setWorkflowConfigured(true);
+    public ConfigState apply(ConfigState state) {
+        return state.withWorkflowConfigured(true);
+    }
+
+    @Override
+    protected DigitRequest request(ConfigState state) {
+        return DigitRequest.upsert(
+            DigitService.WORKFLOW,
+            "/workflow/v1/businessservice/_upsert",
+            Map.of("BusinessService", Map.of())
+        );
     }
 }
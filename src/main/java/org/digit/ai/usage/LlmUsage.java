@@ -0,0 +1,11 @@
+package org.digit.ai.usage;
+
+/**
+ * Token counts (from the OpenAI {@code usage} block) and wall time of one LLM call.
+ */
+public record LlmUsage(
+        long promptTokens,
+        long completionTokens,
+        long totalTokens,
+        long wallNanos
+) {}
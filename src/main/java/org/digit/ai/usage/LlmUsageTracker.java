@@ -0,0 +1,116 @@
+package org.digit.ai.usage;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Aggregates LLM usage per session, per tenant and overall, and decides
+ * when a session has used up its budget.
+ *
+ * A budget limit of 0 means unlimited. Once any limit is reached the
+ * session should be served by local inference only; the check reads
+ * the counters without locking, so a few calls in flight may overshoot.
+ *
+ * Each map keeps at most {@code maxKeys} sessions or tenants; beyond
+ * that the oldest are forgotten, first tracked first dropped.
+ */
+public class LlmUsageTracker {
+
+    private static final int DEFAULT_MAX_KEYS = 100_000;
+
+    private final ConcurrentHashMap<String, UsageCounters> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UsageCounters> tenants = new ConcurrentHashMap<>();
+    // Keys in the order they were first tracked
+    private final ConcurrentLinkedQueue<String> sessionOrder = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> tenantOrder = new ConcurrentLinkedQueue<>();
+    private final UsageCounters total = new UsageCounters();
+    private final int maxKeys;
+
+    private final long maxSessionCalls;
+    private final long maxSessionTokens;
+    private final long maxSessionWallNanos;
+
+    public LlmUsageTracker(long maxSessionCalls, long maxSessionTokens, Duration maxSessionWallTime) {
+        this(maxSessionCalls, maxSessionTokens, maxSessionWallTime, DEFAULT_MAX_KEYS);
+    }
+
+    public LlmUsageTracker(long maxSessionCalls, long maxSessionTokens, Duration maxSessionWallTime, int maxKeys) {
+        this.maxKeys = maxKeys;
+        this.maxSessionCalls = maxSessionCalls;
+        this.maxSessionTokens = maxSessionTokens;
+        this.maxSessionWallNanos = maxSessionWallTime.toNanos();
+    }
+
+    public static LlmUsageTracker unlimited() {
+        return new LlmUsageTracker(0, 0, Duration.ZERO);
+    }
+
+    public void record(String sessionId, String tenantId, LlmUsage usage) {
+        total.add(usage);
+        if (sessionId != null) {
+            counters(sessions, sessionOrder, sessionId).add(usage);
+        }
+        if (tenantId != null) {
+            counters(tenants, tenantOrder, tenantId).add(usage);
+        }
+    }
+
+    private UsageCounters counters(
+            ConcurrentHashMap<String, UsageCounters> counters,
+            ConcurrentLinkedQueue<String> order,
+            String key
+    ) {
+        UsageCounters existing = counters.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        UsageCounters fresh = new UsageCounters();
+        UsageCounters winner = counters.putIfAbsent(key, fresh);
+        if (winner != null) {
+            return winner;
+        }
+        order.add(key);
+        while (counters.size() > maxKeys) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            counters.remove(oldest);
+        }
+        return fresh;
+    }
+
+    public boolean isOverBudget(String sessionId) {
+        UsageCounters counters = sessions.get(sessionId);
+        if (counters == null) {
+            return false;
+        }
+        return (maxSessionCalls > 0 && counters.calls() >= maxSessionCalls)
+            || (maxSessionTokens > 0 && counters.totalTokens() >= maxSessionTokens)
+            || (maxSessionWallNanos > 0 && counters.wallNanos() >= maxSessionWallNanos);
+    }
+
+    public UsageSnapshot session(String sessionId) {
+        UsageCounters counters = sessions.get(sessionId);
+        return counters == null ? UsageSnapshot.EMPTY : counters.snapshot();
+    }
+
+    public UsageSnapshot tenant(String tenantId) {
+        UsageCounters counters = tenants.get(tenantId);
+        return counters == null ? UsageSnapshot.EMPTY : counters.snapshot();
+    }
+
+    public Map<String, UsageSnapshot> tenants() {
+        Map<String, UsageSnapshot> snapshot = new TreeMap<>();
+        tenants.forEach((tenant, counters) -> snapshot.put(tenant, counters.snapshot()));
+        return snapshot;
+    }
+
+    public UsageSnapshot total() {
+        return total.snapshot();
+    }
+}
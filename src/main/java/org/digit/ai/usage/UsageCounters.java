@@ -0,0 +1,46 @@
+package org.digit.ai.usage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters for one session, tenant or the whole service, so
+ * concurrent calls from many threads do not contend on one cache line.
+ */
+final class UsageCounters {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder promptTokens = new LongAdder();
+    private final LongAdder completionTokens = new LongAdder();
+    private final LongAdder totalTokens = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+
+    void add(LlmUsage usage) {
+        calls.increment();
+        promptTokens.add(usage.promptTokens());
+        completionTokens.add(usage.completionTokens());
+        totalTokens.add(usage.totalTokens());
+        wallNanos.add(usage.wallNanos());
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    long totalTokens() {
+        return totalTokens.sum();
+    }
+
+    long wallNanos() {
+        return wallNanos.sum();
+    }
+
+    UsageSnapshot snapshot() {
+        return new UsageSnapshot(
+            calls.sum(),
+            promptTokens.sum(),
+            completionTokens.sum(),
+            totalTokens.sum(),
+            wallNanos.sum() / 1_000_000
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package org.digit.ai.usage;
+
+public record UsageSnapshot(
+        long calls,
+        long promptTokens,
+        long completionTokens,
+        long totalTokens,
+        long wallMillis
+) {
+
+    public static final UsageSnapshot EMPTY = new UsageSnapshot(0, 0, 0, 0, 0);
+}
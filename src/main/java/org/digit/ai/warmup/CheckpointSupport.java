@@ -0,0 +1,169 @@
+package org.digit.ai.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.crac.management.CRaCMXBean;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.audit.AuditLog;
+import org.digit.ai.digit.DigitClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Coordinated Restore at Checkpoint (CRaC) hooks.
+ *
+ * With org.crac on the classpath Spring stops the running lifecycle
+ * beans before a checkpoint and starts them again after restore. This
+ * bean's phase is below the web server's, so it stops once the server
+ * has stopped taking requests and starts before it takes them again.
+ * Stopping closes pooled OpenAI and DIGIT connections and the open
+ * audit file, none of which a checkpoint can capture; starting opens
+ * the connections again, so a restored instance serves its first
+ * request with warm connections as well as the compiled code and
+ * caches from warm-up.
+ *
+ * With {@code checkpointAfterWarmup} the process checkpoints itself
+ * once the application is ready, i.e. after {@link StartupWarmup}.
+ * The time from restore to the first handled request is exported as
+ * digit.crac.restore.first-response.
+ */
+public class CheckpointSupport implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointSupport.class);
+
+    // Web server lifecycles use DEFAULT_PHASE - 1024 and - 2048
+    static final int PHASE = DEFAULT_PHASE - 4096;
+
+    private final AiToolSelector selector;
+    private final DigitClient digitClient;
+    private final AuditLog auditLog;
+    private final boolean checkpointAfterWarmup;
+    private final LongSupplier restoreTimeMillis;
+
+    private volatile boolean running;
+    private volatile boolean stoppedBefore;
+    private volatile boolean awaitingFirstResponse;
+    private volatile long firstResponseMillis;
+
+    public CheckpointSupport(
+            AiToolSelector selector,
+            DigitClient digitClient,
+            AuditLog auditLog,
+            MeterRegistry meterRegistry,
+            boolean checkpointAfterWarmup
+    ) {
+        this(
+            selector,
+            digitClient,
+            auditLog,
+            meterRegistry,
+            checkpointAfterWarmup,
+            () -> CRaCMXBean.getCRaCMXBean().getRestoreTime()
+        );
+    }
+
+    CheckpointSupport(
+            AiToolSelector selector,
+            DigitClient digitClient,
+            AuditLog auditLog,
+            MeterRegistry meterRegistry,
+            boolean checkpointAfterWarmup,
+            LongSupplier restoreTimeMillis
+    ) {
+        this.selector = selector;
+        this.digitClient = digitClient;
+        this.auditLog = auditLog;
+        this.checkpointAfterWarmup = checkpointAfterWarmup;
+        this.restoreTimeMillis = restoreTimeMillis;
+
+        TimeGauge.builder(
+            "digit.crac.restore.first-response", this, TimeUnit.MILLISECONDS, c -> c.firstResponseMillis
+        ).register(meterRegistry);
+    }
+
+    /**
+     * Before a checkpoint (and at shutdown): release sockets and files.
+     */
+    @Override
+    public void stop() {
+        selector.evictConnections();
+        if (digitClient != null) {
+            digitClient.evictConnections();
+        }
+        if (auditLog != null) {
+            auditLog.closeCurrentFile();
+        }
+        stoppedBefore = true;
+        running = false;
+    }
+
+    /**
+     * At startup nothing to do; after a restore, reconnect before the
+     * web server starts again.
+     */
+    @Override
+    public void start() {
+        if (stoppedBefore) {
+            long start = System.nanoTime();
+            selector.preconnect();
+            if (digitClient != null) {
+                digitClient.preconnect();
+            }
+            awaitingFirstResponse = true;
+            log.info("Reconnected after restore in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkpointIfRequested() {
+        if (!checkpointAfterWarmup) {
+            return;
+        }
+        log.info("Warm-up done, taking checkpoint");
+        try {
+            Core.checkpointRestore();
+        } catch (UnsupportedOperationException e) {
+            log.warn("Checkpoint skipped: this JVM has no CRaC support");
+        } catch (CheckpointException | RestoreException e) {
+            log.warn("Checkpoint failed, continuing without one", e);
+        }
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void onRequestHandled() {
+        if (!awaitingFirstResponse) {
+            return;
+        }
+        awaitingFirstResponse = false;
+        long restoredAt = restoreTimeMillis.getAsLong();
+        if (restoredAt > 0) {
+            firstResponseMillis = System.currentTimeMillis() - restoredAt;
+            log.info("First response {} ms after restore", firstResponseMillis);
+        }
+    }
+
+    public long firstResponseMillis() {
+        return firstResponseMillis;
+    }
+}
@@ -0,0 +1,172 @@
+package org.digit.ai.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.mcp.AllowedToolsResponse;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.state.AccountState;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.state.RoleState;
+import org.digit.ai.state.UserState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the service up before it reports ready.
+ *
+ * Runs as an {@link ApplicationRunner}, so it finishes before Spring
+ * publishes the readiness state ACCEPTING_TRAFFIC. It opens pooled
+ * connections to OpenAI and DIGIT, runs the decision path for every
+ * allowed-tools set reachable from the 2^10 combinations of
+ * {@link ConfigState} flags (filling the prompt cache and giving the
+ * JIT real work), adds any sets from the previous run's snapshot, and
+ * exercises the resolver and JSON encoding. The snapshot is rewritten
+ * on shutdown; the elapsed time is exported as digit.warmup.duration.
+ */
+public class StartupWarmup implements ApplicationRunner, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int STATE_FLAGS = 10;
+
+    private final AiToolSelector selector;
+    private final AllowedToolsResolver resolver;
+    private final DigitClient digitClient;
+    private final ObjectMapper objectMapper;
+    private final Path snapshot;
+    private final int iterations;
+    private volatile long durationMillis;
+
+    public StartupWarmup(
+            AiToolSelector selector,
+            AllowedToolsResolver resolver,
+            DigitClient digitClient,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Path snapshot,
+            int iterations
+    ) {
+        this.selector = selector;
+        this.resolver = resolver;
+        this.digitClient = digitClient;
+        this.objectMapper = objectMapper;
+        this.snapshot = snapshot;
+        this.iterations = iterations;
+
+        TimeGauge.builder("digit.warmup.duration", this, TimeUnit.MILLISECONDS, w -> w.durationMillis)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+
+        selector.preconnect();
+        if (digitClient != null) {
+            digitClient.preconnect();
+        }
+
+        List<ConfigState> states = new ArrayList<>();
+        Set<List<String>> toolSets = new LinkedHashSet<>();
+        for (int bits = 0; bits < 1 << STATE_FLAGS; bits++) {
+            ConfigState state = state(bits);
+            states.add(state);
+            toolSets.add(resolver.resolve(state));
+        }
+        List<List<String>> snapshotSets = readSnapshot();
+        toolSets.addAll(snapshotSets);
+
+        selector.warmUp(toolSets, iterations);
+
+        long[] allowed = resolver.graph().newToolSet();
+        for (int i = 0; i < iterations; i++) {
+            for (ConfigState state : states) {
+                resolver.resolve(state, allowed);
+            }
+        }
+        for (int i = 0; i < iterations; i++) {
+            for (List<String> tools : toolSets) {
+                objectMapper.writeValueAsBytes(new AllowedToolsResponse(tools));
+            }
+            objectMapper.writeValueAsBytes(new ToolExecuteResponse(true, "Executed: account.create"));
+        }
+
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info(
+            "Warm-up finished in {} ms ({} states, {} tool sets, {} from snapshot)",
+            durationMillis, states.size(), toolSets.size(), snapshotSets.size()
+        );
+    }
+
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Save the tool sets seen in this run for the next start.
+     */
+    @Override
+    public void destroy() {
+        List<String> lines = selector.cachedToolSets().stream()
+            .map(tools -> String.join(",", tools))
+            .toList();
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(snapshot.toAbsolutePath().getParent());
+            Files.write(snapshot, lines);
+        } catch (IOException e) {
+            log.warn("Could not write warm-up snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private List<List<String>> readSnapshot() {
+        if (!Files.isReadable(snapshot)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(snapshot).stream()
+                .map(line -> line.isBlank() ? List.<String>of() : Arrays.asList(line.split(",")))
+                .toList();
+        } catch (IOException e) {
+            log.warn("Could not read warm-up snapshot {}: {}", snapshot, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Synthetic state with one flag per bit.
+     */
+    static ConfigState state(int bits) {
+        return new ConfigState(
+            new AccountState((bits & 1) != 0, (bits & 1 << 1) != 0, null, null),
+            (bits & 1 << 2) != 0,
+            (bits & 1 << 3) != 0,
+            (bits & 1 << 4) != 0,
+            (bits & 1 << 5) != 0,
+            (bits & 1 << 6) != 0,
+            new UserState((bits & 1 << 7) != 0),
+            new RoleState((bits & 1 << 8) != 0),
+            (bits & 1 << 9) != 0,
+            0
+        );
+    }
+}
@@ -11,10 +11,10 @@ public class AccountConfigureToolTest {
     @Test
     public void shouldMarkAccountAsConfiguredAndSetToken() {
         ConfigState state = new ConfigState();
-        state.getAccount().setCreated(true);
+        state = state.withAccount(state.getAccount().withCreated(true));
 
         AccountConfigureTool tool = new AccountConfigureTool();
-        tool.execute(state);
+        state = tool.apply(state);
 
         assertThat(state.getAccount().isConfigured()).isTrue();
         assertThat(state.getAccount().getAccessToken()).isNotBlank();
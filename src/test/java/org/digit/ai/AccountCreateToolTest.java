@@ -13,7 +13,7 @@ public class AccountCreateToolTest {
         ConfigState state = new ConfigState();
         AccountCreateTool tool = new AccountCreateTool();
 
-        tool.execute(state);
+        state = tool.apply(state);
 
         assertThat(state.getAccount().isCreated()).isTrue();
     }
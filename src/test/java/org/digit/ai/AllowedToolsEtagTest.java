@@ -0,0 +1,156 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.McpController;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AllowedToolsEtagTest {
+
+    private final SessionStore sessions = new SessionStore();
+    private final ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+        new AllowedToolsResolver(),
+        new ToolRegistry(List.of(tool("account.create", true), tool("account.configure", false)))
+    );
+    private final ConversationService conversations = new ConversationService(
+        orchestrator,
+        null,
+        sessions,
+        new IdempotencyCache<>(Duration.ofMinutes(1), 10),
+        null,
+        LlmUsageTracker.unlimited(),
+        300,
+        null
+    );
+    private final MockMvc mvc = MockMvcBuilders
+        .standaloneSetup(new McpController(conversations, orchestrator, null, sessions, 4, null))
+        .build();
+
+    @Test
+    public void shouldAnswerMatchingIfNoneMatchWith304() throws Exception {
+        String etag = mvc.perform(get("/mcp/allowed-tools").header("X-Session-Id", "s1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tools[0]").value("account.create"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(etag).startsWith("\"0-");
+        mvc.perform(get("/mcp/allowed-tools").header("X-Session-Id", "s1").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag))
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void shouldChangeEtagWhenToolExecutionChangesState() throws Exception {
+        String before = mvc.perform(get("/mcp/allowed-tools").header("X-Session-Id", "s2"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        orchestrator.executeAsync("account.create", sessions.getSession("s2")).join();
+
+        mvc.perform(get("/mcp/allowed-tools").header("X-Session-Id", "s2").header("If-None-Match", before))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", startsWith("\"1-")))
+            .andExpect(jsonPath("$.tools[0]").value("account.configure"));
+    }
+
+    @Test
+    public void shouldReuseSerializedBodyUntilVersionChanges() {
+        ConversationSession.CachedView first = conversations.allowedToolsView("s3");
+        assertThat(conversations.allowedToolsView("s3")).isSameAs(first);
+
+        orchestrator.executeAsync("account.create", sessions.getSession("s3")).join();
+
+        ConversationSession.CachedView second = conversations.allowedToolsView("s3");
+        assertThat(second.version()).isEqualTo(1);
+        assertThat(second.eTag()).isNotEqualTo(first.eTag());
+    }
+
+    @Test
+    public void shouldNotBumpVersionWhenToolFails() {
+        ConversationSession session = sessions.getSession("s4");
+        orchestrator.executeAsync("account.create", session).join();
+
+        ToolResult failed = orchestrator.executeAsync("account.configure", session).join();
+
+        assertThat(failed.isSuccess()).isFalse();
+        assertThat(session.getState().getVersion()).isEqualTo(1);
+    }
+
+    /**
+     * Cost of one poll: resolving and serializing on every request
+     * versus the per-version cached body.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkPolling() {
+        int polls = 200_000;
+        conversations.allowedToolsView("bench");
+        ConversationSession session = sessions.getSession("bench");
+
+        long uncached = 0;
+        long cached = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < polls; i++) {
+                session.setAllowedToolsView(null);
+                conversations.allowedToolsView("bench");
+            }
+            uncached = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < polls; i++) {
+                conversations.allowedToolsView("bench");
+            }
+            cached = System.nanoTime() - start;
+        }
+
+        assertThat(cached).isLessThan(uncached);
+    }
+
+    private static ToolHandler tool(String name, boolean succeeds) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+
+            @Override
+            public CompletionStage<ToolResult> executeAsync(ConfigState state, Map<String, Object> arguments) {
+                return CompletableFuture.completedFuture(succeeds
+                    ? ToolResult.success(name, this::apply)
+                    : ToolResult.failed(name, "DIGIT unavailable"));
+            }
+        };
+    }
+}
@@ -24,7 +24,7 @@ public class AllowedToolsResolverTest {
     @Test
     public void shouldOnlyAllowAccountConfigurationAfterCreation() {
         ConfigState state = new ConfigState();
-        state.getAccount().setCreated(true);
+        state = state.withAccount(state.getAccount().withCreated(true));
 
         List<String> tools = resolver.resolve(state);
 
@@ -34,8 +34,8 @@ public class AllowedToolsResolverTest {
     @Test
     public void shouldAllowIndependentConfigurationsAfterAccountConfigured() {
         ConfigState state = new ConfigState();
-        state.getAccount().setCreated(true);
-        state.getAccount().setConfigured(true);
+        state = state.withAccount(state.getAccount().withCreated(true));
+        state = state.withAccount(state.getAccount().withConfigured(true));
 
         List<String> tools = resolver.resolve(state);
 
@@ -53,10 +53,10 @@ public class AllowedToolsResolverTest {
     @Test
     public void shouldAllowRoleAssignmentOnlyAfterUserAndRoleCreated() {
         ConfigState state = new ConfigState();
-        state.getAccount().setCreated(true);
-        state.getAccount().setConfigured(true);
-        state.getUser().setCreated(true);
-        state.getRole().setCreated(true);
+        state = state.withAccount(state.getAccount().withCreated(true));
+        state = state.withAccount(state.getAccount().withConfigured(true));
+        state = state.withUser(state.getUser().withCreated(true));
+        state = state.withRole(state.getRole().withCreated(true));
 
         List<String> tools = resolver.resolve(state);
 
@@ -66,11 +66,11 @@ public class AllowedToolsResolverTest {
     @Test
     public void shouldNotAllowRoleAssignmentIfAlreadyDone() {
         ConfigState state = new ConfigState();
-        state.getAccount().setCreated(true);
-        state.getAccount().setConfigured(true);
-        state.getUser().setCreated(true);
-        state.getRole().setCreated(true);
-        state.setRoleAssignmentDone(true);
+        state = state.withAccount(state.getAccount().withCreated(true));
+        state = state.withAccount(state.getAccount().withConfigured(true));
+        state = state.withUser(state.getUser().withCreated(true));
+        state = state.withRole(state.getRole().withCreated(true));
+        state = state.withRoleAssignmentDone(true);
 
         List<String> tools = resolver.resolve(state);
 
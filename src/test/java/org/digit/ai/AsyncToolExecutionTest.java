@@ -0,0 +1,184 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.digit.ai.tools.user.UserCreateTool;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncToolExecutionTest {
+
+    @Test
+    public void shouldApplyStateWhenCallSucceeds() {
+        ConversationSession session = new ConversationSession();
+        ConversationOrchestrator orchestrator = orchestrator(new AccountCreateTool());
+
+        ToolResult result = orchestrator.executeAsync("account.create", session).join();
+
+        assertThat(result.status()).isEqualTo(ToolResult.Status.SUCCESS);
+        assertThat(session.getState().getAccount().isCreated()).isTrue();
+    }
+
+    @Test
+    public void shouldApplyStateOnlyAfterCompletion() {
+        ConversationSession session = new ConversationSession();
+        CompletableFuture<ToolResult> remote = new CompletableFuture<>();
+        ConversationOrchestrator orchestrator = orchestrator(pendingTool(remote));
+
+        CompletableFuture<ToolResult> result = orchestrator.executeAsync("account.create", session);
+
+        assertThat(result).isNotDone();
+        assertThat(session.getState().getAccount().isCreated()).isFalse();
+
+        remote.complete(ToolResult.success("account.create", s -> s.withAccount(s.getAccount().withCreated(true))));
+
+        assertThat(result.join().isSuccess()).isTrue();
+        assertThat(session.getState().getAccount().isCreated()).isTrue();
+    }
+
+    @Test
+    public void shouldNotApplyStateWhenCallFails() {
+        ConversationSession session = new ConversationSession();
+        CompletableFuture<ToolResult> remote = new CompletableFuture<>();
+        ConversationOrchestrator orchestrator = orchestrator(pendingTool(remote));
+
+        CompletableFuture<ToolResult> result = orchestrator.executeAsync("account.create", session);
+        remote.completeExceptionally(new IllegalStateException("DIGIT unavailable"));
+
+        assertThat(result.join().status()).isEqualTo(ToolResult.Status.FAILED);
+        assertThat(result.join().message()).contains("DIGIT unavailable");
+        assertThat(session.getState().getAccount().isCreated()).isFalse();
+    }
+
+    @Test
+    public void shouldTimeOutWithoutApplyingState() {
+        ConversationSession session = new ConversationSession();
+        CompletableFuture<ToolResult> remote = new CompletableFuture<>();
+        ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(List.of(pendingTool(remote))),
+            Duration.ofMillis(50)
+        );
+
+        ToolResult result = orchestrator.executeAsync("account.create", session).join();
+
+        assertThat(result.status()).isEqualTo(ToolResult.Status.TIMED_OUT);
+        assertThat(remote).isCompletedExceptionally();
+        assertThat(session.getState().getAccount().isCreated()).isFalse();
+    }
+
+    @Test
+    public void shouldPropagateCancellationAndDiscardUpdate() {
+        ConversationSession session = new ConversationSession();
+        CompletableFuture<ToolResult> remote = new CompletableFuture<>();
+        ConversationOrchestrator orchestrator = orchestrator(pendingTool(remote));
+
+        CompletableFuture<ToolResult> result = orchestrator.executeAsync("account.create", session);
+        result.cancel(true);
+
+        assertThat(remote).isCancelled();
+        assertThat(session.getState().getAccount().isCreated()).isFalse();
+    }
+
+    @Test
+    public void shouldRejectDisallowedToolEagerly() {
+        ConversationSession session = new ConversationSession();
+        ConversationOrchestrator orchestrator = orchestrator(new AccountCreateTool());
+
+        assertThatThrownBy(() ->
+            orchestrator.executeAsync("account.configure", session)
+        ).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldSimulateToolWithoutItsArguments() {
+        ConversationSession session = new ConversationSession();
+        session.updateState(s -> s.withAccount(s.getAccount().withCreated(true).withConfigured(true)));
+        ConversationOrchestrator orchestrator = orchestrator(new UserCreateTool());
+
+        ToolResult created = orchestrator.executeAsync("user.create", session).join();
+
+        assertThat(created.status()).isEqualTo(ToolResult.Status.SUCCESS);
+        assertThat(session.getState().getUser().isCreated()).isTrue();
+    }
+
+    @Test
+    public void shouldNotCallToolWithMissingRequiredArguments() {
+        ConversationSession session = new ConversationSession();
+        session.updateState(s -> s.withAccount(s.getAccount().withCreated(true).withConfigured(true)));
+        ConversationOrchestrator orchestrator = orchestrator(needingArguments(new UserCreateTool()));
+
+        ToolResult rejected = orchestrator.executeAsync("user.create", session).join();
+
+        assertThat(rejected.status()).isEqualTo(ToolResult.Status.FAILED);
+        assertThat(rejected.message()).contains("missing userName");
+        assertThat(session.getState().getUser().isCreated()).isFalse();
+
+        ToolResult created = orchestrator.executeAsync("user.create", session, Map.of("userName", "asha")).join();
+
+        assertThat(created.status()).isEqualTo(ToolResult.Status.SUCCESS);
+        assertThat(session.getState().getUser().isCreated()).isTrue();
+    }
+
+    private ConversationOrchestrator orchestrator(ToolHandler tool) {
+        return new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(List.of(tool))
+        );
+    }
+
+    /**
+     * The tool as it behaves against DIGIT, where its arguments are required.
+     */
+    private ToolHandler needingArguments(ToolHandler delegate) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return delegate.name();
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return delegate.apply(state);
+            }
+
+            @Override
+            public Map<String, Object> parameters() {
+                return delegate.parameters();
+            }
+        };
+    }
+
+    private ToolHandler pendingTool(CompletableFuture<ToolResult> remote) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+
+            @Override
+            public CompletionStage<ToolResult> executeAsync(ConfigState state) {
+                return remote;
+            }
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package org.digit.ai;
+
+import org.digit.ai.audit.AuditLog;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldWriteEventsInOrderAsCompressedJsonLines() throws Exception {
+        AuditLog log = new AuditLog(directory, 1024, 1 << 20, 64);
+
+        log.publish("decision", "s1", "pb.amritsar", "account.create", "EXPLAIN", null);
+        log.publish("tool", null, "pb.amritsar", "account.create", "SUCCESS", "Executed: \"account.create\"");
+        log.close();
+
+        List<String> lines = readAll();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"type\":\"decision\"", "\"sessionId\":\"s1\"", "\"outcome\":\"EXPLAIN\"");
+        assertThat(lines.get(1)).contains("\"detail\":\"Executed: \\\"account.create\\\"\"");
+        assertThat(log.written()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRotateFilesBySize() throws Exception {
+        AuditLog log = new AuditLog(directory, 1024, 2_000, 64);
+
+        for (int i = 0; i < 100; i++) {
+            log.publish("tool", "s" + i, "pb", "idgen.configure", "SUCCESS", "Executed: idgen.configure");
+        }
+        log.close();
+
+        assertThat(files()).hasSizeGreaterThan(1);
+        assertThat(readAll()).hasSize(100);
+    }
+
+    @Test
+    public void shouldDropAndCountWhenBufferIsFull() throws Exception {
+        AuditLog log = new AuditLog(directory, 8, 1 << 20, 8);
+        int events = 200_000;
+
+        IntStream.range(0, events).parallel()
+            .forEach(i -> log.publish("tool", "s", "pb", "role.assign", "SUCCESS", null));
+        log.close();
+
+        assertThat(log.dropped()).isPositive();
+        assertThat(log.written() + log.dropped()).isEqualTo(events);
+        assertThat(readAll()).hasSize((int) log.written());
+    }
+
+    @Test
+    public void shouldResumeInANewFileAfterAWriteFailure() throws Exception {
+        Path blocked = directory.resolve("audit");
+        Files.writeString(blocked, "not a directory");
+        AuditLog log = new AuditLog(blocked, 1024, 1 << 20, 64);
+
+        log.publish("tool", "s1", "pb", "account.create", "SUCCESS", null);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (log.dropped() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(log.dropped()).isEqualTo(1);
+
+        Files.delete(blocked);
+        while (log.written() == 0 && System.nanoTime() < deadline) {
+            log.publish("tool", "s1", "pb", "account.configure", "SUCCESS", null);
+            Thread.sleep(50);
+        }
+        log.close();
+
+        assertThat(log.written()).isPositive();
+        assertThat(Files.isDirectory(blocked)).isTrue();
+    }
+
+    @Test
+    public void shouldRecordTheSessionOfToolEvents() throws Exception {
+        AuditLog log = new AuditLog(directory, 1024, 1 << 20, 64);
+        ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(List.of(new AccountCreateTool())),
+            Duration.ofSeconds(5),
+            log
+        );
+
+        orchestrator.executeAsync("account.create", new SessionStore().getSession("s7")).join();
+        log.close();
+
+        assertThat(readAll()).singleElement().asString()
+            .contains("\"type\":\"tool\"", "\"sessionId\":\"s7\"", "\"tool\":\"account.create\"");
+    }
+
+    /**
+     * Publish cost on the request path: bursts smaller than the ring,
+     * letting the writer drain between bursts so nothing is dropped.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkPublish() throws Exception {
+        AuditLog log = new AuditLog(directory, 1 << 16, 64L << 20, 512);
+        int burst = 32_768;
+        int rounds = 20;
+        long publishNanos = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < burst; i++) {
+                log.publish("decision", "s1", "pb", "workflow.configure", "EXPLAIN", null);
+            }
+            publishNanos += System.nanoTime() - start;
+            while (log.written() < (long) burst * (round + 1)) {
+                Thread.sleep(1);
+            }
+        }
+        log.close();
+
+        double nanosPerPublish = publishNanos / (double) (burst * rounds);
+        assertThat(log.dropped()).isZero();
+        assertThat(nanosPerPublish).isLessThan(1_000);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private List<String> readAll() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : files()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(lines::add);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,205 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.onboarding.BulkOnboardingService;
+import org.digit.ai.onboarding.BulkOnboardingSummary;
+import org.digit.ai.onboarding.TenantProgress;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.account.AccountConfigureTool;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.digit.ai.tools.boundary.BoundaryConfigureTool;
+import org.digit.ai.tools.idgen.IdGenConfigureTool;
+import org.digit.ai.tools.notification.NotificationConfigureTool;
+import org.digit.ai.tools.registry.RegistryConfigureTool;
+import org.digit.ai.tools.role.RoleAssignTool;
+import org.digit.ai.tools.role.RoleCreateTool;
+import org.digit.ai.tools.user.UserCreateTool;
+import org.digit.ai.tools.workflow.WorkflowConfigureTool;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkOnboardingServiceTest {
+
+    private final SessionStore sessionStore = new SessionStore();
+    private final Queue<TenantProgress> events = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, Boolean> running = new ConcurrentHashMap<>();
+    private volatile int maxRunningTenants;
+
+    @Test
+    public void shouldOnboardEveryTenantAndIsolateFailures() {
+        List<String> tenants = IntStream.range(0, 20).mapToObj(i -> "pb.city" + i).toList();
+        List<String> wave = new ArrayList<>(tenants);
+        wave.add("pb.broken");
+
+        BulkOnboardingSummary summary = service(4).onboard(wave, arguments(wave), events::add).join();
+
+        assertThat(summary.tenants()).isEqualTo(21);
+        assertThat(summary.completed()).isEqualTo(20);
+        assertThat(summary.failedTenants()).containsExactly("pb.broken");
+
+        ConfigState onboarded = sessionStore.getSession(BulkOnboardingService.SESSION_PREFIX + "pb.city7").getState();
+        assertThat(onboarded.isRoleAssignmentDone()).isTrue();
+        assertThat(onboarded.getAccount().getTenantId()).isEqualTo("pb.city7");
+    }
+
+    @Test
+    public void shouldNotTouchTheChatSessionOfTheSameId() {
+        sessionStore.getSession("pb.amritsar").setPendingAction("account.create");
+
+        service(2).onboard(List.of("pb.amritsar"), arguments(List.of("pb.amritsar")), events::add).join();
+
+        assertThat(sessionStore.getSession("pb.amritsar").getPendingAction()).isEqualTo("account.create");
+        assertThat(sessionStore.getSession("pb.amritsar").getState().getAccount().isCreated()).isFalse();
+    }
+
+    @Test
+    public void shouldReportAlreadyOnboardedTenants() {
+        service(2).onboard(List.of("pb.amritsar"), arguments(List.of("pb.amritsar")), events::add).join();
+        events.clear();
+
+        BulkOnboardingSummary summary = service(2).onboard(List.of("pb.amritsar"), arguments(List.of("pb.amritsar")), events::add).join();
+
+        assertThat(summary.completed()).isZero();
+        assertThat(summary.alreadyOnboarded()).isEqualTo(1);
+        assertThat(summary.failedTenants()).isEmpty();
+        assertThat(events).extracting(TenantProgress::status)
+            .containsExactly(TenantProgress.Status.STARTED, TenantProgress.Status.ALREADY_ONBOARDED);
+    }
+
+    @Test
+    public void shouldResumeATenantThatFailedForMissingArguments() {
+        BulkOnboardingSummary first = service(2).onboard(List.of("pb.amritsar"), Map.of(), events::add).join();
+
+        assertThat(first.failedTenants()).containsExactly("pb.amritsar");
+        ConfigState partial = sessionStore.getSession(BulkOnboardingService.SESSION_PREFIX + "pb.amritsar").getState();
+        assertThat(partial.isWorkflowConfigured()).isTrue();
+        assertThat(partial.getUser().isCreated()).isFalse();
+
+        BulkOnboardingSummary second = service(2)
+            .onboard(List.of("pb.amritsar"), arguments(List.of("pb.amritsar")), events::add)
+            .join();
+        BulkOnboardingSummary third = service(2)
+            .onboard(List.of("pb.amritsar"), arguments(List.of("pb.amritsar")), events::add)
+            .join();
+
+        assertThat(second.completed()).isEqualTo(1);
+        assertThat(third.alreadyOnboarded()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldStreamStartAndFinishPerTenant() {
+        service(2).onboard(List.of("pb.amritsar", "pb.jalandhar"), arguments(List.of("pb.amritsar", "pb.jalandhar")), events::add).join();
+
+        assertThat(events).hasSize(4);
+        assertThat(events)
+            .filteredOn(e -> e.status() == TenantProgress.Status.COMPLETED)
+            .extracting(TenantProgress::tenantId)
+            .containsExactlyInAnyOrder("pb.amritsar", "pb.jalandhar");
+    }
+
+    @Test
+    public void shouldBoundConcurrentTenants() {
+        List<String> tenants = IntStream.range(0, 12).mapToObj(i -> "pb.city" + i).toList();
+
+        service(3).onboard(tenants, arguments(tenants), event -> {
+            if (event.status() == TenantProgress.Status.STARTED) {
+                running.put(event.tenantId(), true);
+                maxRunningTenants = Math.max(maxRunningTenants, running.size());
+            } else {
+                running.remove(event.tenantId());
+            }
+        }).join();
+
+        assertThat(maxRunningTenants).isLessThanOrEqualTo(3);
+    }
+
+    /**
+     * Each tenant's administrator and role, as an onboarding request carries them.
+     */
+    private static Map<String, Map<String, Map<String, Object>>> arguments(List<String> tenants) {
+        Map<String, Map<String, Map<String, Object>>> arguments = new HashMap<>();
+        for (String tenant : tenants) {
+            String admin = "admin." + tenant;
+            arguments.put(tenant, Map.of(
+                "user.create", Map.of("userName", admin),
+                "role.create", Map.of("code", "EMPLOYEE"),
+                "role.assign", Map.of("userName", admin, "roleCode", "EMPLOYEE")
+            ));
+        }
+        return arguments;
+    }
+
+    private BulkOnboardingService service(int tenantParallelism) {
+        List<ToolHandler> tools = List.of(
+            new AccountCreateTool(),
+            new AccountConfigureTool(),
+            new IdGenConfigureTool(),
+            new WorkflowConfigureTool(),
+            new NotificationConfigureTool(),
+            new BoundaryConfigureTool(),
+            new RegistryConfigureTool(),
+            new UserCreateTool(),
+            new RoleCreateTool(),
+            new RoleAssignTool()
+        );
+
+        ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(tools.stream().map(this::remote).toList())
+        );
+        return new BulkOnboardingService(orchestrator, sessionStore, tenantParallelism, 4);
+    }
+
+    /**
+     * The registered tool as it behaves against DIGIT: its required
+     * arguments are checked and the call takes a few milliseconds.
+     * workflow.configure fails for the "pb.broken" tenant.
+     */
+    private ToolHandler remote(ToolHandler delegate) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return delegate.name();
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return delegate.apply(state);
+            }
+
+            @Override
+            public Map<String, Object> parameters() {
+                return delegate.parameters();
+            }
+
+            @Override
+            public CompletionStage<ToolResult> executeAsync(ConfigState state, Map<String, Object> arguments) {
+                String tenant = state.getAccount().getTenantId();
+                return CompletableFuture.supplyAsync(() -> {
+                    if (name().equals("workflow.configure") && "pb.broken".equals(tenant)) {
+                        throw new IllegalStateException("workflow service rejected tenant");
+                    }
+                    return ToolResult.success(name(), this::apply);
+                }, CompletableFuture.delayedExecutor(2, TimeUnit.MILLISECONDS));
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package org.digit.ai.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.audit.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CheckpointSupportTest {
+
+    @TempDir
+    Path directory;
+
+    private final CountingSelector selector = new CountingSelector();
+
+    @Test
+    public void shouldReleaseConnectionsAndAuditFileBeforeCheckpoint() throws Exception {
+        AuditLog auditLog = new AuditLog(directory, 1024, 1 << 20, 64);
+        CheckpointSupport checkpoint = support(auditLog, () -> 0);
+        checkpoint.start();
+
+        auditLog.publish("decision", "s1", "pb", "account.create", "EXPLAIN", null);
+        awaitWritten(auditLog, 1);
+        checkpoint.stop();
+
+        // the closed file is a complete gzip stream
+        assertThat(files()).hasSize(1);
+        assertThat(read(files().get(0))).contains("\"sessionId\":\"s1\"");
+        assertThat(selector.evictions).isEqualTo(1);
+        assertThat(checkpoint.isRunning()).isFalse();
+
+        // after restore the next event opens a new file
+        checkpoint.start();
+        auditLog.publish("decision", "s2", "pb", "account.create", "EXPLAIN", null);
+        auditLog.close();
+        assertThat(files()).hasSize(2);
+    }
+
+    @Test
+    public void shouldReconnectOnlyAfterRestore() {
+        CheckpointSupport checkpoint = support(null, () -> 0);
+
+        checkpoint.start();
+        assertThat(selector.preconnects).isZero();
+
+        checkpoint.stop();
+        checkpoint.start();
+        assertThat(selector.preconnects).isEqualTo(1);
+        assertThat(checkpoint.isRunning()).isTrue();
+    }
+
+    @Test
+    public void shouldMeasureFirstResponseAfterRestore() {
+        long restoredAt = System.currentTimeMillis() - 40;
+        CheckpointSupport checkpoint = support(null, () -> restoredAt);
+
+        checkpoint.onRequestHandled();
+        assertThat(checkpoint.firstResponseMillis()).isZero();
+
+        checkpoint.start();
+        checkpoint.stop();
+        checkpoint.start();
+        checkpoint.onRequestHandled();
+        long first = checkpoint.firstResponseMillis();
+        checkpoint.onRequestHandled();
+
+        assertThat(first).isGreaterThanOrEqualTo(40);
+        assertThat(checkpoint.firstResponseMillis()).isEqualTo(first);
+    }
+
+    @Test
+    public void shouldContinueWithoutCheckpointOnPlainJvm() {
+        CheckpointSupport checkpoint = new CheckpointSupport(
+            selector, null, null, new SimpleMeterRegistry(), true
+        );
+
+        checkpoint.checkpointIfRequested();
+
+        assertThat(selector.evictions).isZero();
+    }
+
+    private CheckpointSupport support(AuditLog auditLog, LongSupplier restoreTime) {
+        return new CheckpointSupport(selector, null, auditLog, new SimpleMeterRegistry(), false, restoreTime);
+    }
+
+    private void awaitWritten(AuditLog auditLog, long events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (auditLog.written() < events && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private String read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class CountingSelector implements AiToolSelector {
+
+        int preconnects;
+        int evictions;
+
+        @Override
+        public AiDecision decide(String userMessage, List<String> allowedTools) {
+            return AiDecision.explain("unused");
+        }
+
+        @Override
+        public void preconnect() {
+            preconnects++;
+        }
+
+        @Override
+        public void evictConnections() {
+            evictions++;
+        }
+    }
+}
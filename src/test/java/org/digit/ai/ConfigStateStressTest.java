@@ -0,0 +1,195 @@
+package org.digit.ai;
+
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.state.ConfigState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * jcstress-style checks of ConversationSession.updateState: each round
+ * starts the actors together on a fresh session, the arbiter records
+ * an outcome, and forbidden outcomes must never be observed.
+ */
+public class ConfigStateStressTest {
+
+    private static final int ROUNDS = 5_000;
+
+    private static final List<UnaryOperator<ConfigState>> INDEPENDENT = List.of(
+        s -> s.withIdGenConfigured(true),
+        s -> s.withWorkflowConfigured(true),
+        s -> s.withNotificationConfigured(true),
+        s -> s.withBoundaryConfigured(true),
+        s -> s.withRegistrySchemaConfigured(true),
+        s -> s.withUser(s.getUser().withCreated(true))
+    );
+
+    /**
+     * Concurrent transitions of different fields: none is lost, and
+     * every one is published under its own version.
+     */
+    @Test
+    public void shouldNotLoseConcurrentTransitions() throws Exception {
+        Map<String, Long> outcomes = run(INDEPENDENT.size(), 0, (session, actor, observed) -> {
+            observed[actor] = session.updateState(INDEPENDENT.get(actor)).getVersion();
+        }, (session, observed) -> {
+            ConfigState state = session.getState();
+            boolean all = state.isIdGenConfigured() && state.isWorkflowConfigured()
+                && state.isNotificationConfigured() && state.isBoundaryConfigured()
+                && state.isRegistrySchemaConfigured() && state.getUser().isCreated();
+            long distinct = Arrays.stream(observed).distinct().count();
+            return (all ? "all-applied" : "LOST-UPDATE")
+                + ", version " + state.getVersion()
+                + (distinct == observed.length ? ", versions unique" : ", VERSION-REUSED");
+        });
+
+        assertThat(outcomes).containsOnlyKeys("all-applied, version " + INDEPENDENT.size() + ", versions unique");
+    }
+
+    /**
+     * Readers racing transitions that each flip two fields together see
+     * both or neither flipped, and never a version going backwards. A
+     * state mutated field by field would show them apart in between.
+     */
+    @Test
+    public void shouldNeverExposeTornState() throws Exception {
+        int flips = 1_000;
+        Map<String, Long> outcomes = run(1, 2, (session, actor, observed) -> {
+            for (int i = 0; i < flips; i++) {
+                session.updateState(s -> s
+                    .withUser(s.getUser().withCreated(!s.getUser().isCreated()))
+                    .withRole(s.getRole().withCreated(!s.getRole().isCreated())));
+            }
+        }, null, (session, reader) -> {
+            long lastVersion = -1;
+            while (lastVersion < flips) {
+                ConfigState state = session.getState();
+                if (state.getVersion() < lastVersion) {
+                    return "VERSION-WENT-BACK";
+                }
+                lastVersion = state.getVersion();
+                if (state.getUser().isCreated() != state.getRole().isCreated()) {
+                    return "TORN";
+                }
+            }
+            return "consistent";
+        });
+
+        assertThat(outcomes).containsOnlyKeys("consistent");
+    }
+
+    /**
+     * Two replies confirming the same proposal: exactly one of them
+     * takes the pending action, with its arguments.
+     */
+    @Test
+    public void shouldHandOutPendingActionOnce() throws Exception {
+        Map<String, Long> outcomes = run(2, 0, () -> {
+            ConversationSession session = new ConversationSession();
+            session.setPendingAction("role.assign", Map.of("userName", "asha", "roleCode", "EMPLOYEE"));
+            return session;
+        }, (session, actor, observed) -> {
+            ConversationSession.PendingAction pending = session.takePendingAction();
+            observed[actor] = pending == null ? 0 : pending.arguments().size();
+        }, (session, observed) -> {
+            long taken = Arrays.stream(observed).filter(o -> o > 0).count();
+            long torn = Arrays.stream(observed).filter(o -> o == 1).count();
+            return "taken " + taken + (torn > 0 ? ", TORN" : "")
+                + (session.getPendingAction() != null ? ", STILL-PENDING" : "");
+        }, null);
+
+        assertThat(outcomes).containsOnlyKeys("taken 1");
+    }
+
+    @FunctionalInterface
+    interface Actor {
+        void act(ConversationSession session, int actor, long[] observed) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Arbiter {
+        String outcome(ConversationSession session, long[] observed);
+    }
+
+    @FunctionalInterface
+    interface Reader {
+        String outcome(ConversationSession session, int reader);
+    }
+
+    private Map<String, Long> run(int actors, int readers, Actor actor, Arbiter arbiter) throws Exception {
+        return run(actors, readers, actor, arbiter, null);
+    }
+
+    private Map<String, Long> run(int actors, int readers, Actor actor, Arbiter arbiter, Reader reader)
+            throws Exception {
+        return run(actors, readers, ConversationSession::new, actor, arbiter, reader);
+    }
+
+    /**
+     * Runs {@link #ROUNDS} rounds; arbiter and reader outcomes are
+     * counted per distinct outcome. Each round gets a session
+     * from {@code fresh}.
+     */
+    private Map<String, Long> run(
+            int actors,
+            int readers,
+            Supplier<ConversationSession> fresh,
+            Actor actor,
+            Arbiter arbiter,
+            Reader reader
+    ) throws Exception {
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        ConversationSession[] session = new ConversationSession[1];
+        long[] observed = new long[actors];
+        CyclicBarrier start = new CyclicBarrier(actors + readers, () -> session[0] = fresh.get());
+        CyclicBarrier end = new CyclicBarrier(actors + readers + 1);
+
+        Thread[] threads = new Thread[actors + readers];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        start.await();
+                        if (id < actors) {
+                            actor.act(session[0], id, observed);
+                        } else {
+                            counts.computeIfAbsent(reader.outcome(session[0], id - actors), k -> new LongAdder())
+                                .increment();
+                        }
+                        end.await();
+                        end.await();
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[t].start();
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            end.await();
+            if (arbiter != null) {
+                counts.computeIfAbsent(arbiter.outcome(session[0], observed), k -> new LongAdder()).increment();
+            }
+            end.await();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, Long> outcomes = new TreeMap<>();
+        counts.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+        return outcomes;
+    }
+}
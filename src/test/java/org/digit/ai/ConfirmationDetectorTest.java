@@ -0,0 +1,144 @@
+package org.digit.ai;
+
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.ai.ConfirmationDetector;
+import org.digit.ai.ai.ConfirmationDetector.Answer;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.mcp.AiRequest;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConfirmationDetectorTest {
+
+    private final ConfirmationDetector detector = ConfirmationDetector.defaults();
+
+    @Test
+    public void shouldRecognizeAffirmatives() {
+        for (String message : List.of(
+                "yes", "Yep!", "sure", "go ahead", "ok do it", "OK, do it.", "yes please",
+                "sounds good, thanks", "haan", "haan ji", "theek hai", "हाँ", "जी हाँ", "avunu", "let’s do it")) {
+            assertThat(detector.detect(message)).as(message).isEqualTo(Answer.AFFIRMATIVE);
+        }
+    }
+
+    @Test
+    public void shouldRecognizeNegatives() {
+        for (String message : List.of(
+                "no", "nope", "No thanks", "not now", "don't do it", "cancel", "nahi", "mat karo",
+                "नहीं", "vendam")) {
+            assertThat(detector.detect(message)).as(message).isEqualTo(Answer.NEGATIVE);
+        }
+    }
+
+    @Test
+    public void shouldLeaveEverythingElseToIntentInference() {
+        for (String message : List.of(
+                "", "   ", "yes no", "not sure", "yes, but set up workflows first", "create a user",
+                "okay then configure notifications", "yesterday", "know", "haanji configure idgen",
+                "yes ".repeat(20))) {
+            assertThat(detector.detect(message)).as(message).isEqualTo(Answer.NONE);
+        }
+    }
+
+    @Test
+    public void shouldAcceptDeploymentPhrases() {
+        ConfirmationDetector custom = ConfirmationDetector.withExtra(List.of("hauwa"), List.of("ba haka ba"));
+
+        assertThat(custom.detect("Hauwa please")).isEqualTo(Answer.AFFIRMATIVE);
+        assertThat(custom.detect("ba haka ba")).isEqualTo(Answer.NEGATIVE);
+        assertThat(custom.detect("yes")).isEqualTo(Answer.AFFIRMATIVE);
+    }
+
+    @Test
+    public void shouldRejectPhrasesInBothLexicons() {
+        assertThatThrownBy(() -> ConfirmationDetector.withExtra(List.of("nope"), List.of()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("nope");
+    }
+
+    @Test
+    public void shouldConfirmPendingActionWithoutTheModel() {
+        SessionStore sessions = new SessionStore();
+        sessions.getSession("s1").setPendingAction("account.create");
+        sessions.getSession("s2").setPendingAction("account.create");
+
+        assertThat(conversations(sessions).message("s1", null, null, new AiRequest("sure, go ahead"), null)
+            .join().success()).isTrue();
+        assertThat(sessions.getSession("s1").getState().getAccount().isCreated()).isTrue();
+
+        ToolExecuteResponse declined = conversations(sessions)
+            .message("s2", null, null, new AiRequest("nahi"), null).join();
+        assertThat(declined.message()).startsWith("Okay");
+        assertThat(sessions.getSession("s2").getPendingAction()).isNull();
+        assertThat(sessions.getSession("s2").getState().getAccount().isCreated()).isFalse();
+    }
+
+    /**
+     * Typical confirmation replies through the automaton.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkDetect() {
+        String[] messages = {"yes", "ok do it", "haan ji", "no thanks", "yes, but set up workflows first"};
+        int iterations = 500_000;
+        long sink = 0;
+
+        long nanos = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += detector.detect(messages[i % messages.length]).ordinal();
+            }
+            nanos = System.nanoTime() - start;
+        }
+        assertThat(sink).isPositive();
+        // far below the latency of a model call
+        assertThat(nanos / iterations).isLessThan(10_000);
+    }
+
+    private static ConversationService conversations(SessionStore sessions) {
+        ToolHandler create = new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+        };
+        AiToolSelector selector = new AiToolSelector() {
+            @Override
+            public AiDecision decide(String message, List<String> tools) {
+                throw new AssertionError("confirmation sent to the model: " + message);
+            }
+        };
+        return new ConversationService(
+            new ConversationOrchestrator(new AllowedToolsResolver(), new ToolRegistry(List.of(create))),
+            selector,
+            sessions,
+            new IdempotencyCache<>(Duration.ofMinutes(1), 10),
+            null,
+            LlmUsageTracker.unlimited(),
+            300,
+            null
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package org.digit.ai;
+
+import org.digit.ai.session.ConversationHistory;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.ConversationTurn;
+import org.digit.ai.session.SessionStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConversationHistoryTest {
+
+    @Test
+    public void shouldKeepOnlyMostRecentTurns() {
+        ConversationHistory history = new ConversationHistory(3, 400);
+        for (int i = 1; i <= 5; i++) {
+            history.add("message " + i, "reply " + i);
+        }
+
+        assertThat(history.size()).isEqualTo(3);
+        assertThat(history.recent(1000))
+            .extracting(ConversationTurn::userMessage)
+            .containsExactly("message 3", "message 4", "message 5");
+    }
+
+    @Test
+    public void shouldTruncateLongMessagesOnTheWayIn() {
+        ConversationHistory history = new ConversationHistory(2, 10);
+        history.add("configure the workflow for trade licences", "ok");
+
+        assertThat(history.recent(1000).get(0).userMessage()).hasSize(10).endsWith("...");
+    }
+
+    @Test
+    public void shouldFitTurnsIntoTokenBudgetNewestFirst() {
+        ConversationHistory history = new ConversationHistory(8, 400);
+        history.add("set up idgen", "I understand you want to configure unique ID generation. Shall I proceed?");
+        history.add("yes", "Executed: idgen.configure");
+        history.add("now workflows", "Shall I proceed with workflow.configure?");
+
+        List<ConversationTurn> recent = history.recent(20);
+
+        assertThat(recent).extracting(ConversationTurn::userMessage).containsExactly("yes", "now workflows");
+        assertThat(recent.stream().mapToInt(ConversationTurn::estimatedTokens).sum()).isLessThanOrEqualTo(20);
+        assertThat(recent.get(0).reply()).endsWith("...");
+        assertThat(history.recent(0)).isEmpty();
+    }
+
+    /**
+     * Per-session heap footprint with a full history of maximum-length
+     * turns; measured as the heap delta over many sessions.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkPerSessionFootprint() {
+        int sessions = 5_000;
+        String longMessage = "please configure the complaint workflow with approve, reject and reassign ".repeat(10);
+        SessionStore store = new SessionStore(8, 400);
+
+        long before = usedHeap();
+        for (int i = 0; i < sessions; i++) {
+            ConversationSession session = store.getSession("s" + i);
+            for (int t = 0; t < 20; t++) {
+                session.getHistory().add(longMessage, longMessage);
+            }
+        }
+        long perSession = (usedHeap() - before) / sessions;
+
+        assertThat(store.getSession("s0").getHistory().size()).isEqualTo(8);
+        // 16 messages of at most 400 Latin-1 chars plus state and map entry
+        assertThat(perSession).isLessThan(16_384);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
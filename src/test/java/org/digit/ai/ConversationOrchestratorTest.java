@@ -3,7 +3,7 @@ package org.digit.ai;
 import org.digit.ai.gating.AllowedToolsResolver;
 import org.digit.ai.orchestrator.ConversationOrchestrator;
 import org.digit.ai.orchestrator.ToolRegistry;
-import org.digit.ai.state.ConfigState;
+import org.digit.ai.session.ConversationSession;
 import org.digit.ai.tools.account.AccountCreateTool;
 import org.digit.ai.tools.account.AccountConfigureTool;
 import org.junit.jupiter.api.Test;
@@ -17,7 +17,7 @@ public class ConversationOrchestratorTest {
 
     @Test
     public void shouldExecuteAllowedTool() {
-        ConfigState state = new ConfigState();
+        ConversationSession session = new ConversationSession();
 
         ToolRegistry registry = new ToolRegistry(
             List.of(new AccountCreateTool(), new AccountConfigureTool())
@@ -29,14 +29,14 @@ public class ConversationOrchestratorTest {
                 registry
             );
 
-        orchestrator.execute("account.create", state);
+        orchestrator.execute("account.create", session);
 
-        assertThat(state.getAccount().isCreated()).isTrue();
+        assertThat(session.getState().getAccount().isCreated()).isTrue();
     }
 
     @Test
     public void shouldRejectDisallowedTool() {
-        ConfigState state = new ConfigState();
+        ConversationSession session = new ConversationSession();
 
         ToolRegistry registry = new ToolRegistry(
             List.of(new AccountCreateTool(), new AccountConfigureTool())
@@ -49,7 +49,7 @@ public class ConversationOrchestratorTest {
             );
 
         assertThatThrownBy(() ->
-            orchestrator.execute("account.configure", state)
+            orchestrator.execute("account.configure", session)
         ).isInstanceOf(IllegalStateException.class);
     }
 }
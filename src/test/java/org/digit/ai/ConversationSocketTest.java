@@ -0,0 +1,208 @@
+package org.digit.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.session.SessionStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConversationSocketTest {
+
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(DigitAiApplication.class, SlowModel.class).run(
+            "--server.port=0",
+            "--digit.warmup.enabled=false",
+            "--digit.audit.enabled=false"
+        );
+        baseUrl = "ws://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/mcp/ws";
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    public void shouldPushAllowedToolsOnConnect() throws Exception {
+        Frames frames = new Frames();
+        connect("ws1", frames);
+
+        JsonNode first = frames.next();
+        assertThat(first.path("type").asText()).isEqualTo("allowed-tools");
+        assertThat(first.path("tools").toString()).contains("account.create");
+    }
+
+    @Test
+    public void shouldConfirmOverTheSocketAndPushToolChanges() throws Exception {
+        context.getBean(SessionStore.class).getSession("ws2").setPendingAction("account.create");
+        Frames frames = new Frames();
+        WebSocket socket = connect("ws2", frames);
+        frames.next();
+
+        socket.sendText("{\"message\":\"yes\"}", true).join();
+
+        JsonNode reply = frames.next();
+        assertThat(reply.path("type").asText()).isEqualTo("reply");
+        assertThat(reply.path("success").asBoolean()).isTrue();
+        assertThat(reply.has("pendingAction")).isFalse();
+
+        JsonNode tools = frames.next();
+        assertThat(tools.path("type").asText()).isEqualTo("allowed-tools");
+        assertThat(tools.path("tools").toString()).contains("account.configure").doesNotContain("account.create");
+    }
+
+    @Test
+    public void shouldAnswerPlainTextNoWithoutPendingAction() throws Exception {
+        context.getBean(SessionStore.class).getSession("ws3").setPendingAction("account.create");
+        Frames frames = new Frames();
+        WebSocket socket = connect("ws3", frames);
+        frames.next();
+
+        socket.sendText("no", true).join();
+
+        JsonNode reply = frames.next();
+        assertThat(reply.path("message").asText()).startsWith("Okay");
+        assertThat(context.getBean(SessionStore.class).getSession("ws3").getPendingAction()).isNull();
+    }
+
+    @Test
+    public void shouldAnswerFramesInOrder() throws Exception {
+        Frames frames = new Frames();
+        WebSocket socket = connect("ws4", frames);
+        frames.next();
+
+        // sent back to back; "yes" is only read once the slow proposal is answered
+        socket.sendText("set me up", true).join();
+        socket.sendText("yes", true).join();
+
+        JsonNode proposal = frames.next();
+        assertThat(proposal.path("type").asText()).isEqualTo("reply");
+        assertThat(proposal.path("pendingAction").asText()).isEqualTo("account.create");
+        JsonNode confirmed = frames.next();
+        assertThat(confirmed.path("type").asText()).isEqualTo("reply");
+        assertThat(confirmed.path("success").asBoolean()).isTrue();
+    }
+
+    @Test
+    public void shouldPushStateChangedElsewhere() throws Exception {
+        Frames frames = new Frames();
+        connect("ws6", frames);
+        frames.next();
+
+        // e.g. POST /mcp/plan or bulk onboarding for the same session
+        context.getBean(ConversationOrchestrator.class)
+            .execute("account.create", context.getBean(SessionStore.class).getSession("ws6"));
+
+        JsonNode tools = frames.next();
+        assertThat(tools.path("type").asText()).isEqualTo("allowed-tools");
+        assertThat(tools.path("tools").toString()).contains("account.configure").doesNotContain("account.create");
+    }
+
+    @Test
+    public void shouldRejectCrossOriginHandshake() {
+        CompletableFuture<WebSocket> socket = http.newWebSocketBuilder()
+            .header("Origin", "https://evil.example")
+            .buildAsync(URI.create(baseUrl + "?sessionId=ws5"), new Frames());
+
+        assertThat(socket).failsWithin(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Idle conversation sockets do not hold a thread each.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkIdleConnections() throws Exception {
+        int connections = 1000;
+        int threadsBefore = Thread.activeCount();
+
+        List<CompletableFuture<WebSocket>> sockets = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            sockets.add(http.newWebSocketBuilder()
+                .buildAsync(URI.create(baseUrl + "?sessionId=idle" + i), new Frames()));
+        }
+        CompletableFuture.allOf(sockets.toArray(CompletableFuture[]::new)).join();
+        int addedThreads = Thread.activeCount() - threadsBefore;
+
+        sockets.forEach(s -> s.join().abort());
+
+        assertThat(addedThreads).isLessThan(connections);
+    }
+
+    private WebSocket connect(String sessionId, Frames frames) {
+        return http.newWebSocketBuilder()
+            .buildAsync(URI.create(baseUrl + "?sessionId=" + sessionId), frames)
+            .join();
+    }
+
+    /**
+     * Model that takes 200 ms and always proposes account.create.
+     */
+    static class SlowModel {
+
+        @Bean
+        @Primary
+        AiToolSelector slowModel() {
+            return (message, tools) -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return AiDecision.explain("Shall I create your account?", "account.create");
+            };
+        }
+    }
+
+    private class Frames implements WebSocket.Listener {
+
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                received.add(partial.toString());
+                partial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        JsonNode next() throws Exception {
+            String frame = received.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("frame within 5 s").isNotNull();
+            return mapper.readTree(frame);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.digit.ai.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.gating.ToolSet;
+import org.digit.ai.state.ConfigState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecisionTableTest {
+
+    private final OpenAiToolSelector selector = new OpenAiToolSelector("dummy-key");
+    private final AllowedToolsResolver resolver = new AllowedToolsResolver();
+
+    @Test
+    void shouldMatchTheRulesForEveryIntentAndState() {
+        List<String> intents = new ArrayList<>();
+        for (Intent intent : Intent.values()) {
+            intents.add(intent.key());
+        }
+        intents.add("something.else");
+
+        // every combination of facts, reachable or not
+        for (int bits = 0; bits < 1 << 10; bits++) {
+            ToolSet allowed = resolver.resolve(state(bits));
+            for (String intent : intents) {
+                assertThat(selector.decideForIntent(intent, allowed))
+                    .as("%s with %s", intent, allowed)
+                    .isEqualTo(OpenAiToolSelector.decideByRules(intent, allowed));
+            }
+        }
+    }
+
+    @Test
+    void shouldCoverEveryStateOfAnOnboardingConversation() {
+        DecisionTable table = new DecisionTable(resolver.graph(), OpenAiToolSelector::decideByRules);
+        ConfigState state = new ConfigState();
+        for (int step = 0; step <= 10; step++) {
+            ToolSet allowed = resolver.resolve(state);
+            for (Intent intent : Intent.values()) {
+                assertThat(table.lookup(intent.key(), allowed)).isNotNull();
+            }
+            state = state((1 << (step + 1)) - 1);
+        }
+        assertThat(table.lookup("something.else", resolver.resolve(state))).isNull();
+        // account.create is only ever allowed alone
+        assertThat(table.lookup("user", ToolSet.of(resolver.graph(), List.of("account.create", "role.assign")))).isNull();
+    }
+
+    @Test
+    void shouldShareDecisionInstances() {
+        ToolSet fresh = resolver.resolve(new ConfigState());
+        ToolSet created = resolver.resolve(state(0b1));
+
+        assertThat(selector.decideForIntent("workflow", fresh))
+            .isSameAs(selector.decideForIntent("workflow", resolver.resolve(new ConfigState())));
+        // asking for users before the account exists always proposes account.create
+        assertThat(selector.decideForIntent("user", fresh))
+            .isSameAs(selector.decideForIntent("user", ToolSet.of(resolver.graph(), List.of("account.create"))));
+        assertThat(selector.decideForIntent("bootstrap", created).proposedAction())
+            .isEqualTo("account.configure");
+    }
+
+    @Test
+    void shouldDecideWithoutAllocating() {
+        ToolSet allowed = resolver.resolve(state(0b11));
+        Intent[] intents = Intent.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            selector.decideForIntent(intents[i % intents.length].key(), allowed);
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            selector.decideForIntent(intents[i % intents.length].key(), allowed);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertThat(allocated).isLessThan(10_000);
+    }
+
+    /**
+     * Post-inference decision: the rules against one table lookup.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkDecision() {
+        ToolSet allowed = resolver.resolve(state(0b11));
+        Intent[] intents = Intent.values();
+        int iterations = 1_000_000;
+        long sink = 0;
+        long rulesNanos = 0;
+        long tableNanos = 0;
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += OpenAiToolSelector.decideByRules(intents[i % intents.length].key(), allowed).message().length();
+            }
+            rulesNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += selector.decideForIntent(intents[i % intents.length].key(), allowed).message().length();
+            }
+            tableNanos = System.nanoTime() - start;
+        }
+        assertThat(sink).isPositive();
+        assertThat(tableNanos).isLessThan(rulesNanos);
+    }
+
+    /**
+     * State with the first {@code bits} facts of the onboarding order set.
+     */
+    private static ConfigState state(int bits) {
+        ConfigState s = new ConfigState();
+        s = s.withAccount(s.getAccount().withCreated((bits & 1) != 0).withConfigured((bits & 2) != 0));
+        s = s.withIdGenConfigured((bits & 4) != 0)
+            .withWorkflowConfigured((bits & 8) != 0)
+            .withNotificationConfigured((bits & 16) != 0)
+            .withBoundaryConfigured((bits & 32) != 0)
+            .withRegistrySchemaConfigured((bits & 64) != 0);
+        s = s.withUser(s.getUser().withCreated((bits & 128) != 0));
+        s = s.withRole(s.getRole().withCreated((bits & 256) != 0));
+        return s.withRoleAssignmentDone((bits & 512) != 0);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
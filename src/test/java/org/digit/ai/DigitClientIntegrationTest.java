@@ -0,0 +1,189 @@
+package org.digit.ai;
+
+import org.digit.ai.digit.DigitClient;
+import org.digit.ai.digit.DigitClientException;
+import org.digit.ai.digit.DigitClientProperties;
+import org.digit.ai.digit.DigitRequest;
+import org.digit.ai.digit.DigitService;
+import org.digit.ai.digit.DigitStubServer;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.PlanReport;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.state.AccountState;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.account.AccountConfigureTool;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.digit.ai.tools.boundary.BoundaryConfigureTool;
+import org.digit.ai.tools.idgen.IdGenConfigureTool;
+import org.digit.ai.tools.notification.NotificationConfigureTool;
+import org.digit.ai.tools.registry.RegistryConfigureTool;
+import org.digit.ai.tools.role.RoleAssignTool;
+import org.digit.ai.tools.role.RoleCreateTool;
+import org.digit.ai.tools.user.UserCreateTool;
+import org.digit.ai.tools.workflow.WorkflowConfigureTool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the real tool handlers against the local DIGIT stub server.
+ */
+class DigitClientIntegrationTest {
+
+    private static final Map<String, Map<String, Object>> ARGUMENTS = Map.of(
+        "user.create", Map.of("userName", "asha"),
+        "role.create", Map.of("code", "EMPLOYEE"),
+        "role.assign", Map.of("userName", "asha", "roleCode", "EMPLOYEE")
+    );
+
+    private DigitStubServer stub;
+    private DigitClient client;
+    private ConversationOrchestrator orchestrator;
+
+    @BeforeEach
+    void setup() throws Exception {
+        stub = DigitStubServer.start(0);
+        client = new DigitClient(properties(32));
+        orchestrator = orchestrator(client);
+    }
+
+    @AfterEach
+    void teardown() {
+        stub.close();
+    }
+
+    @Test
+    void shouldOnboardTenantThroughDigitCalls() {
+        ConversationSession session = new ConversationSession();
+
+        PlanReport report = orchestrator.executePlan(session, 4, ARGUMENTS).join();
+
+        assertThat(report.success()).isTrue();
+        assertThat(session.getState().getAccount().getAccessToken()).isEqualTo("stub-token-1");
+        assertThat(session.getState().isRoleAssignmentDone()).isTrue();
+        assertThat(stub.totalCalls()).isEqualTo(10);
+        assertThat(stub.lastAuthorization()).isEqualTo("Bearer stub-token-1");
+    }
+
+    @Test
+    void shouldNotCallDigitWithoutRequiredArguments() {
+        ConversationSession session = configuredAccount();
+
+        ToolResult result = orchestrator.executeAsync("user.create", session).join();
+
+        assertThat(result.status()).isEqualTo(ToolResult.Status.FAILED);
+        assertThat(result.message()).contains("missing userName");
+        assertThat(stub.calls("/user/v1/_create")).isZero();
+    }
+
+    @Test
+    void shouldRetryIdempotentCallsWithBackoff() {
+        ConversationSession session = configuredAccount();
+        stub.failNext("/idgen/v1/config/_upsert", 2, 503);
+
+        ToolResult result = orchestrator.executeAsync("idgen.configure", session).join();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(stub.calls("/idgen/v1/config/_upsert")).isEqualTo(3);
+        assertThat(session.getState().isIdGenConfigured()).isTrue();
+    }
+
+    @Test
+    void shouldNotRetryCreates() {
+        ConversationSession session = configuredAccount();
+        stub.failNext("/user/v1/_create", 1, 503);
+
+        ToolResult result = orchestrator.executeAsync("user.create", session, ARGUMENTS.get("user.create")).join();
+
+        assertThat(result.status()).isEqualTo(ToolResult.Status.FAILED);
+        assertThat(stub.calls("/user/v1/_create")).isEqualTo(1);
+        assertThat(session.getState().getUser().isCreated()).isFalse();
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkhead() {
+        DigitClient narrow = new DigitClient(properties(1));
+        stub.setLatencyMillis(200);
+        DigitRequest request = DigitRequest.upsert(DigitService.WORKFLOW, "/workflow/v1/businessservice/_upsert", Map.of());
+
+        CompletableFuture<?> first = narrow.send(request, "token");
+        CompletableFuture<?> second = narrow.send(request, "token");
+
+        assertThatThrownBy(second::join)
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(DigitClientException.class);
+        assertThat(first.join()).isNotNull();
+    }
+
+    /**
+     * Load test: many tenants onboarded concurrently over the shared pool.
+     */
+    @Test
+    @Tag("benchmark")
+    void shouldOnboardManyTenantsConcurrently() {
+        int tenants = 50;
+        // account.configure and user.create share the user service bulkhead
+        ConversationOrchestrator wide = orchestrator(new DigitClient(properties(tenants * 2)));
+        List<CompletableFuture<PlanReport>> runs = new ArrayList<>();
+
+        for (int i = 0; i < tenants; i++) {
+            runs.add(wide.executePlan(new ConversationSession(), 4, ARGUMENTS));
+        }
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(runs).allSatisfy(run -> assertThat(run.join().success()).isTrue());
+        assertThat(stub.totalCalls()).isEqualTo(tenants * 10);
+    }
+
+    private DigitClientProperties properties(int maxConcurrentCalls) {
+        return new DigitClientProperties(
+            true,
+            stub.baseUrl(),
+            Duration.ofSeconds(5),
+            maxConcurrentCalls,
+            3,
+            Duration.ofMillis(5),
+            Duration.ofMillis(20),
+            16,
+            Duration.ofMinutes(1),
+            Map.of()
+        );
+    }
+
+    private ConversationSession configuredAccount() {
+        ConversationSession session = new ConversationSession();
+        session.updateState(state -> state.withAccount(new AccountState(true, true, "token", null)));
+        return session;
+    }
+
+    private ConversationOrchestrator orchestrator(DigitClient client) {
+        return new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(List.of(
+                new AccountCreateTool(client),
+                new AccountConfigureTool(client),
+                new UserCreateTool(client),
+                new RoleCreateTool(client),
+                new RoleAssignTool(client),
+                new IdGenConfigureTool(client),
+                new WorkflowConfigureTool(client),
+                new NotificationConfigureTool(client),
+                new BoundaryConfigureTool(client),
+                new RegistryConfigureTool(client)
+            ))
+        );
+    }
+}
@@ -0,0 +1,131 @@
+package org.digit.ai.digit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the DIGIT platform.
+ *
+ * Accepts every tool endpoint and answers with a DIGIT-style success
+ * body; {@code /user/oauth/token} also issues an access token. Failures
+ * and latency can be injected per path so tools can be integration-
+ * and load-tested offline. Run {@link #main} to start it standalone
+ * (default port 8091, matching digit.client.base-url).
+ */
+public class DigitStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingFailures = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failureStatus = new ConcurrentHashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile String lastAuthorization;
+
+    public DigitStubServer(int port, int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static DigitStubServer start(int port) throws IOException {
+        DigitStubServer stub = new DigitStubServer(port, 16);
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Answer the next {@code times} calls to {@code path} with {@code status}.
+     */
+    public void failNext(String path, int times, int status) {
+        pendingFailures.put(path, new AtomicInteger(times));
+        failureStatus.put(path, status);
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public int calls(String path) {
+        AtomicInteger count = calls.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    public int totalCalls() {
+        return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public String lastAuthorization() {
+        return lastAuthorization;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        calls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        AtomicInteger failures = pendingFailures.get(path);
+        if (failures != null && failures.getAndDecrement() > 0) {
+            respond(exchange, failureStatus.get(path), "{\"Errors\":[{\"code\":\"STUB_FAILURE\"}]}");
+            return;
+        }
+
+        if (path.equals("/user/oauth/token")) {
+            respond(exchange, 200, "{\"access_token\":\"stub-token-" + tokens.incrementAndGet() + "\"}");
+            return;
+        }
+
+        respond(exchange, 200, "{\"ResponseInfo\":{\"status\":\"successful\"}}");
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8091;
+        DigitStubServer stub = start(port);
+        System.out.println("DIGIT stub listening on " + stub.baseUrl());
+    }
+}
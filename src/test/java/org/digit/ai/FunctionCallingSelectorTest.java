@@ -0,0 +1,160 @@
+package org.digit.ai.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationTurn;
+import org.digit.ai.tools.account.AccountConfigureTool;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.digit.ai.tools.notification.NotificationConfigureTool;
+import org.digit.ai.tools.role.RoleAssignTool;
+import org.digit.ai.tools.role.RoleCreateTool;
+import org.digit.ai.tools.user.UserCreateTool;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Function-calling mode against a canned OpenAI endpoint.
+ */
+class FunctionCallingSelectorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LlmUsageTracker usage = LlmUsageTracker.unlimited();
+    private HttpServer server;
+    private OpenAiToolSelector selector;
+    private volatile String reply;
+    private volatile JsonNode lastRequest;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            lastRequest = mapper.readTree(exchange.getRequestBody());
+            byte[] bytes = reply.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        ToolRegistry registry = new ToolRegistry(List.of(
+            new AccountCreateTool(),
+            new AccountConfigureTool(),
+            new NotificationConfigureTool(),
+            new UserCreateTool(),
+            new RoleCreateTool(),
+            new RoleAssignTool()
+        ));
+        selector = new OpenAiToolSelector(
+            "test-key",
+            usage,
+            OpenAiToolSelector.Mode.FUNCTIONS,
+            registry.parameterSchemas(),
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions"
+        );
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldProposeToolWithExtractedArgumentsInOneCall() {
+        reply = toolCall("role_assign", "{\"userName\":\"asha\",\"roleCode\":\"EMPLOYEE\"}");
+
+        AiDecision decision = selector.decide("give asha the employee role", List.of("role.assign"));
+
+        assertThat(decision.proposedAction()).isEqualTo("role.assign");
+        assertThat(decision.arguments()).containsEntry("userName", "asha").containsEntry("roleCode", "EMPLOYEE");
+        assertThat(usage.total().calls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOfferOnlyAllowedToolsWithTheirSchemas() {
+        reply = toolCall("user_create", "{\"userName\":\"asha\"}");
+
+        selector.decide("add user asha", List.of("user.create", "role.create"));
+
+        assertThat(lastRequest.path("tool_choice").asText()).isEqualTo("required");
+        assertThat(lastRequest.path("tools").findValues("function"))
+            .extracting(f -> f.path("name").asText())
+            .containsExactly("user_create", "role_create", "classify_intent");
+        JsonNode userSchema = lastRequest.path("tools").get(0).path("function").path("parameters");
+        assertThat(userSchema.path("required").get(0).asText()).isEqualTo("userName");
+    }
+
+    @Test
+    void shouldAskForArgumentsThatFailTheSchema() {
+        reply = toolCall("role_assign", "{\"userName\":\"asha\",\"password\":\"x\"}");
+
+        AiDecision decision = selector.decide("give asha a role", List.of("role.assign"));
+
+        assertThat(decision.type()).isEqualTo(AiDecision.DecisionType.EXPLAIN);
+        assertThat(decision.proposedAction()).isNull();
+        assertThat(decision.tool()).isNull();
+        assertThat(decision.arguments()).isEmpty();
+        assertThat(decision.message()).contains("missing roleCode", "unexpected password");
+    }
+
+    @Test
+    void shouldApplyPrerequisiteRulesToClassifiedIntent() {
+        reply = toolCall("classify_intent", "{\"intent\":\"role.assign\"}");
+
+        AiDecision decision = selector.decide("assign a role", List.of("user.create", "role.create"));
+
+        assertThat(decision.proposedAction()).isEqualTo("user.create");
+        assertThat(decision.message()).contains("both a user and a role must exist");
+    }
+
+    @Test
+    void shouldRejectToolsOutsideAllowedSet() {
+        reply = toolCall("role_assign", "{\"userName\":\"asha\",\"roleCode\":\"EMPLOYEE\"}");
+
+        AiDecision decision = selector.decide("give asha a role", List.of("account.create"));
+
+        assertThat(decision.proposedAction()).isNull();
+        assertThat(decision.arguments()).isEmpty();
+    }
+
+    @Test
+    void shouldSendRecentTurnsBeforeTheNewMessage() {
+        reply = toolCall("notification_configure", "{}");
+        InferenceContext context = new InferenceContext("s1", null, true, List.of(
+            new ConversationTurn("configure workflows", "Shall I proceed with workflow.configure?")
+        ));
+
+        selector.decide("do the same for notifications", List.of("notification.configure"), context);
+
+        assertThat(lastRequest.path("messages").findValuesAsText("role"))
+            .containsExactly("system", "user", "assistant", "user");
+        assertThat(lastRequest.path("messages").get(3).path("content").asText())
+            .isEqualTo("do the same for notifications");
+    }
+
+    private String toolCall(String name, String arguments) {
+        try {
+            return mapper.writeValueAsString(Map.of(
+                "choices", List.of(Map.of("message", Map.of("tool_calls", List.of(Map.of(
+                    "type", "function",
+                    "function", Map.of("name", name, "arguments", arguments)
+                ))))),
+                "usage", Map.of("prompt_tokens", 120, "completion_tokens", 18, "total_tokens", 138)
+            ));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
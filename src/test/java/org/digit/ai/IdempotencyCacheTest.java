@@ -0,0 +1,87 @@
+package org.digit.ai;
+
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdempotencyCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final IdempotencyCache<String> cache =
+        new IdempotencyCache<>(Duration.ofSeconds(60), 3, clock::get);
+
+    @Test
+    public void shouldReplayStoredResultWithoutRerunning() {
+        String first = cache.execute("s:k1", "yes", this::run).join();
+        String retry = cache.execute("s:k1", "yes", this::run).join();
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldMakeConcurrentDuplicatesWaitForFirstExecution() {
+        CompletableFuture<String> remote = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.execute("s:k1", "yes", () -> {
+            runs.incrementAndGet();
+            return remote;
+        });
+        CompletableFuture<String> duplicate = cache.execute("s:k1", "yes", this::run);
+
+        assertThat(duplicate).isNotDone();
+        remote.complete("Executed: account.create");
+
+        assertThat(duplicate.join()).isEqualTo(first.join());
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRunAgainAfterTtl() {
+        cache.execute("s:k1", "yes", this::run).join();
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.execute("s:k1", "yes", this::run).join();
+
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldForgetFailuresSoRetriesCanRun() {
+        CompletableFuture<String> failed =
+            cache.execute("s:k1", "yes", () -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(cache.execute("s:k1", "yes", this::run).join()).isEqualTo("run-1");
+    }
+
+    @Test
+    public void shouldStayBounded() {
+        for (int i = 0; i < 10; i++) {
+            cache.execute("s:k" + i, "yes", this::run).join();
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        cache.execute("s:k9", "yes", this::run).join();
+        assertThat(runs.get()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldRejectKeyReuseForDifferentRequest() {
+        cache.execute("s:k1", "yes", this::run).join();
+
+        assertThatThrownBy(() -> cache.execute("s:k1", "no", this::run))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private CompletableFuture<String> run() {
+        return CompletableFuture.completedFuture("run-" + runs.incrementAndGet());
+    }
+}
@@ -0,0 +1,44 @@
+package org.digit.ai;
+
+import org.digit.ai.ai.Intent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntentCodeTest {
+
+    @Test
+    public void shouldDecodeEveryIntentFromItsCode() {
+        for (Intent intent : Intent.values()) {
+            assertThat(Intent.fromCode(String.valueOf(intent.code()))).isEqualTo(intent);
+        }
+    }
+
+    @Test
+    public void shouldDecodeUnexpectedOutputAsUnknown() {
+        assertThat(Intent.fromCode("workflow")).isEqualTo(Intent.UNKNOWN);
+        assertThat(Intent.fromCode("Z")).isEqualTo(Intent.UNKNOWN);
+        assertThat(Intent.fromCode("ü")).isEqualTo(Intent.UNKNOWN);
+        assertThat(Intent.fromCode("")).isEqualTo(Intent.UNKNOWN);
+        assertThat(Intent.fromCode(null)).isEqualTo(Intent.UNKNOWN);
+    }
+
+    @Test
+    public void shouldBiasOneSingleByteTokenPerIntent() {
+        assertThat(Intent.logitBias()).hasSize(Intent.values().length);
+        // "A" is rank 32 in o200k_base
+        assertThat(Intent.ACCOUNT_CONFIGURE.tokenId()).isEqualTo(32);
+        assertThat(Arrays.stream(Intent.values()).map(Intent::code))
+            .allMatch(c -> c > ' ' && c < 127);
+    }
+
+    @Test
+    public void shouldKeepIntentKeysUsedBySelector() {
+        assertThat(Arrays.stream(Intent.values()).map(Intent::key)).containsExactly(
+            "bootstrap", "account.configure", "idgen", "workflow", "boundary",
+            "notification", "registry", "user", "role", "role.assign", "unknown"
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package org.digit.ai.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.state.ConfigState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntentPromptsTest {
+
+    private final OpenAiToolSelector selector = new OpenAiToolSelector("dummy-key");
+    private final IntentPrompts prompts = new IntentPrompts(selector::decideForIntent);
+    private final AllowedToolsResolver resolver = new AllowedToolsResolver();
+
+    // One onboarding conversation, a step per turn
+    private static final List<UnaryOperator<ConfigState>> STEPS = List.of(
+        s -> s.withAccount(s.getAccount().withCreated(true)),
+        s -> s.withAccount(s.getAccount().withConfigured(true)),
+        s -> s.withIdGenConfigured(true),
+        s -> s.withWorkflowConfigured(true),
+        s -> s.withNotificationConfigured(true),
+        s -> s.withBoundaryConfigured(true),
+        s -> s.withRegistrySchemaConfigured(true),
+        s -> s.withUser(s.getUser().withCreated(true)),
+        s -> s.withRole(s.getRole().withCreated(true)),
+        s -> s.withRoleAssignmentDone(true)
+    );
+
+    @Test
+    void shouldOfferEveryIntentThatChangesTheDecision() {
+        ConfigState fresh = new ConfigState();
+        List<String> allowed = resolver.resolve(fresh);
+
+        IntentPrompts.PromptVariant variant = prompts.forAllowedTools(allowed);
+
+        for (Intent intent : Intent.values()) {
+            AiDecision decision = selector.decideForIntent(intent.key(), allowed);
+            AiDecision unknown = selector.decideForIntent("unknown", allowed);
+            if (!decision.equals(unknown)) {
+                assertThat(variant.intents()).contains(intent);
+            }
+        }
+        assertThat(variant.logitBias()).hasSize(variant.intents().size());
+    }
+
+    @Test
+    void shouldDropRulesForIntentsNotOffered() {
+        // Registry already configured: asking for it ends in the same fallback as "unknown"
+        IntentPrompts.PromptVariant variant = prompts.forAllowedTools(List.of("role.assign"));
+
+        assertThat(variant.systemPrompt()).doesNotContain("(registry)");
+        assertThat(variant.systemPrompt()).doesNotContain("'data' or 'schema'");
+        assertThat(variant.systemPrompt().length()).isLessThan(IntentPrompts.full().systemPrompt().length());
+    }
+
+    @Test
+    void shouldCacheOneVariantPerAllowedMask() {
+        prompts.forAllowedTools(List.of("account.create"));
+        prompts.forAllowedTools(List.of("account.create"));
+        prompts.forAllowedTools(List.of("account.configure"));
+
+        assertThat(prompts.cachedVariants()).isEqualTo(2);
+    }
+
+    /**
+     * Replays an onboarding conversation and compares prompt size and
+     * assembly cost against the unpruned prompt. Tokens are estimated
+     * as characters / 4, close to o200k_base for English text.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkReplayedConversation() {
+        String full = IntentPrompts.full().systemPrompt();
+        ConfigState state = new ConfigState();
+        long fullTokens = 0;
+        long prunedTokens = 0;
+
+        for (int turn = 0; turn <= STEPS.size(); turn++) {
+            IntentPrompts.PromptVariant variant = prompts.forAllowedTools(resolver.resolve(state));
+            fullTokens += estimateTokens(full);
+            if (variant.needsModel()) {
+                prunedTokens += estimateTokens(variant.systemPrompt());
+            }
+            if (turn < STEPS.size()) {
+                state = STEPS.get(turn).apply(state);
+            }
+        }
+
+        int iterations = 200_000;
+        List<String> allowed = resolver.resolve(new ConfigState());
+        for (int i = 0; i < 20_000; i++) {
+            prompts.forAllowedTools(allowed);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            prompts.forAllowedTools(allowed);
+        }
+        double lookupNanos = (System.nanoTime() - start) / (double) iterations;
+
+        assertThat(prunedTokens).isLessThan(fullTokens);
+        assertThat(lookupNanos).isLessThan(50_000);
+    }
+
+    private static long estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+}
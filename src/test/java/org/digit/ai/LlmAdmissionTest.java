@@ -0,0 +1,142 @@
+package org.digit.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digit.ai.admission.LlmAdmission;
+import org.digit.ai.admission.OverloadedException;
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.mcp.AiRequest;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.McpController;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LlmAdmissionTest {
+
+    private final CountDownLatch openAi = new CountDownLatch(1);
+    private final AtomicLong clock = new AtomicLong();
+    private final LlmAdmission admission = new LlmAdmission(
+        1, 2, Duration.ofSeconds(2), Duration.ofSeconds(3), new SimpleMeterRegistry(), clock::get
+    );
+
+    @AfterEach
+    void teardown() {
+        openAi.countDown();
+        admission.close();
+    }
+
+    @Test
+    public void shouldShedWhenQueueIsFull() {
+        admission.submit(this::slowCall);
+        admission.submit(this::slowCall);
+        admission.submit(this::slowCall);
+
+        assertThatThrownBy(() -> admission.submit(this::slowCall).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(OverloadedException.class);
+    }
+
+    @Test
+    public void shouldShedWorkThatWaitedTooLong() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> running = admission.submit(() -> {
+            started.countDown();
+            return slowCall();
+        });
+        CompletableFuture<String> queued = admission.submit(() -> "late");
+        started.await(5, TimeUnit.SECONDS);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        openAi.countDown();
+
+        assertThat(running.join()).isEqualTo("intent");
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(OverloadedException.class);
+    }
+
+    @Test
+    public void shouldServeConfirmationsWhileLlmIsSaturated() {
+        SessionStore sessions = new SessionStore();
+        McpController controller = controller(sessions);
+        sessions.getSession("s1").setPendingAction("account.create");
+
+        // Saturate the LLM pool and queue
+        for (int i = 0; i < 3; i++) {
+            controller.aiExecute("busy" + i, null, null, null, new AiRequest("set up my workflow"));
+        }
+
+        ToolExecuteResponse confirmation =
+            controller.aiExecute("s1", null, null, null, new AiRequest("yes")).join();
+        assertThat(confirmation.success()).isTrue();
+
+        CompletableFuture<ToolExecuteResponse> shed =
+            controller.aiExecute("s2", null, null, null, new AiRequest("set up my workflow"));
+        assertThatThrownBy(shed::join).hasCauseInstanceOf(OverloadedException.class);
+
+        ResponseEntity<ToolExecuteResponse> response =
+            controller.overloaded((OverloadedException) shed.handle((r, e) -> e.getCause()).join());
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+    }
+
+    private McpController controller(SessionStore sessions) {
+        ToolHandler create = new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+        };
+        AiToolSelector selector = (message, tools) -> {
+            slowCall();
+            return AiDecision.explain("Shall I proceed?", "account.create");
+        };
+
+        ConversationOrchestrator orchestrator =
+            new ConversationOrchestrator(new AllowedToolsResolver(), new ToolRegistry(List.of(create)));
+        ConversationService conversations = new ConversationService(
+            orchestrator,
+            selector,
+            sessions,
+            new IdempotencyCache<>(Duration.ofMinutes(1), 10),
+            null,
+            LlmUsageTracker.unlimited(),
+            300,
+            null
+        );
+        return new McpController(conversations, orchestrator, selector, sessions, 4, admission);
+    }
+
+    private String slowCall() {
+        try {
+            openAi.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "intent";
+    }
+}
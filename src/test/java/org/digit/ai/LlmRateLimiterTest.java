@@ -0,0 +1,125 @@
+package org.digit.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digit.ai.ratelimit.LlmRateLimiter;
+import org.digit.ai.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LlmRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LlmRateLimiter limiter = new LlmRateLimiter(
+        LlmRateLimiter.Limit.perMinute(60, 3),
+        LlmRateLimiter.Limit.perMinute(600, 5),
+        1000,
+        registry,
+        clock::get
+    );
+
+    @Test
+    public void shouldAllowBurstThenRefillAtRate() {
+        assertThat(acquire("s1", "pb")).containsExactly(true, true, true, false);
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(acquire("s1", "pb")).containsExactly(true, false, false, false);
+    }
+
+    @Test
+    public void shouldLimitSessionsIndependently() {
+        acquire("s1", null);
+
+        assertThat(limiter.tryAcquire("s2", null)).isTrue();
+    }
+
+    @Test
+    public void shouldLimitTenantAcrossSessionsAndRefundSession() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("s" + i, "pb")).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("s0", "pb")).isFalse();
+        // s0's session permit was given back when the tenant refused
+        assertThat(limiter.tryAcquire("s0", "other")).isTrue();
+        assertThat(limiter.tryAcquire("s0", "other")).isTrue();
+    }
+
+    @Test
+    public void shouldCountOutcomes() {
+        acquire("s1", "pb");
+
+        assertThat(registry.get("digit.llm.ratelimit").tag("outcome", "allowed").counter().count())
+            .isEqualTo(3);
+        assertThat(registry.get("digit.llm.ratelimit").tag("scope", "session").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFallBackForNewKeysWhileFullOfActiveBuckets() {
+        LlmRateLimiter small = new LlmRateLimiter(
+            LlmRateLimiter.Limit.perMinute(60, 3),
+            LlmRateLimiter.Limit.perMinute(600, 5),
+            2,
+            new SimpleMeterRegistry(),
+            clock::get
+        );
+        assertThat(small.tryAcquire("s1", null)).isTrue();
+        assertThat(small.tryAcquire("s2", null)).isTrue();
+
+        assertThat(small.tryAcquire("s3", null)).isFalse();
+        // Known keys keep their buckets
+        assertThat(small.tryAcquire("s1", null)).isTrue();
+
+        // Refilled buckets are swept on the next new key
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(small.tryAcquire("s3", null)).isTrue();
+    }
+
+    @Test
+    public void shouldAdmitExactlyBurstUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 100, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(0)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(admitted.get()).isEqualTo(100);
+    }
+
+    private List<Boolean> acquire(String sessionId, String tenant) {
+        List<Boolean> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(limiter.tryAcquire(sessionId, tenant));
+        }
+        return results;
+    }
+}
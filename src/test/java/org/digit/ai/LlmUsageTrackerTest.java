@@ -0,0 +1,82 @@
+package org.digit.ai;
+
+import org.digit.ai.usage.LlmUsage;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.digit.ai.usage.UsageSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LlmUsageTrackerTest {
+
+    private static final LlmUsage CALL = new LlmUsage(300, 2, 302, 400_000_000L);
+
+    @Test
+    public void shouldAggregatePerSessionTenantAndTotal() {
+        LlmUsageTracker tracker = LlmUsageTracker.unlimited();
+
+        tracker.record("s1", "pb.amritsar", CALL);
+        tracker.record("s2", "pb.amritsar", CALL);
+        tracker.record("s3", "pb.jalandhar", CALL);
+
+        assertThat(tracker.session("s1")).isEqualTo(new UsageSnapshot(1, 300, 2, 302, 400));
+        assertThat(tracker.tenant("pb.amritsar").totalTokens()).isEqualTo(604);
+        assertThat(tracker.tenants()).containsOnlyKeys("pb.amritsar", "pb.jalandhar");
+        assertThat(tracker.total().calls()).isEqualTo(3);
+        assertThat(tracker.session("unknown")).isEqualTo(UsageSnapshot.EMPTY);
+    }
+
+    @Test
+    public void shouldForgetOldestKeysBeyondTheBound() {
+        LlmUsageTracker tracker = new LlmUsageTracker(0, 0, Duration.ZERO, 2);
+
+        tracker.record("s1", "t1", CALL);
+        tracker.record("s2", "t2", CALL);
+        tracker.record("s1", "t1", CALL);
+        tracker.record("s3", "t3", CALL);
+
+        assertThat(tracker.session("s1")).isEqualTo(UsageSnapshot.EMPTY);
+        assertThat(tracker.session("s3").calls()).isEqualTo(1);
+        assertThat(tracker.tenants()).containsOnlyKeys("t2", "t3");
+        assertThat(tracker.total().calls()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldSwitchSessionToLocalOnceTokenBudgetIsUsed() {
+        LlmUsageTracker tracker = new LlmUsageTracker(0, 600, Duration.ZERO);
+
+        tracker.record("s1", null, CALL);
+        assertThat(tracker.isOverBudget("s1")).isFalse();
+
+        tracker.record("s1", null, CALL);
+        assertThat(tracker.isOverBudget("s1")).isTrue();
+        assertThat(tracker.isOverBudget("s2")).isFalse();
+    }
+
+    @Test
+    public void shouldEnforceCallAndWallTimeBudgets() {
+        LlmUsageTracker byCalls = new LlmUsageTracker(2, 0, Duration.ZERO);
+        LlmUsageTracker byWallTime = new LlmUsageTracker(0, 0, Duration.ofMillis(500));
+
+        byCalls.record("s1", null, CALL);
+        byCalls.record("s1", null, CALL);
+        byWallTime.record("s1", null, CALL);
+        byWallTime.record("s1", null, CALL);
+
+        assertThat(byCalls.isOverBudget("s1")).isTrue();
+        assertThat(byWallTime.isOverBudget("s1")).isTrue();
+    }
+
+    @Test
+    public void shouldCountExactlyUnderConcurrentRecording() {
+        LlmUsageTracker tracker = LlmUsageTracker.unlimited();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> tracker.record("s" + (i % 4), "pb", CALL));
+
+        assertThat(tracker.tenant("pb").calls()).isEqualTo(10_000);
+        assertThat(tracker.total().promptTokens()).isEqualTo(3_000_000);
+    }
+}
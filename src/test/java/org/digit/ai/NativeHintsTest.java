@@ -0,0 +1,52 @@
+package org.digit.ai;
+
+import org.digit.ai.config.NativeHints;
+import org.digit.ai.mcp.AiRequest;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.orchestrator.PlanReport;
+import org.digit.ai.state.AccountState;
+import org.digit.ai.state.ConfigState;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    public NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void shouldExposeLombokStateAccessors() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onMethod(ConfigState.class.getMethod("isRoleAssignmentDone")))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onMethod(AccountState.class.getMethod("withAccessToken", String.class)))
+            .accepts(hints);
+    }
+
+    @Test
+    public void shouldRegisterJsonRecords() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onMethod(AiRequest.class.getMethod("message")))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onType(ToolExecuteResponse.class))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+            .onType(PlanReport.Node.class))
+            .accepts(hints);
+    }
+
+    @Test
+    public void shouldIncludeOkHttpPublicSuffixList() {
+        assertThat(RuntimeHintsPredicates.resource()
+            .forResource("okhttp3/internal/publicsuffix/publicsuffixes.gz"))
+            .accepts(hints);
+    }
+}
@@ -0,0 +1,184 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.orchestrator.BoundedParallel;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.PlanReport;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.account.AccountConfigureTool;
+import org.digit.ai.tools.account.AccountCreateTool;
+import org.digit.ai.tools.boundary.BoundaryConfigureTool;
+import org.digit.ai.tools.idgen.IdGenConfigureTool;
+import org.digit.ai.tools.notification.NotificationConfigureTool;
+import org.digit.ai.tools.registry.RegistryConfigureTool;
+import org.digit.ai.tools.role.RoleAssignTool;
+import org.digit.ai.tools.role.RoleCreateTool;
+import org.digit.ai.tools.user.UserCreateTool;
+import org.digit.ai.tools.workflow.WorkflowConfigureTool;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanExecutionTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Test
+    public void shouldConfigureEverythingInDependencyOrder() {
+        ConversationSession session = new ConversationSession();
+
+        PlanReport report = orchestrator(null).executePlan(session, 3).join();
+
+        assertThat(report.success()).isTrue();
+        assertThat(report.nodes()).hasSize(10);
+
+        Map<String, Integer> layers = report.nodes().stream()
+            .collect(Collectors.toMap(PlanReport.Node::tool, PlanReport.Node::layer));
+        assertThat(layers.get("account.create")).isEqualTo(0);
+        assertThat(layers.get("account.configure")).isEqualTo(1);
+        assertThat(layers.get("workflow.configure")).isEqualTo(2);
+        assertThat(layers.get("user.create")).isEqualTo(2);
+        assertThat(layers.get("role.assign")).isEqualTo(3);
+
+        assertThat(session.getState().isRoleAssignmentDone()).isTrue();
+        assertThat(session.getState().isRegistrySchemaConfigured()).isTrue();
+    }
+
+    @Test
+    public void shouldRunThePlanWithTheRegisteredTools() {
+        ConversationSession session = new ConversationSession();
+        ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(tools())
+        );
+
+        PlanReport report = orchestrator.executePlan(session, 4).join();
+
+        assertThat(report.success()).isTrue();
+        assertThat(report.nodes()).hasSize(10);
+        assertThat(session.getState().getUser().isCreated()).isTrue();
+        assertThat(session.getState().isRoleAssignmentDone()).isTrue();
+    }
+
+    @Test
+    public void shouldDrainAlreadyCompletedTasksWithoutRecursion() {
+        List<Integer> items = IntStream.range(0, 20_000).boxed().toList();
+        AtomicInteger ran = new AtomicInteger();
+
+        CompletableFuture<Void> done = BoundedParallel.run(items, 4, i -> {
+            ran.incrementAndGet();
+            return CompletableFuture.completedFuture(i);
+        });
+
+        assertThat(done).succeedsWithin(Duration.ofSeconds(10));
+        assertThat(ran.get()).isEqualTo(items.size());
+    }
+
+    @Test
+    public void shouldFailInsteadOfHangingWhenATaskThrowsAnError() {
+        CompletableFuture<Void> done = BoundedParallel.run(List.of(1, 2, 3), 2, i -> {
+            if (i == 2) {
+                throw new StackOverflowError();
+            }
+            return CompletableFuture.completedFuture(i);
+        });
+
+        assertThat(done).failsWithin(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void shouldRunIndependentToolsConcurrentlyWithinBound() {
+        ConversationSession session = new ConversationSession();
+
+        orchestrator(null).executePlan(session, 3).join();
+
+        assertThat(maxInFlight.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReportFailureAndNotUnlockDependents() {
+        ConversationSession session = new ConversationSession();
+
+        PlanReport report = orchestrator("role.create").executePlan(session, 4).join();
+
+        assertThat(report.success()).isFalse();
+        assertThat(report.nodes())
+            .filteredOn(n -> n.tool().equals("role.create"))
+            .singleElement()
+            .satisfies(n -> assertThat(n.status()).isEqualTo(ToolResult.Status.FAILED));
+        assertThat(report.nodes()).extracting(PlanReport.Node::tool).doesNotContain("role.assign");
+        assertThat(session.getState().isWorkflowConfigured()).isTrue();
+        assertThat(session.getState().isRoleAssignmentDone()).isFalse();
+    }
+
+    private ConversationOrchestrator orchestrator(String failingTool) {
+        return new ConversationOrchestrator(
+            new AllowedToolsResolver(),
+            new ToolRegistry(tools().stream()
+                .map(t -> slow(t, t.name().equals(failingTool)))
+                .toList())
+        );
+    }
+
+    /**
+     * The tools AppConfig registers when the DIGIT client is disabled.
+     */
+    private static List<ToolHandler> tools() {
+        return List.of(
+            new AccountCreateTool(),
+            new AccountConfigureTool(),
+            new IdGenConfigureTool(),
+            new WorkflowConfigureTool(),
+            new NotificationConfigureTool(),
+            new BoundaryConfigureTool(),
+            new RegistryConfigureTool(),
+            new UserCreateTool(),
+            new RoleCreateTool(),
+            new RoleAssignTool()
+        );
+    }
+
+    /**
+     * Simulates a remote call that takes a few milliseconds.
+     */
+    private ToolHandler slow(ToolHandler delegate, boolean fail) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return delegate.name();
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return delegate.apply(state);
+            }
+
+            @Override
+            public CompletionStage<ToolResult> executeAsync(ConfigState state) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    inFlight.decrementAndGet();
+                    if (fail) {
+                        throw new IllegalStateException("DIGIT unavailable");
+                    }
+                    return ToolResult.success(name(), this::apply);
+                }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+            }
+        };
+    }
+}
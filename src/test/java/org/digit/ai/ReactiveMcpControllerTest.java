@@ -0,0 +1,303 @@
+package org.digit.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digit.ai.admission.ReactiveLlmAdmission;
+import org.digit.ai.ai.AiDecision;
+import org.digit.ai.ai.AiToolSelector;
+import org.digit.ai.ai.InferenceContext;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.idempotency.IdempotencyCache;
+import org.digit.ai.mcp.AiRequest;
+import org.digit.ai.mcp.ConversationService;
+import org.digit.ai.mcp.ReactiveMcpController;
+import org.digit.ai.mcp.ToolExecuteResponse;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.digit.ai.tools.ToolResult;
+import org.digit.ai.tools.ToolSchema;
+import org.digit.ai.usage.LlmUsageTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveMcpControllerTest {
+
+    private final SessionStore sessions = new SessionStore();
+    private final Sinks.One<AiDecision> openAi = Sinks.one();
+    private final ReactiveLlmAdmission admission = new ReactiveLlmAdmission(
+        1, 1, Duration.ofSeconds(2), Duration.ofSeconds(3), new SimpleMeterRegistry()
+    );
+
+    @AfterEach
+    void teardown() {
+        admission.close();
+    }
+
+    @Test
+    public void shouldConfirmPendingActionLikeServletApi() {
+        WebTestClient client = client();
+        sessions.getSession("s1").setPendingAction("account.create");
+
+        client.post().uri("/mcp/ai")
+            .header("X-Session-Id", "s1")
+            .bodyValue("{\"message\":\"yes\"}")
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(ToolExecuteResponse.class)
+            .value(response -> assertThat(response.success()).isTrue());
+
+        assertThat(sessions.getSession("s1").getState().getAccount().isCreated()).isTrue();
+        assertThat(sessions.getSession("s1").getPendingAction()).isNull();
+
+        client.get().uri("/mcp/allowed-tools")
+            .header("X-Session-Id", "s1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.tools").isArray();
+    }
+
+    @Test
+    public void shouldStoreProposedActionFromReactiveDecision() {
+        openAi.tryEmitValue(AiDecision.explain("Shall I proceed?", "account.create"));
+
+        client().post().uri("/mcp/ai")
+            .header("X-Session-Id", "s2")
+            .header("Content-Type", "application/json")
+            .bodyValue("{\"message\":\"set up my account\"}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(ToolExecuteResponse.class)
+            .value(response -> assertThat(response.message()).isEqualTo("Shall I proceed?"));
+
+        assertThat(sessions.getSession("s2").getPendingAction()).isEqualTo("account.create");
+    }
+
+    @Test
+    public void shouldPassPlanArgumentsToTools() {
+        List<Map<String, Object>> received = new CopyOnWriteArrayList<>();
+        ToolHandler create = new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+
+            @Override
+            public Map<String, Object> parameters() {
+                return ToolSchema.object().required("tenantName", "Name of the tenant").build();
+            }
+
+            @Override
+            public CompletionStage<ToolResult> executeAsync(ConfigState state, Map<String, Object> arguments) {
+                received.add(arguments);
+                return executeAsync(state);
+            }
+        };
+        WebTestClient client = WebTestClient.bindToController(controller(create)).build();
+
+        client.post().uri("/mcp/plan")
+            .header("X-Session-Id", "s3")
+            .header("Content-Type", "application/json")
+            .bodyValue("{\"account.create\":{\"tenantName\":\"pb\"}}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.nodes[0].status").isEqualTo("SUCCESS");
+
+        assertThat(sessions.getSession("s3").getState().getAccount().isCreated()).isTrue();
+        assertThat(received).containsExactly(Map.of("tenantName", "pb"));
+
+        client.post().uri("/mcp/plan")
+            .header("X-Session-Id", "s4")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.nodes[0].status").isEqualTo("FAILED");
+    }
+
+    @Test
+    public void shouldShedWithRetryAfterWhenSaturated() {
+        ReactiveMcpController controller = controller();
+
+        // one call in flight, one queued; the model never answers
+        for (int i = 0; i < 2; i++) {
+            controller.aiExecute("busy" + i, null, null, null, new AiRequest("set up my workflow")).subscribe();
+        }
+
+        WebTestClient.bindToController(controller).build()
+            .post().uri("/mcp/ai")
+            .header("X-Session-Id", "late")
+            .header("Content-Type", "application/json")
+            .bodyValue("{\"message\":\"set up my workflow\"}")
+            .exchange()
+            .expectStatus().isEqualTo(503)
+            .expectHeader().valueEquals("Retry-After", "3");
+    }
+
+    /**
+     * Concurrent conversations waiting on a slow model, served by a real
+     * Tomcat and a real Netty server: connections per core held open,
+     * and how many threads each stack needed for them.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkConnectionsPerCore() throws Exception {
+        int connections = 500;
+        for (WebApplicationType type : List.of(WebApplicationType.SERVLET, WebApplicationType.REACTIVE)) {
+            benchmark(type, connections);
+        }
+    }
+
+    private void benchmark(WebApplicationType type, int connections) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                DigitAiApplication.class, SlowModel.class)
+                .run(
+                    "--spring.main.web-application-type=" + type,
+                    "--server.port=0",
+                    "--digit.warmup.enabled=false",
+                    "--digit.audit.enabled=false",
+                    "--digit.llm.rate-limit.enabled=false",
+                    "--digit.admission.llm.concurrency=" + connections,
+                    "--digit.admission.llm.queue-capacity=" + connections,
+                    "--digit.admission.llm.max-queue-wait=60s"
+                )) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+            HttpClient http = HttpClient.newBuilder().executor(clientExecutor).build();
+
+            int before = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+            List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                calls.add(http.sendAsync(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/mcp/ai"))
+                        .header("X-Session-Id", "bench" + i)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"set up my workflow\"}"))
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString()
+                ));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+            long ok = calls.stream().filter(c -> c.join().statusCode() == 200).count();
+            int peakThreads = threads.getPeakThreadCount() - before;
+
+            clientExecutor.shutdownNow();
+            assertThat(ok).isEqualTo(connections);
+            if (type == WebApplicationType.REACTIVE) {
+                // the event loop holds every conversation without a thread each
+                assertThat(peakThreads).isLessThan(connections);
+            }
+        }
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToController(controller()).build();
+    }
+
+    private ReactiveMcpController controller() {
+        ToolHandler create = new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+        };
+        return controller(create);
+    }
+
+    private ReactiveMcpController controller(ToolHandler create) {
+        AiToolSelector selector = new AiToolSelector() {
+            @Override
+            public AiDecision decide(String message, List<String> tools) {
+                throw new AssertionError("blocking path used");
+            }
+
+            @Override
+            public Mono<AiDecision> decideReactive(String message, List<String> tools, InferenceContext context) {
+                return openAi.asMono();
+            }
+        };
+
+        ConversationOrchestrator orchestrator =
+            new ConversationOrchestrator(new AllowedToolsResolver(), new ToolRegistry(List.of(create)));
+        ConversationService conversations = new ConversationService(
+            orchestrator,
+            selector,
+            sessions,
+            new IdempotencyCache<>(Duration.ofMinutes(1), 10),
+            null,
+            LlmUsageTracker.unlimited(),
+            300,
+            null
+        );
+        return new ReactiveMcpController(conversations, orchestrator, selector, sessions, 4, admission);
+    }
+
+    /**
+     * Model with 300 ms latency: blocking on the servlet stack, a timer
+     * on the reactive one.
+     */
+    static class SlowModel {
+
+        private static final Duration LATENCY = Duration.ofMillis(300);
+
+        @Bean
+        @Primary
+        AiToolSelector slowModel() {
+            return new AiToolSelector() {
+                @Override
+                public AiDecision decide(String message, List<String> tools) {
+                    try {
+                        Thread.sleep(LATENCY.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return AiDecision.explain("Shall I proceed?", "workflow.configure");
+                }
+
+                @Override
+                public Mono<AiDecision> decideReactive(String message, List<String> tools, InferenceContext context) {
+                    return Mono.delay(LATENCY).thenReturn(AiDecision.explain("Shall I proceed?", "workflow.configure"));
+                }
+            };
+        }
+    }
+}
@@ -67,20 +67,21 @@ class SessionIntegrationTest {
             }
 
             @Override
-            public void execute(ConfigState state) {
+            public ConfigState apply(ConfigState state) {
                 // Mock execution - just mark as done based on tool name
-                switch (name) {
-                    case "account.create" -> state.getAccount().setCreated(true);
-                    case "account.configure" -> state.getAccount().setConfigured(true);
-                    case "idgen.configure" -> state.setIdGenConfigured(true);
-                    case "workflow.configure" -> state.setWorkflowConfigured(true);
-                    case "boundary.configure" -> state.setBoundaryConfigured(true);
-                    case "notification.configure" -> state.setNotificationConfigured(true);
-                    case "registry.configure" -> state.setRegistrySchemaConfigured(true);
-                    case "user.create" -> state.getUser().setCreated(true);
-                    case "role.create" -> state.getRole().setCreated(true);
-                    case "role.assign" -> state.setRoleAssignmentDone(true);
-                }
+                return switch (name) {
+                    case "account.create" -> state.withAccount(state.getAccount().withCreated(true));
+                    case "account.configure" -> state.withAccount(state.getAccount().withConfigured(true));
+                    case "idgen.configure" -> state.withIdGenConfigured(true);
+                    case "workflow.configure" -> state.withWorkflowConfigured(true);
+                    case "boundary.configure" -> state.withBoundaryConfigured(true);
+                    case "notification.configure" -> state.withNotificationConfigured(true);
+                    case "registry.configure" -> state.withRegistrySchemaConfigured(true);
+                    case "user.create" -> state.withUser(state.getUser().withCreated(true));
+                    case "role.create" -> state.withRole(state.getRole().withCreated(true));
+                    case "role.assign" -> state.withRoleAssignmentDone(true);
+                    default -> state;
+                };
             }
         };
     }
@@ -121,7 +122,7 @@ class SessionIntegrationTest {
             String action = session.getPendingAction();
             session.clearPendingAction();
             
-            orchestrator.execute(action, session.getState());
+            orchestrator.execute(action, session);
             
             assertThat(session.getPendingAction()).isNull();
             assertThat(session.getState().getAccount().isCreated()).isTrue();
@@ -165,7 +166,7 @@ class SessionIntegrationTest {
         // Step 2: User says yes
         String action = session.getPendingAction();
         session.clearPendingAction();
-        orchestrator.execute(action, session.getState());
+        orchestrator.execute(action, session);
         
         assertThat(session.getState().getAccount().isCreated()).isTrue();
         
@@ -187,12 +188,12 @@ class SessionIntegrationTest {
         session.setPendingAction(decision.proposedAction());
         
         // Step 2: User confirms
-        orchestrator.execute(session.getPendingAction(), session.getState());
+        orchestrator.execute(session.getPendingAction(), session);
         session.clearPendingAction();
         
         // Step 3: Account configure
         allowedTools = orchestrator.getAllowedTools(session.getState());
-        orchestrator.execute("account.configure", session.getState());
+        orchestrator.execute("account.configure", session);
         
         // Step 4: Now idgen should be available
         allowedTools = orchestrator.getAllowedTools(session.getState());
@@ -225,7 +226,7 @@ class SessionIntegrationTest {
         session.setPendingAction(decision.proposedAction());
         
         // Step 4: User confirms this time
-        orchestrator.execute(session.getPendingAction(), session.getState());
+        orchestrator.execute(session.getPendingAction(), session);
         session.clearPendingAction();
         
         assertThat(session.getState().getAccount().isCreated()).isTrue();
@@ -255,7 +256,7 @@ class SessionIntegrationTest {
         assertThat(session2.getPendingAction()).isEqualTo("account.create");
         
         // Session 1 confirms
-        orchestrator.execute(session1.getPendingAction(), session1.getState());
+        orchestrator.execute(session1.getPendingAction(), session1);
         session1.clearPendingAction();
         
         // Session 1 should be updated, session 2 unchanged
@@ -270,8 +271,8 @@ class SessionIntegrationTest {
         ConversationSession session2 = sessionStore.getSession("state-2");
         
         // Session 1: Complete account setup
-        orchestrator.execute("account.create", session1.getState());
-        orchestrator.execute("account.configure", session1.getState());
+        orchestrator.execute("account.create", session1);
+        orchestrator.execute("account.configure", session1);
         
         // Session 2: Still at beginning
         var allowedTools1 = orchestrator.getAllowedTools(session1.getState());
@@ -311,8 +312,8 @@ class SessionIntegrationTest {
         ConversationSession session = sessionStore.getSession("after-setup");
         
         // Complete account setup
-        orchestrator.execute("account.create", session.getState());
-        orchestrator.execute("account.configure", session.getState());
+        orchestrator.execute("account.create", session);
+        orchestrator.execute("account.configure", session);
         
         // Now ask about workflow
         var allowedTools = orchestrator.getAllowedTools(session.getState());
@@ -357,7 +358,7 @@ class SessionIntegrationTest {
         session.setPendingAction("account.create");
         
         // First yes
-        orchestrator.execute(session.getPendingAction(), session.getState());
+        orchestrator.execute(session.getPendingAction(), session);
         session.clearPendingAction();
         
         assertThat(session.getState().getAccount().isCreated()).isTrue();
@@ -391,8 +392,8 @@ class SessionIntegrationTest {
         assertThat(session.getPendingAction()).isEqualTo("account.create");
         
         // But if account was ready and user changed intent
-        orchestrator.execute("account.create", session.getState());
-        orchestrator.execute("account.configure", session.getState());
+        orchestrator.execute("account.create", session);
+        orchestrator.execute("account.configure", session);
         
         allowedTools = orchestrator.getAllowedTools(session.getState());
         decision1 = selector.decide("configure workflow", allowedTools);
@@ -441,35 +442,35 @@ class SessionIntegrationTest {
         assertThat(decision.proposedAction()).isEqualTo("account.create");
         
         // 2. User confirms
-        orchestrator.execute(decision.proposedAction(), session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
         
         // 3. Account configure
         allowedTools = orchestrator.getAllowedTools(session.getState());
-        orchestrator.execute("account.configure", session.getState());
+        orchestrator.execute("account.configure", session);
         
         // 4. User wants workflow
         allowedTools = orchestrator.getAllowedTools(session.getState());
         decision = selector.decide("configure workflow", allowedTools);
         assertThat(decision.proposedAction()).isEqualTo("workflow.configure");
-        orchestrator.execute(decision.proposedAction(), session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
         
         // 5. User wants idgen
         allowedTools = orchestrator.getAllowedTools(session.getState());
         decision = selector.decide("unique codes", allowedTools);
         assertThat(decision.proposedAction()).isEqualTo("idgen.configure");
-        orchestrator.execute(decision.proposedAction(), session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
         
         // 6. User wants to create user
         allowedTools = orchestrator.getAllowedTools(session.getState());
         decision = selector.decide("create user", allowedTools);
         assertThat(decision.proposedAction()).isEqualTo("user.create");
-        orchestrator.execute(decision.proposedAction(), session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
         
         // 7. User wants to create role
         allowedTools = orchestrator.getAllowedTools(session.getState());
         decision = selector.decide("create role", allowedTools);
         assertThat(decision.proposedAction()).isEqualTo("role.create");
-        orchestrator.execute(decision.proposedAction(), session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
         
         // 8. User wants to assign role
         allowedTools = orchestrator.getAllowedTools(session.getState());
@@ -511,8 +512,8 @@ class SessionIntegrationTest {
         assertThat(decision.proposedAction()).isEqualTo("account.create");
         
         // 6. Confirms
-        orchestrator.execute(decision.proposedAction(), session.getState());
-        orchestrator.execute("account.configure", session.getState());
+        orchestrator.execute(decision.proposedAction(), session);
+        orchestrator.execute("account.configure", session);
         
         // 7. Now can do registry
         allowedTools = orchestrator.getAllowedTools(session.getState());
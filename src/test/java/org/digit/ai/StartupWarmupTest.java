@@ -0,0 +1,60 @@
+package org.digit.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.digit.ai.ai.OpenAiToolSelector;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.warmup.StartupWarmup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupWarmupTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // No API key: nothing to preconnect to
+    private final OpenAiToolSelector selector = new OpenAiToolSelector(null);
+    private final AllowedToolsResolver resolver = new AllowedToolsResolver();
+
+    @Test
+    public void shouldPrimePromptCacheForEveryReachableState() throws Exception {
+        StartupWarmup warmup = warmup(directory.resolve("tool-sets.txt"));
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(selector.cachedToolSets())
+            .contains(resolver.resolve(new ConfigState()))
+            .contains(List.of());
+        assertThat(registry.get("digit.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS))
+            .isEqualTo(warmup.durationMillis());
+    }
+
+    @Test
+    public void shouldPreloadSnapshotAndWriteItBackOnShutdown() throws Exception {
+        Path snapshot = directory.resolve("warmup/tool-sets.txt");
+        Files.createDirectories(snapshot.getParent());
+        Files.write(snapshot, List.of("role.assign,user.create"));
+        StartupWarmup warmup = warmup(snapshot);
+
+        warmup.run(new DefaultApplicationArguments());
+        warmup.destroy();
+
+        assertThat(selector.cachedToolSets()).contains(List.of("user.create", "role.assign"));
+        assertThat(Files.readAllLines(snapshot)).contains("user.create,role.assign");
+    }
+
+    private StartupWarmup warmup(Path snapshot) {
+        return new StartupWarmup(selector, resolver, null, new ObjectMapper(), registry, snapshot, 5);
+    }
+}
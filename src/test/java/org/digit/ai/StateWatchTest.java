@@ -0,0 +1,184 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.mcp.StateWatchController;
+import org.digit.ai.orchestrator.ConversationOrchestrator;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.session.ConversationSession;
+import org.digit.ai.session.SessionStore;
+import org.digit.ai.session.StateWatchers;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StateWatchTest {
+
+    private final SessionStore sessions = new SessionStore();
+    private final StateWatchers watchers = new StateWatchers();
+    private final ConversationOrchestrator orchestrator = new ConversationOrchestrator(
+        new AllowedToolsResolver(),
+        new ToolRegistry(List.of(createAccount())),
+        Duration.ofSeconds(5),
+        null,
+        watchers
+    );
+
+    @Test
+    public void shouldAnswerAtOnceWhenCursorIsBehind() {
+        ConversationSession session = sessions.getSession("s1");
+
+        assertThat(watchers.awaitChange(session, -1)).isCompletedWithValue(0L);
+        assertThat(watchers.watching()).isZero();
+    }
+
+    @Test
+    public void shouldAnswerAtOnceWhenCursorIsAhead() {
+        ConversationSession session = sessions.getSession("s5");
+
+        assertThat(watchers.awaitChange(session, 7)).isCompletedWithValue(0L);
+        assertThat(watchers.watching()).isZero();
+    }
+
+    @Test
+    public void shouldWakeWatchersWhenToolChangesState() {
+        ConversationSession session = sessions.getSession("s2");
+        CompletableFuture<Long> first = watchers.awaitChange(session, 0);
+        CompletableFuture<Long> second = watchers.awaitChange(session, 0);
+        CompletableFuture<Long> other = watchers.awaitChange(sessions.getSession("other"), 0);
+        assertThat(watchers.watching()).isEqualTo(3);
+
+        orchestrator.executeAsync("account.create", session).join();
+
+        assertThat(first).isCompletedWithValue(1L);
+        assertThat(second).isCompletedWithValue(1L);
+        assertThat(other).isNotDone();
+        assertThat(watchers.watching()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldUnregisterWatchersThatTimeOut() {
+        ConversationSession session = sessions.getSession("s3");
+        for (int i = 0; i < 100; i++) {
+            watchers.awaitChange(session, 0).completeOnTimeout(Long.MIN_VALUE, 1, TimeUnit.MILLISECONDS).join();
+        }
+
+        assertThat(watchers.watching()).isZero();
+    }
+
+    @Test
+    public void shouldLongPollUntilChangeOrTimeout() throws Exception {
+        MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new StateWatchController(sessions, orchestrator, watchers, Duration.ofMillis(50)))
+            .build();
+
+        MvcResult idle = mvc.perform(get("/mcp/state/changes?since=0").header("X-Session-Id", "s4"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mvc.perform(asyncDispatch(idle)).andExpect(status().isNotModified());
+
+        MvcResult watch = mvc.perform(get("/mcp/state/changes?since=0").header("X-Session-Id", "s4"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        orchestrator.execute("account.create", sessions.getSession("s4"));
+
+        mvc.perform(asyncDispatch(watch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(1))
+            .andExpect(jsonPath("$.tools[0]").value("account.configure"));
+    }
+
+    /**
+     * Watchers parked on a real Tomcat, one session each, all woken by a
+     * tool execution: threads the server needed for them.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkWatchers() throws Exception {
+        int watches = 2000;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DigitAiApplication.class).run(
+                "--server.port=0",
+                "--digit.warmup.enabled=false",
+                "--digit.audit.enabled=false",
+                "--digit.watch.timeout=20s"
+        )) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            StateWatchers registered = context.getBean(StateWatchers.class);
+            SessionStore store = context.getBean(SessionStore.class);
+            ConversationOrchestrator tools = context.getBean(ConversationOrchestrator.class);
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+            HttpClient http = HttpClient.newBuilder().executor(clientExecutor).build();
+
+            int before = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+            List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < watches; i++) {
+                calls.add(http.sendAsync(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/mcp/state/changes?since=0"))
+                        .header("X-Session-Id", "watch" + i)
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString()
+                ));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (registered.watching() < watches && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            int parked = registered.watching();
+            int peak = threads.getPeakThreadCount() - before;
+
+            for (int i = 0; i < watches; i++) {
+                tools.execute("account.create", store.getSession("watch" + i));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+            long ok = calls.stream().filter(c -> c.join().statusCode() == 200).count();
+
+            clientExecutor.shutdownNow();
+            // parked watches hold no request thread
+            assertThat(parked).isEqualTo(watches);
+            assertThat(peak).isLessThan(watches);
+            assertThat(ok).isEqualTo(watches);
+        }
+    }
+
+    private static ToolHandler createAccount() {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return "account.create";
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state.withAccount(state.getAccount().withCreated(true));
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.digit.ai.mcp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantKeysTest {
+
+    @Test
+    void shouldNeverUseTheRawApiKey() {
+        String key = TenantKeys.of("sk-live-secret", "pb.amritsar");
+
+        assertThat(key).startsWith("key-").doesNotContain("secret").hasSize(20);
+        assertThat(TenantKeys.of("sk-live-secret", null)).isEqualTo(key);
+        assertThat(TenantKeys.of("sk-live-other", null)).isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldFallBackToTheTenantId() {
+        assertThat(TenantKeys.of(null, "pb.amritsar")).isEqualTo("pb.amritsar");
+        assertThat(TenantKeys.of(null, null)).isNull();
+    }
+}
@@ -0,0 +1,142 @@
+package org.digit.ai;
+
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.ToolGraph;
+import org.digit.ai.state.ConfigState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ToolGraphTest {
+
+    @Test
+    public void shouldRejectUnknownFact() {
+        ToolGraph graph = new ToolGraph()
+            .fact("account.created", s -> s.getAccount().isCreated());
+        graph.tool("account.configure")
+            .requires("account.missing")
+            .completes("account.created");
+
+        assertThatThrownBy(graph::compile)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("account.missing");
+    }
+
+    @Test
+    public void shouldRejectCycles() {
+        ToolGraph graph = new ToolGraph()
+            .fact("a", s -> false)
+            .fact("b", s -> false);
+        graph.tool("make.a").requires("b").completes("a");
+        graph.tool("make.b").requires("a").completes("b");
+
+        assertThatThrownBy(graph::compile)
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldResolveWithoutAllocating() {
+        AllowedToolsResolver resolver = new AllowedToolsResolver();
+        ConfigState state = new ConfigState();
+        state = state.withAccount(state.getAccount().withCreated(true));
+        state = state.withAccount(state.getAccount().withConfigured(true));
+        long[] allowed = resolver.graph().newToolSet();
+
+        for (int i = 0; i < 20_000; i++) {
+            resolver.resolve(state, allowed);
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            resolver.resolve(state, allowed);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertThat(Long.bitCount(allowed[0])).isEqualTo(7);
+        assertThat(allocated).isLessThan(10_000);
+    }
+
+    @Test
+    public void shouldShareResolvedToolSets() {
+        AllowedToolsResolver resolver = new AllowedToolsResolver();
+        ConfigState state = new ConfigState();
+        state = state.withAccount(state.getAccount().withCreated(true));
+        ConfigState configured = state.withAccount(state.getAccount().withConfigured(true));
+
+        for (int i = 0; i < 20_000; i++) {
+            resolver.resolve(configured);
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            resolver.resolve(configured);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertThat(resolver.resolve(configured)).isSameAs(resolver.resolve(configured)).hasSize(7);
+        assertThat(resolver.resolve(state)).containsExactly("account.configure");
+        assertThat(allocated).isLessThan(10_000);
+    }
+
+    /**
+     * Benchmark: resolve() over a layered graph of 500 synthetic tools,
+     * each requiring up to three facts completed by earlier tools.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkResolveWith500SyntheticTools() {
+        int toolCount = 500;
+        Random random = new Random(42);
+
+        ToolGraph graph = new ToolGraph();
+        for (int i = 0; i < toolCount; i++) {
+            graph.fact("fact." + i, s -> false);
+        }
+        for (int i = 0; i < toolCount; i++) {
+            ToolGraph.ToolSpec spec = graph.tool("tool." + i).completes("fact." + i);
+            for (int r = 0; i > 0 && r < 3; r++) {
+                spec.requires("fact." + random.nextInt(i));
+            }
+        }
+        CompiledToolGraph compiled = graph.compile();
+
+        long[][] factStates = new long[64][];
+        for (int s = 0; s < factStates.length; s++) {
+            factStates[s] = compiled.newFactSet();
+            for (int f = 0; f < toolCount; f++) {
+                if (random.nextInt(100) < s + 20) {
+                    factStates[s][f >>> 6] |= 1L << f;
+                }
+            }
+        }
+        long[] allowed = compiled.newToolSet();
+
+        long sink = 0;
+        for (int i = 0; i < 200_000; i++) {
+            compiled.resolve(factStates[i & 63], allowed);
+            sink += allowed[0];
+        }
+
+        int iterations = 1_000_000;
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            compiled.resolve(factStates[i & 63], allowed);
+            sink += allowed[i & 7];
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        assertThat(sink).isNotZero();
+        assertThat(allocated).isLessThan(10_000);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
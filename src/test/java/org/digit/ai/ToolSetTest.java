@@ -0,0 +1,134 @@
+package org.digit.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.digit.ai.gating.AllowedToolsResolver;
+import org.digit.ai.gating.CompiledToolGraph;
+import org.digit.ai.gating.DigitToolGraph;
+import org.digit.ai.gating.ToolId;
+import org.digit.ai.gating.ToolSet;
+import org.digit.ai.orchestrator.ToolRegistry;
+import org.digit.ai.state.ConfigState;
+import org.digit.ai.tools.ToolHandler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ToolSetTest {
+
+    private final AllowedToolsResolver resolver = new AllowedToolsResolver();
+    private final CompiledToolGraph graph = DigitToolGraph.compiled();
+
+    @Test
+    public void shouldInternOneIdPerDeclaredTool() {
+        ToolId create = graph.toolId("account.create");
+
+        assertThat(create).isSameAs(graph.toolId(new String("account.create")));
+        assertThat(create.ordinal()).isZero();
+        assertThat(graph.toolId(graph.toolCount() - 1).name()).isEqualTo("role.assign");
+        assertThat(graph.toolId("account.delete")).isNull();
+    }
+
+    @Test
+    public void shouldTestMembershipByIdAndName() {
+        ToolSet tools = resolver.resolve(configured());
+
+        assertThat(tools.contains(graph.toolId("workflow.configure"))).isTrue();
+        assertThat(tools.contains(graph.toolId("account.create"))).isFalse();
+        assertThat(tools.contains("user.create")).isTrue();
+        assertThat(tools.contains("account.delete")).isFalse();
+        assertThat(tools.id(0).name()).isEqualTo(tools.get(0));
+    }
+
+    @Test
+    public void shouldBehaveAsListOfNamesAtTheBoundary() throws Exception {
+        ToolSet tools = resolver.resolve(new ConfigState());
+
+        assertThat(tools).isEqualTo(List.of("account.create"));
+        assertThat(List.of("account.create")).isEqualTo(tools);
+        assertThat(tools.hashCode()).isEqualTo(List.of("account.create").hashCode());
+        assertThat(new ObjectMapper().writeValueAsString(tools)).isEqualTo("[\"account.create\"]");
+        assertThat(ToolSet.of(graph, List.of("role.assign", "account.create", "unknown")))
+            .containsExactly("account.create", "role.assign");
+    }
+
+    @Test
+    public void shouldLookUpHandlersById() {
+        ToolHandler create = handler("account.create");
+        ToolRegistry registry = new ToolRegistry(List.of(create));
+
+        assertThat(registry.get(graph.toolId("account.create"))).isSameAs(create);
+        assertThat(registry.get("account.create")).isSameAs(create);
+        assertThat(registry.get(graph.toolId("role.assign"))).isNull();
+        assertThat(registry.get("account.delete")).isNull();
+        assertThat(registry.parameterSchemas()).containsOnlyKeys("account.create");
+    }
+
+    @Test
+    public void shouldRejectHandlersTheGraphDoesNotDeclare() {
+        assertThatThrownBy(() -> new ToolRegistry(List.of(handler("account.delete"))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("account.delete");
+    }
+
+    /**
+     * Membership tests as done by the decision rules: a scan of a list
+     * of names against a bit test.
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkMembership() {
+        ToolSet tools = resolver.resolve(configured());
+        List<String> names = new ArrayList<>(tools);
+        ToolId[] probes = new ToolId[graph.toolCount()];
+        String[] probeNames = new String[graph.toolCount()];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = graph.toolId(i);
+            probeNames[i] = new String(probes[i].name());
+        }
+
+        int iterations = 2_000_000;
+        long sink = 0;
+        long listNanos = 0;
+        long bitNanos = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += names.contains(probeNames[i % probeNames.length]) ? 1 : 0;
+            }
+            listNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += tools.contains(probes[i % probes.length]) ? 1 : 0;
+            }
+            bitNanos = System.nanoTime() - start;
+        }
+        assertThat(sink).isEqualTo(4L * iterations * tools.size() / graph.toolCount());
+        assertThat(bitNanos).isLessThan(listNanos);
+    }
+
+    private static ConfigState configured() {
+        ConfigState state = new ConfigState();
+        state = state.withAccount(state.getAccount().withCreated(true));
+        return state.withAccount(state.getAccount().withConfigured(true));
+    }
+
+    private static ToolHandler handler(String name) {
+        return new ToolHandler() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public ConfigState apply(ConfigState state) {
+                return state;
+            }
+        };
+    }
+}